@@ -1,6 +1,10 @@
 package iscteiul.ista;
 
+import java.io.IOException;
+
+import iscteiul.ista.battleship.EngineMetrics;
 import iscteiul.ista.battleship.Fleet;
+import iscteiul.ista.battleship.GameServer;
 import iscteiul.ista.battleship.Tasks;
 
 /**
@@ -10,8 +14,14 @@ import iscteiul.ista.battleship.Tasks;
  */
 public class App
 {
-    public static void main( String[] args )
+    public static void main( String[] args ) throws IOException
     {
+        EngineMetrics.register();
+        if (args.length > 0 && args[0].equals("server")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : GameServer.DEFAULT_PORT;
+            new GameServer(port, Runtime.getRuntime().availableProcessors(), GameServer.DEFAULT_BACKLOG);
+            return;
+        }
 
         System.out.printf("\n***  Battleship Game ***\n");
 
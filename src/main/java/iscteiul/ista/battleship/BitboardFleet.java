@@ -0,0 +1,121 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * A fleet that, besides the list of ships, keeps a cell to ship table of the
+ * board and an occupancy bitboard (128 bits for the standard 10x10 board).
+ * Both are maintained by {@link #addShip(IShip)}, so
+ * {@link #shipAt(IPosition)} becomes a single array read instead of a scan
+ * over every position of every ship.
+ * <p>
+ * The rules for accepting a ship are the ones of {@link Fleet}.
+ */
+public class BitboardFleet extends Fleet {
+    /**
+     * For each cell of the board, in row-major order, the index of the ship in
+     * {@link #getShips()} plus one, or zero if the cell is empty
+     */
+    private short[] grid;
+    private long[] occupied;
+
+    public BitboardFleet() {
+        this(BoardSpec.STANDARD);
+    }
+
+    /**
+     * @param spec the board and fleet composition rules of the fleet
+     * @throws IllegalArgumentException if the fleet has too many ships to be
+     *                                  indexed
+     */
+    public BitboardFleet(BoardSpec spec) throws IllegalArgumentException {
+        this(spec, true);
+    }
+
+    /**
+     * @param spec    the board and fleet composition rules of the fleet
+     * @param metered whether {@link EngineMetrics} counts the fleet
+     * @throws IllegalArgumentException if the fleet has too many ships to be
+     *                                  indexed
+     */
+    BitboardFleet(BoardSpec spec, boolean metered) throws IllegalArgumentException {
+        super(spec, metered);
+        if (spec.getFleetSize() > Short.MAX_VALUE)
+            throw new IllegalArgumentException("ERROR! fleet too large for a bitboard: " + spec.getFleetSize());
+
+        grid = new short[spec.getCells()];
+        occupied = new long[(spec.getCells() + Long.SIZE - 1) / Long.SIZE];
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.Fleet#addShip(battleship.IShip)
+     */
+    @Override
+    public boolean addShip(IShip s) {
+        if (!super.addShip(s))
+            return false;
+
+        short index = (short) getShips().size();
+        for (IPosition pos : s.getPositions()) {
+            int cell = getBoardSpec().indexOf(pos.getRow(), pos.getColumn());
+            grid[cell] = index;
+            occupied[cell >>> 6] |= 1L << cell;
+        }
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.Fleet#shipAt(battleship.IPosition)
+     */
+    @Override
+    public IShip shipAt(IPosition pos) {
+        return shipAt(pos.getRow(), pos.getColumn());
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.Fleet#shipAt(int)
+     */
+    @Override
+    public IShip shipAt(int cell) {
+        return shipAt(IPosition.rowOf(cell), IPosition.columnOf(cell));
+    }
+
+    private IShip shipAt(int row, int column) {
+        if (!getBoardSpec().isInside(row, column))
+            return null;
+
+        int index = grid[getBoardSpec().indexOf(row, column)];
+        return index == 0 ? null : getShips().get(index - 1);
+    }
+
+    /**
+     * @param row    the row of the cell
+     * @param column the column of the cell
+     * @return true if some ship of the fleet occupies the given cell
+     */
+    public boolean isOccupied(int row, int column) {
+        if (!getBoardSpec().isInside(row, column))
+            return false;
+
+        int cell = getBoardSpec().indexOf(row, column);
+        return (occupied[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * @return the number of cells occupied by the ships of the fleet
+     */
+    public int getOccupiedCells() {
+        int count = 0;
+        for (long word : occupied)
+            count += Long.bitCount(word);
+        return count;
+    }
+
+}
@@ -0,0 +1,132 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Draws boards as text: one line per row, a {@code '.'} for each empty cell
+ * and a marker for each marked cell. The board is laid out in the target
+ * buffer and then marked in place, so drawing allocates nothing but the room
+ * the buffer needs.
+ */
+public final class BoardRenderer {
+    public static final char EMPTY = '.';
+    public static final char SHIP = '#';
+    public static final char SHOT = 'X';
+
+    private BoardRenderer() {
+    }
+
+    /**
+     * @param spec a board
+     * @return the number of characters of the drawing of the board
+     */
+    public static int length(BoardSpec spec) {
+        return spec.getRows() * (spec.getColumns() + 1);
+    }
+
+    /**
+     * Appends a board with the given positions marked
+     *
+     * @param spec      the board
+     * @param positions the positions to mark
+     * @param marker    the character marking them
+     * @param out       where to draw the board
+     * @throws IndexOutOfBoundsException if a position is outside the board
+     */
+    public static void appendBoard(BoardSpec spec, List<IPosition> positions, char marker, StringBuilder out) {
+        int start = appendEmpty(spec, out);
+        if (positions instanceof CellList) {
+            CellList cells = (CellList) positions;
+            for (int i = 0; i < cells.size(); i++) {
+                int cell = cells.getCell(i);
+                mark(spec, IPosition.rowOf(cell), IPosition.columnOf(cell), marker, start, out);
+            }
+        } else {
+            for (IPosition pos : positions)
+                mark(spec, pos.getRow(), pos.getColumn(), marker, start, out);
+        }
+    }
+
+    /**
+     * Appends a board with the given positions marked, in a single append to
+     * the target
+     *
+     * @param spec      the board
+     * @param positions the positions to mark
+     * @param marker    the character marking them
+     * @param out       where to draw the board
+     * @throws IOException               if the target cannot be written
+     * @throws IndexOutOfBoundsException if a position is outside the board
+     */
+    public static void appendBoard(BoardSpec spec, List<IPosition> positions, char marker, Appendable out)
+            throws IOException {
+        if (out instanceof StringBuilder) {
+            appendBoard(spec, positions, marker, (StringBuilder) out);
+            return;
+        }
+        StringBuilder board = new StringBuilder(length(spec));
+        appendBoard(spec, positions, marker, board);
+        out.append(board);
+    }
+
+    /**
+     * Appends the board of a fleet, with the cells of its ships marked
+     *
+     * @param fleet the fleet
+     * @param out   where to draw the board
+     */
+    public static void appendFleet(IFleet fleet, StringBuilder out) {
+        BoardSpec spec = fleet.getBoardSpec();
+        int start = appendEmpty(spec, out);
+        List<IShip> ships = fleet.getShips();
+        for (int i = 0; i < ships.size(); i++) {
+            List<IPosition> positions = ships.get(i).getPositions();
+            for (int j = 0; j < positions.size(); j++) {
+                IPosition pos = positions.get(j);
+                mark(spec, pos.getRow(), pos.getColumn(), SHIP, start, out);
+            }
+        }
+    }
+
+    /**
+     * Appends the board of a fleet, with the cells of its ships marked, in a
+     * single append to the target
+     *
+     * @param fleet the fleet
+     * @param out   where to draw the board
+     * @throws IOException if the target cannot be written
+     */
+    public static void appendFleet(IFleet fleet, Appendable out) throws IOException {
+        if (out instanceof StringBuilder) {
+            appendFleet(fleet, (StringBuilder) out);
+            return;
+        }
+        StringBuilder board = new StringBuilder(length(fleet.getBoardSpec()));
+        appendFleet(fleet, board);
+        out.append(board);
+    }
+
+    /**
+     * @return the index in out where the board starts
+     */
+    private static int appendEmpty(BoardSpec spec, StringBuilder out) {
+        int start = out.length();
+        out.ensureCapacity(start + length(spec));
+        for (int row = 0; row < spec.getRows(); row++) {
+            for (int col = 0; col < spec.getColumns(); col++)
+                out.append(EMPTY);
+            out.append('\n');
+        }
+        return start;
+    }
+
+    private static void mark(BoardSpec spec, int row, int column, char marker, int start, StringBuilder out) {
+        if (!spec.isInside(row, column))
+            throw new IndexOutOfBoundsException("ERROR! position outside the board: " + row + ", " + column);
+        out.setCharAt(start + row * (spec.getColumns() + 1) + column, marker);
+    }
+}
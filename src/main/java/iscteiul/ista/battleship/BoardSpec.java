@@ -0,0 +1,168 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The rules of a game: the dimensions of the (rectangular) board and the
+ * composition of the fleet. Fleets and games size their internal structures
+ * from the spec they are built with.
+ */
+public final class BoardSpec {
+    /**
+     * Largest number of rows or columns, so that every cell fits in a packed
+     * cell (see {@link IPosition#toCell(int, int)})
+     */
+    public static final int MAX_DIMENSION = Short.MAX_VALUE;
+
+    /**
+     * The standard 10x10 board with 1 galleon, 1 frigate, 2 carracks, 3
+     * caravels and 4 barges. These are the eleven ships accepted by the
+     * original {@code ships.size() <= FLEET_SIZE} rule.
+     */
+    public static final BoardSpec STANDARD = new BoardSpec(IFleet.BOARD_SIZE, IFleet.BOARD_SIZE);
+
+    private static Map<ShipType, Integer> standardComposition() {
+        Map<ShipType, Integer> composition = new EnumMap<>(ShipType.class);
+        composition.put(ShipType.GALLEON, 1);
+        composition.put(ShipType.FRIGATE, 1);
+        composition.put(ShipType.CARRACK, 2);
+        composition.put(ShipType.CARAVEL, 3);
+        composition.put(ShipType.BARGE, 4);
+        return composition;
+    }
+
+    // -----------------------------------------------------
+
+    private final int rows;
+    private final int columns;
+    private final Map<ShipType, Integer> composition;
+    private final int fleetSize;
+
+    /**
+     * Builds a board with the standard fleet composition
+     *
+     * @param rows    the number of rows of the board
+     * @param columns the number of columns of the board
+     */
+    public BoardSpec(int rows, int columns) {
+        this(rows, columns, standardComposition());
+    }
+
+    /**
+     * @param rows        the number of rows of the board
+     * @param columns     the number of columns of the board
+     * @param composition the number of ships of each type in a fleet
+     * @throws IllegalArgumentException if the dimensions or the composition are
+     *                                  not valid
+     */
+    public BoardSpec(int rows, int columns, Map<ShipType, Integer> composition) throws IllegalArgumentException {
+        if (rows < 1 || rows > MAX_DIMENSION || columns < 1 || columns > MAX_DIMENSION)
+            throw new IllegalArgumentException("ERROR! invalid board dimensions " + rows + "x" + columns);
+        if (composition == null)
+            throw new IllegalArgumentException("ERROR! missing fleet composition");
+
+        Map<ShipType, Integer> copy = new EnumMap<>(ShipType.class);
+        int total = 0;
+        for (Map.Entry<ShipType, Integer> entry : composition.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null || entry.getValue() < 0)
+                throw new IllegalArgumentException("ERROR! invalid fleet composition " + composition);
+            if (entry.getValue() > 0) {
+                copy.put(entry.getKey(), entry.getValue());
+                total += entry.getValue();
+            }
+        }
+
+        this.rows = rows;
+        this.columns = columns;
+        this.composition = Collections.unmodifiableMap(copy);
+        this.fleetSize = total;
+    }
+
+    /**
+     * @return the number of rows of the board
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return the number of columns of the board
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the number of cells of the board
+     */
+    public int getCells() {
+        return rows * columns;
+    }
+
+    /**
+     * @return the number of ships of each type in a fleet
+     */
+    public Map<ShipType, Integer> getComposition() {
+        return composition;
+    }
+
+    /**
+     * @param type a ship type
+     * @return the number of ships of the given type in a fleet
+     */
+    public int count(ShipType type) {
+        return composition.getOrDefault(type, 0);
+    }
+
+    /**
+     * @return the total number of ships in a fleet
+     */
+    public int getFleetSize() {
+        return fleetSize;
+    }
+
+    /**
+     * @param row    a row
+     * @param column a column
+     * @return true if (row, column) is a cell of the board
+     */
+    public boolean isInside(int row, int column) {
+        return row >= 0 && row < rows && column >= 0 && column < columns;
+    }
+
+    /**
+     * @param row    the row of a cell of the board
+     * @param column the column of a cell of the board
+     * @return the index of the cell in row-major order, from 0 to
+     * {@link #getCells()} - 1
+     */
+    public int indexOf(int row, int column) {
+        return row * columns + column;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        if (!(other instanceof BoardSpec))
+            return false;
+        BoardSpec spec = (BoardSpec) other;
+        return rows == spec.rows && columns == spec.columns && composition.equals(spec.composition);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(rows, columns, composition);
+    }
+
+    @Override
+    public String toString() {
+        return rows + "x" + columns + " " + composition;
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.List;
+
+/**
+ * The smallest rectangle of the board holding a set of positions, given by
+ * its top and bottom rows and its left and right columns (all inclusive)
+ */
+public final class BoundingBox {
+    /**
+     * @param positions a non-empty list of positions
+     * @return the bounding box of the given positions
+     */
+    public static BoundingBox of(List<IPosition> positions) {
+        assert positions != null && !positions.isEmpty();
+
+        IPosition first = positions.get(0);
+        int top = first.getRow();
+        int bottom = top;
+        int left = first.getColumn();
+        int right = left;
+        for (int i = 1; i < positions.size(); i++) {
+            IPosition pos = positions.get(i);
+            top = Math.min(top, pos.getRow());
+            bottom = Math.max(bottom, pos.getRow());
+            left = Math.min(left, pos.getColumn());
+            right = Math.max(right, pos.getColumn());
+        }
+        return new BoundingBox(top, bottom, left, right);
+    }
+
+    // -----------------------------------------------------
+
+    private final int top;
+    private final int bottom;
+    private final int left;
+    private final int right;
+
+    /**
+     * @param top    the top-most row
+     * @param bottom the bottom-most row
+     * @param left   the left-most column
+     * @param right  the right-most column
+     */
+    public BoundingBox(int top, int bottom, int left, int right) {
+        assert top <= bottom && left <= right;
+
+        this.top = top;
+        this.bottom = bottom;
+        this.left = left;
+        this.right = right;
+    }
+
+    public int getTop() {
+        return top;
+    }
+
+    public int getBottom() {
+        return bottom;
+    }
+
+    public int getLeft() {
+        return left;
+    }
+
+    public int getRight() {
+        return right;
+    }
+
+    /**
+     * @param row    a row
+     * @param column a column
+     * @return true if (row, column) lies inside the box
+     */
+    public boolean contains(int row, int column) {
+        return row >= top && row <= bottom && column >= left && column <= right;
+    }
+
+    /**
+     * @param row    a row
+     * @param column a column
+     * @return true if (row, column) lies inside the box or next to it
+     */
+    public boolean isNear(int row, int column) {
+        return row >= top - 1 && row <= bottom + 1 && column >= left - 1 && column <= right + 1;
+    }
+
+    /**
+     * @param other another box
+     * @return true if the boxes overlap or touch, even diagonally
+     */
+    public boolean isNear(BoundingBox other) {
+        return other.top <= bottom + 1 && other.bottom >= top - 1 && other.left <= right + 1
+                && other.right >= left - 1;
+    }
+
+    /**
+     * @param spec a board
+     * @return true if the whole box lies inside the board
+     */
+    public boolean isInside(BoardSpec spec) {
+        return top >= 0 && left >= 0 && bottom < spec.getRows() && right < spec.getColumns();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        if (!(other instanceof BoundingBox))
+            return false;
+        BoundingBox box = (BoundingBox) other;
+        return top == box.top && bottom == box.bottom && left == box.left && right == box.right;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((top * 31 + bottom) * 31 + left) * 31 + right;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + top + ".." + bottom + " x " + left + ".." + right + "]";
+    }
+}
@@ -5,33 +5,21 @@ package iscteiul.ista.battleship;
 
 public class Caravel extends Ship {
     private static final Integer SIZE = 2;
-    private static final String NAME = "Caravela";
 
     /**
      * @param bearing the bearing where the Caravel heads to
      * @param pos     initial point for positioning the Caravel
      */
     public Caravel(Compass bearing, IPosition pos) throws NullPointerException, IllegalArgumentException {
-        super(Caravel.NAME, bearing, pos);
+        super(ShipType.CARAVEL, bearing, pos);
 
         if (bearing == null)
             throw new NullPointerException("ERROR! invalid bearing for the caravel");
 
-        switch (bearing) {
-            case NORTH:
-            case SOUTH:
-                for (int r = 0; r < SIZE; r++)
-                    getPositions().add(new Position(pos.getRow() + r, pos.getColumn()));
-                break;
-            case EAST:
-            case WEST:
-                for (int c = 0; c < SIZE; c++)
-                    getPositions().add(new Position(pos.getRow(), pos.getColumn() + c));
-                break;
-            default:
-                throw new IllegalArgumentException("ERROR! invalid bearing for the caravel");
-        }
-
+        ShipShape shape = ShipShape.of(ShipType.CARAVEL, bearing);
+        if (shape == null)
+            throw new IllegalArgumentException("ERROR! invalid bearing for the caravel");
+        fill(shape);
     }
 
     /*
@@ -0,0 +1,74 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * A growable list of packed cells (see {@link IPosition#toCell(int, int)}),
+ * seen from the outside as a read-only list of positions. Adding a cell does
+ * not allocate a position object, nor does getting one of a board whose
+ * coordinates are interned.
+ */
+class CellList extends AbstractList<IPosition> implements RandomAccess {
+    private final BoardSpec spec;
+    private final Coordinates[] coordinates;
+    private int[] cells;
+    private int size;
+
+    CellList() {
+        this(BoardSpec.STANDARD);
+    }
+
+    /**
+     * @param spec the board of the cells, whose coordinates are handed out
+     */
+    CellList(BoardSpec spec) {
+        this(spec, 16);
+    }
+
+    /**
+     * @param spec     the board of the cells, whose coordinates are handed out
+     * @param capacity the initial number of cells the list can hold
+     */
+    CellList(BoardSpec spec, int capacity) {
+        this.spec = spec;
+        this.coordinates = Coordinates.interned(spec.getRows(), spec.getColumns());
+        cells = new int[Math.max(capacity, 1)];
+        size = 0;
+    }
+
+    /**
+     * @param cell the packed cell to append to the list
+     */
+    void addCell(int cell) {
+        if (size == cells.length)
+            cells = Arrays.copyOf(cells, size * 2);
+        cells[size++] = cell;
+    }
+
+    /**
+     * @param index the index of the cell in the list
+     * @return the packed cell at the given index
+     */
+    int getCell(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        return cells[index];
+    }
+
+    @Override
+    public IPosition get(int index) {
+        int cell = getCell(index);
+        return Coordinates.lookup(coordinates, spec.getRows(), spec.getColumns(), IPosition.rowOf(cell),
+                IPosition.columnOf(cell));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
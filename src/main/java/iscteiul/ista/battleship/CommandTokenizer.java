@@ -0,0 +1,273 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * Splits a stream of commands into whitespace-separated tokens, reading bytes
+ * straight from a buffer. Command words, ship kinds, integers and bearings are
+ * recognised without building a string for each token, so it replaces
+ * {@link java.util.Scanner} where the input is large.
+ * <p>
+ * Every byte up to {@code ' '} is whitespace; the words being matched are
+ * ASCII. Like the scanner, reading past the end of the input throws
+ * {@link NoSuchElementException}; unlike it, a token that is not of the type
+ * asked for is consumed before {@link InputMismatchException} is thrown. So
+ * is a token longer than {@link #MAX_TOKEN} bytes, which no command has, so
+ * that a run of bytes with no whitespace cannot take unbounded memory.
+ */
+public class CommandTokenizer implements Closeable {
+    static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Longest token read, in bytes
+     */
+    static final int MAX_TOKEN = 64;
+
+    private static final ShipType[] TYPES = ShipType.values();
+
+    private final InputStream in;
+    private final ReadableByteChannel channel;
+    private final byte[] buffer;
+    private final ByteBuffer wrapped;
+    private int position;
+    private int limit;
+    private boolean ended;
+
+    /**
+     * The last token read by {@link #nextToken()}
+     */
+    private final byte[] token = new byte[MAX_TOKEN];
+    private int tokenLength;
+
+    /**
+     * @param in the stream of commands
+     */
+    public CommandTokenizer(InputStream in) {
+        this(in, null, BUFFER_SIZE);
+    }
+
+    /**
+     * @param channel the channel of commands, in blocking mode
+     * @throws IllegalArgumentException if the channel is in non-blocking mode,
+     *                                  where reads would spin until input
+     *                                  arrives
+     */
+    public CommandTokenizer(ReadableByteChannel channel) throws IllegalArgumentException {
+        this(null, channel, BUFFER_SIZE);
+        if (channel instanceof SelectableChannel && !((SelectableChannel) channel).isBlocking())
+            throw new IllegalArgumentException("ERROR! non-blocking channel");
+    }
+
+    /**
+     * @param in         the stream of commands
+     * @param bufferSize the number of bytes read at a time
+     */
+    CommandTokenizer(InputStream in, int bufferSize) {
+        this(in, null, bufferSize);
+    }
+
+    private CommandTokenizer(InputStream in, ReadableByteChannel channel, int bufferSize) {
+        assert (in == null) != (channel == null) && bufferSize > 0;
+
+        this.in = in;
+        this.channel = channel;
+        this.buffer = new byte[bufferSize];
+        this.wrapped = ByteBuffer.wrap(buffer);
+    }
+
+    /**
+     * @return true if there is another token in the input
+     * @throws UncheckedIOException if the input cannot be read
+     */
+    public boolean hasNext() {
+        while (true) {
+            while (position < limit) {
+                if (buffer[position] > ' ' || buffer[position] < 0)
+                    return true;
+                position++;
+            }
+            if (!fill())
+                return false;
+        }
+    }
+
+    /**
+     * @return the next token
+     * @throws NoSuchElementException if the input has no more tokens
+     * @throws InputMismatchException if the token is too long
+     */
+    public String next() {
+        nextToken();
+        return new String(token, 0, tokenLength, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the next token and finds it among the given words
+     *
+     * @param words the words expected
+     * @return the word of {@code words} equal to the token, or null if there is
+     * none
+     * @throws NoSuchElementException if the input has no more tokens
+     * @throws InputMismatchException if the token is too long
+     */
+    public String nextWord(String[] words) {
+        nextToken();
+        for (String word : words)
+            if (tokenEquals(word))
+                return word;
+        return null;
+    }
+
+    /**
+     * Reads the next token as the kind of a ship, as used in the commands
+     *
+     * @return the type of ship of that kind, or null if there is none
+     * @throws NoSuchElementException if the input has no more tokens
+     * @throws InputMismatchException if the token is too long
+     */
+    public ShipType nextShipType() {
+        nextToken();
+        for (ShipType type : TYPES)
+            if (tokenEquals(type.getKind()))
+                return type;
+        return null;
+    }
+
+    /**
+     * Reads the next token as a bearing, given by its first character
+     *
+     * @return the bearing, {@link Compass#UNKNOWN} if it is not one
+     * @throws NoSuchElementException if the input has no more tokens
+     * @throws InputMismatchException if the token is too long
+     */
+    public Compass nextBearing() {
+        nextToken();
+        return Compass.charToCompass((char) (token[0] & 0xFF));
+    }
+
+    /**
+     * Reads the next token as a decimal integer, with an optional sign
+     *
+     * @return the integer
+     * @throws NoSuchElementException if the input has no more tokens
+     * @throws InputMismatchException if the token is not an int
+     */
+    public int nextInt() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        boolean negative = buffer[position] == '-';
+        boolean valid = true;
+        int digits = 0;
+        long value = 0;
+        if (negative || buffer[position] == '+')
+            position++;
+        while (true) {
+            if (position == limit && !fill())
+                break;
+            byte b = buffer[position];
+            if (b <= ' ' && b >= 0)
+                break;
+            position++;
+            if (b < '0' || b > '9' || value > Integer.MAX_VALUE + 1L)
+                valid = false;
+            else
+                value = value * 10 + (b - '0');
+            digits++;
+        }
+        if (negative)
+            value = -value;
+        if (!valid || digits == 0 || value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+            throw new InputMismatchException("ERROR! not an int");
+        return (int) value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null)
+            in.close();
+        else
+            channel.close();
+    }
+
+    /**
+     * Copies the next token into {@link #token}; a token too long for it is
+     * skipped whole
+     *
+     * @throws InputMismatchException if the token is too long
+     */
+    private void nextToken() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        tokenLength = 0;
+        boolean tooLong = false;
+        while (true) {
+            int start = position;
+            while (position < limit && (buffer[position] > ' ' || buffer[position] < 0))
+                position++;
+            int length = position - start;
+            if (tokenLength + length > MAX_TOKEN)
+                tooLong = true;
+            else
+                System.arraycopy(buffer, start, token, tokenLength, length);
+            tokenLength = Math.min(tokenLength + length, MAX_TOKEN);
+            if (position < limit || !fill())
+                break;
+        }
+        if (tooLong)
+            throw new InputMismatchException("ERROR! token longer than " + MAX_TOKEN + " bytes");
+    }
+
+    private boolean tokenEquals(String word) {
+        if (word.length() != tokenLength)
+            return false;
+        for (int i = 0; i < tokenLength; i++)
+            if (token[i] != word.charAt(i))
+                return false;
+        return true;
+    }
+
+    /**
+     * Reads more input into the buffer, once all of it has been used
+     *
+     * @return false at the end of the input
+     */
+    private boolean fill() {
+        if (ended)
+            return false;
+        try {
+            int read;
+            do {
+                if (in != null) {
+                    read = in.read(buffer);
+                } else {
+                    wrapped.clear();
+                    read = channel.read(wrapped);
+                }
+            } while (read == 0);
+            if (read < 0) {
+                ended = true;
+                position = limit = 0;
+                return false;
+            }
+            position = 0;
+            limit = read;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A game that many threads may fire at at the same time.
+ * <p>
+ * Every cell is claimed by the first shot at it with a compare-and-set on a
+ * bitset of the board, so each cell is fired at, and each ship cell counted
+ * as a hit, exactly once; later shots at the cell are counted as repeated.
+ * A hit then takes one from the cells left of its ship, kept in an
+ * {@link AtomicIntegerArray}, and the shot that takes the last one reports the
+ * ship as sunk. No lock is ever held. Counters are {@link LongAdder}s.
+ * <p>
+ * The ships themselves are only marked hit by the shot that sinks them, the
+ * one thread left touching them then; the floating ships are read from the
+ * cells left.
+ * <p>
+ * The fleet must be complete before the game starts and must not change
+ * during the game.
+ */
+public class ConcurrentGame implements IEncodableGame {
+    private static final int NO_CELL = Integer.MIN_VALUE;
+    private static final int NO_SHIP = -1;
+
+    private final IFleet fleet;
+    private final BoardSpec spec;
+    private final List<IShip> ships;
+
+    /**
+     * The index in {@link #ships} of the ship on each cell of the board, or
+     * {@link #NO_SHIP}
+     */
+    private final int[] shipIndex;
+
+    /**
+     * The cells of each ship not yet hit
+     */
+    private final AtomicIntegerArray cellsLeft;
+
+    /**
+     * One bit per cell of the board, set by the first shot at the cell
+     */
+    private final AtomicLongArray shotCells;
+
+    /**
+     * The packed cells fired at, in the order their slots were claimed; a
+     * slot holds {@link #NO_CELL} until its shot is written
+     */
+    private final AtomicIntegerArray shots;
+    private final AtomicInteger shotCount = new AtomicInteger();
+
+    private final LongAdder countInvalidShots = new LongAdder();
+    private final LongAdder countRepeatedShots = new LongAdder();
+    private final LongAdder countHits = new LongAdder();
+    private final LongAdder countSinks = new LongAdder();
+    private final int initialFloating;
+
+    /**
+     * @param fleet the complete fleet under fire; the game follows its board
+     *              spec
+     */
+    public ConcurrentGame(IFleet fleet) {
+        this.fleet = fleet;
+        this.spec = fleet.getBoardSpec();
+        this.shotCells = new AtomicLongArray((spec.getCells() + 63) >>> 6);
+        int[] empty = new int[spec.getCells()];
+        Arrays.fill(empty, NO_CELL);
+        this.shots = new AtomicIntegerArray(empty);
+
+        this.ships = new ArrayList<>(fleet.getShips());
+        this.shipIndex = new int[spec.getCells()];
+        Arrays.fill(shipIndex, NO_SHIP);
+        int[] left = new int[ships.size()];
+        int floating = 0;
+        for (int i = 0; i < ships.size(); i++) {
+            IShip s = ships.get(i);
+            for (IPosition p : s.getPositions())
+                shipIndex[spec.indexOf(p.getRow(), p.getColumn())] = i;
+            if (s.stillFloating()) {
+                left[i] = s.getPositions().size();
+                floating++;
+            }
+        }
+        this.cellsLeft = new AtomicIntegerArray(left);
+        this.initialFloating = floating;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#fire(battleship.IPosition)
+     */
+    @Override
+    public IShip fire(IPosition pos) {
+        return fire(pos.getRow(), pos.getColumn());
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#fire(int)
+     */
+    @Override
+    public IShip fire(int cell) {
+        return fire(IPosition.rowOf(cell), IPosition.columnOf(cell));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#fireBatch(int[], byte[])
+     */
+    @Override
+    public int fireBatch(int[] cells, byte[] outcomes) throws IllegalArgumentException {
+        if (outcomes.length < cells.length)
+            throw new IllegalArgumentException("ERROR! " + cells.length + " shots but room for " + outcomes.length
+                    + " outcomes");
+
+        int sunk = 0;
+        for (int i = 0; i < cells.length; i++) {
+            byte outcome = shoot(IPosition.rowOf(cells[i]), IPosition.columnOf(cells[i]));
+            outcomes[i] = outcome;
+            if (outcome == SUNK)
+                sunk++;
+        }
+        return sunk;
+    }
+
+    private IShip fire(int row, int column) {
+        return shoot(row, column) == SUNK ? fleet.shipAt(IPosition.toCell(row, column)) : null;
+    }
+
+    /**
+     * Fires a shot and updates the counters
+     *
+     * @return the outcome of the shot; when it is {@link IGame#SUNK}, the
+     * ship sunk is the one at the cell fired at
+     */
+    private byte shoot(int row, int column) {
+        return EngineMetrics.fired(resolve(row, column));
+    }
+
+    private byte resolve(int row, int column) {
+        if (!spec.isInside(row, column)) {
+            countInvalidShots.increment();
+            return INVALID;
+        }
+        int index = spec.indexOf(row, column);
+        if (!claim(index)) {
+            countRepeatedShots.increment();
+            return REPEATED;
+        }
+
+        shots.set(shotCount.getAndIncrement(), IPosition.toCell(row, column));
+        int ship = shipIndex[index];
+        if (ship == NO_SHIP)
+            return MISS;
+
+        countHits.increment();
+        if (cellsLeft.decrementAndGet(ship) != 0)
+            return HIT;
+
+        sink(ships.get(ship));
+        countSinks.increment();
+        return SUNK;
+    }
+
+    /**
+     * Marks every position of a ship hit, once all its cells were claimed
+     */
+    private static void sink(IShip s) {
+        for (IPosition p : s.getPositions())
+            s.shoot(p);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IEncodableGame#getFleet()
+     */
+    @Override
+    public IFleet getFleet() {
+        return fleet;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IEncodableGame#getShotWord(int)
+     */
+    @Override
+    public long getShotWord(int word) {
+        return shotCells.get(word);
+    }
+
+    /**
+     * @param index the index of a cell of the board
+     * @return true if this call is the first to claim the cell
+     */
+    private boolean claim(int index) {
+        int word = index >>> 6;
+        long bit = 1L << index;
+        long old;
+        do {
+            old = shotCells.get(word);
+            if ((old & bit) != 0)
+                return false;
+        } while (!shotCells.compareAndSet(word, old, old | bit));
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#getShots()
+     */
+    @Override
+    public List<IPosition> getShots() {
+        int n = Math.min(shotCount.get(), shots.length());
+        CellList list = new CellList(spec, n);
+        for (int i = 0; i < n; i++) {
+            int cell = shots.get(i);
+            if (cell != NO_CELL)
+                list.addCell(cell);
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#getRepeatedShots()
+     */
+    @Override
+    public int getRepeatedShots() {
+        return countRepeatedShots.intValue();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#getInvalidShots()
+     */
+    @Override
+    public int getInvalidShots() {
+        return countInvalidShots.intValue();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#getHits()
+     */
+    @Override
+    public int getHits() {
+        return countHits.intValue();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#getSunkShips()
+     */
+    @Override
+    public int getSunkShips() {
+        return countSinks.intValue();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#getRemainingShips()
+     */
+    @Override
+    public int getRemainingShips() {
+        return initialFloating - countSinks.intValue();
+    }
+
+    /**
+     * @return a snapshot of the ships not yet sunk
+     */
+    @Override
+    public List<IShip> getFloatingShips() {
+        List<IShip> floating = new ArrayList<>();
+        for (int i = 0; i < ships.size(); i++)
+            if (cellsLeft.get(i) > 0)
+                floating.add(ships.get(i));
+        return Collections.unmodifiableList(floating);
+    }
+
+    /**
+     * Prints the board showing valid shots that have been fired
+     */
+    @Override
+    public void printValidShots() {
+        Game.printBoard(spec, getShots(), BoardRenderer.SHOT);
+    }
+
+    /**
+     * Prints the board showing the fleet
+     */
+    @Override
+    public void printFleet() {
+        StringBuilder board = new StringBuilder(BoardRenderer.length(spec));
+        BoardRenderer.appendFleet(fleet, board);
+        System.out.print(board);
+    }
+}
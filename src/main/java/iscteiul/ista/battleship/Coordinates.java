@@ -0,0 +1,226 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable pair of board coordinates, without any cell state. It is meant
+ * for query-only positions (shots, lookups), while ships keep their own
+ * mutable {@link Position}s. Being shared, coordinates must not be handed
+ * where a position may be occupied or shot, such as the anchor of a ship.
+ * <p>
+ * Coordinates inside the board are flyweights: there is one table of
+ * instances per board shape, rows by columns, so {@link #of(int, int)} does
+ * not allocate for them. Coordinates outside the board (e.g. invalid shots),
+ * or on boards too large to be worth interning, are built on demand.
+ */
+public final class Coordinates implements IPosition {
+    /**
+     * Largest number of cells of a board whose coordinates are interned
+     */
+    static final int MAX_INTERNED_CELLS = 256 * 256;
+
+    private static final Map<Long, Coordinates[]> TABLES = new ConcurrentHashMap<>();
+    private static final Coordinates[] DEFAULT_TABLE = table(IFleet.BOARD_SIZE, IFleet.BOARD_SIZE);
+
+    /**
+     * @param row    the row
+     * @param column the column
+     * @return the coordinates (row, column) for the standard board
+     */
+    public static Coordinates of(int row, int column) {
+        return lookup(DEFAULT_TABLE, IFleet.BOARD_SIZE, IFleet.BOARD_SIZE, row, column);
+    }
+
+    /**
+     * @param boardSize the number of rows and columns of a square board
+     * @param row       the row
+     * @param column    the column
+     * @return the coordinates (row, column) for a board of the given size
+     */
+    public static Coordinates of(int boardSize, int row, int column) {
+        return of(boardSize, boardSize, row, column);
+    }
+
+    /**
+     * @param spec   a board
+     * @param row    the row
+     * @param column the column
+     * @return the coordinates (row, column) for the board
+     */
+    public static Coordinates of(BoardSpec spec, int row, int column) {
+        return of(spec.getRows(), spec.getColumns(), row, column);
+    }
+
+    /**
+     * @param rows    the number of rows of the board
+     * @param columns the number of columns of the board
+     * @param row     the row
+     * @param column  the column
+     * @return the coordinates (row, column) for a board of the given shape
+     */
+    public static Coordinates of(int rows, int columns, int row, int column) {
+        return lookup(interned(rows, columns), rows, columns, row, column);
+    }
+
+    /**
+     * @param rows    the number of rows of the board
+     * @param columns the number of columns of the board
+     * @return the table of the coordinates of the board, to be kept by callers
+     * that look up many, or null if they are not interned
+     */
+    static Coordinates[] interned(int rows, int columns) {
+        if (rows == IFleet.BOARD_SIZE && columns == IFleet.BOARD_SIZE)
+            return DEFAULT_TABLE;
+        if ((long) rows * columns > MAX_INTERNED_CELLS)
+            return null;
+        return table(rows, columns);
+    }
+
+    /**
+     * @param table   the table of the board, from {@link #interned(int, int)}
+     * @param rows    the number of rows of the board
+     * @param columns the number of columns of the board
+     * @param row     the row
+     * @param column  the column
+     * @return the coordinates (row, column) for the board
+     */
+    static Coordinates lookup(Coordinates[] table, int rows, int columns, int row, int column) {
+        if (table == null || row < 0 || row >= rows || column < 0 || column >= columns)
+            return new Coordinates(row, column);
+        return table[row * columns + column];
+    }
+
+    private static Coordinates[] table(int rows, int columns) {
+        assert rows > 0 && columns > 0;
+
+        return TABLES.computeIfAbsent(((long) rows << 32) | columns, shape -> {
+            Coordinates[] table = new Coordinates[rows * columns];
+            for (int r = 0; r < rows; r++)
+                for (int c = 0; c < columns; c++)
+                    table[r * columns + c] = new Coordinates(r, c);
+            return table;
+        });
+    }
+
+    // -----------------------------------------------------
+
+    private final int row;
+    private final int column;
+
+    private Coordinates(int row, int column) {
+        this.row = row;
+        this.column = column;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IPosition#getRow()
+     */
+    @Override
+    public int getRow() {
+        return row;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IPosition#getColumn()
+     */
+    @Override
+    public int getColumn() {
+        return column;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IPosition#getCell()
+     */
+    @Override
+    public int getCell() {
+        return IPosition.toCell(row, column);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * row + column;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IPosition#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object otherPosition) {
+        if (this == otherPosition)
+            return true;
+        if (otherPosition instanceof IPosition) {
+            IPosition other = (IPosition) otherPosition;
+            return (this.getRow() == other.getRow() && this.getColumn() == other.getColumn());
+        } else {
+            return false;
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IPosition#isAdjacentTo(battleship.IPosition)
+     */
+    @Override
+    public boolean isAdjacentTo(IPosition other) {
+        return (Math.abs(this.getRow() - other.getRow()) <= 1 && Math.abs(this.getColumn() - other.getColumn()) <= 1);
+    }
+
+    /**
+     * Coordinates carry no cell state
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void occupy() {
+        throw new UnsupportedOperationException("ERROR! coordinates cannot be occupied");
+    }
+
+    /**
+     * Coordinates carry no cell state
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void shoot() {
+        throw new UnsupportedOperationException("ERROR! coordinates cannot be shot");
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IPosition#isOccupied()
+     */
+    @Override
+    public boolean isOccupied() {
+        return false;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IPosition#isHit()
+     */
+    @Override
+    public boolean isHit() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return ("Linha = " + row + " Coluna = " + column);
+    }
+
+}
@@ -0,0 +1,355 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hunts with a probability density map: every cell is scored by the number of
+ * placements of the still floating ships that cover it and agree with the
+ * shots so far, and the best cell is fired at (ties broken at random).
+ * <p>
+ * A placement stops agreeing when one of its cells is a miss or when it
+ * overlaps or touches a sunk ship. While some hits do not belong to a sunk
+ * ship yet, only placements covering those hits are counted, weighted by the
+ * number of hits they cover, so the shooter finishes off the wounded ship.
+ * <p>
+ * The density map is kept up to date after each shot by touching only the
+ * placements of the cells involved, instead of being recomputed every turn.
+ * Placements are bit masks of the board, so whether one still agrees with
+ * the shots and how many hits it covers are read by ANDing it with the
+ * bitboards of the blocked and of the wounded cells.
+ */
+public class DensityShooter implements IShooter {
+    /**
+     * Every placement of every ship type on a board, shared by all the
+     * shooters of that board
+     */
+    private static final class Table {
+        final BoardSpec spec;
+        final ShipType[] types;
+        final int[] type;
+
+        /**
+         * The placements as masks of the board words: placement p covers the
+         * words from {@code word[p]} on, their masks being
+         * {@code masks[offset[p]]} up to {@code masks[offset[p + 1]]}
+         */
+        final int[] word;
+        final int[] offset;
+        final long[] masks;
+
+        final int[][] byCell;
+        final long[] density;
+
+        Table(BoardSpec spec) {
+            this.spec = spec;
+            this.types = spec.getComposition().keySet().toArray(new ShipType[0]);
+
+            List<Integer> typeList = new ArrayList<>();
+            List<Integer> wordList = new ArrayList<>();
+            List<long[]> maskList = new ArrayList<>();
+            int columns = spec.getColumns();
+            for (int t = 0; t < types.length; t++)
+                for (ShipShape shape : ShipShape.distinct(types[t]))
+                    for (int r = 0; r < spec.getRows(); r++)
+                        for (int c = 0; c < spec.getColumns(); c++)
+                            if (shape.fits(spec, r, c)) {
+                                int corner = spec.indexOf(r + shape.getTop(), c + shape.getLeft());
+                                long[] words = shape.hasMask(columns) ? shift(shape.mask(columns), corner)
+                                        : words(shape.cells(spec, r, c), corner);
+                                int first = 0;
+                                while (words[first] == 0)
+                                    first++;
+                                int last = words.length;
+                                while (words[last - 1] == 0)
+                                    last--;
+                                typeList.add(t);
+                                wordList.add((corner >>> 6) + first);
+                                maskList.add(Arrays.copyOfRange(words, first, last));
+                            }
+            int n = typeList.size();
+            this.type = new int[n];
+            this.word = new int[n];
+            this.offset = new int[n + 1];
+            for (int p = 0; p < n; p++) {
+                type[p] = typeList.get(p);
+                word[p] = wordList.get(p);
+                offset[p + 1] = offset[p] + maskList.get(p).length;
+            }
+            this.masks = new long[offset[n]];
+            for (int p = 0; p < n; p++)
+                System.arraycopy(maskList.get(p), 0, masks, offset[p], offset[p + 1] - offset[p]);
+
+            int[] counts = new int[spec.getCells()];
+            for (int p = 0; p < n; p++)
+                for (int w = offset[p]; w < offset[p + 1]; w++)
+                    for (long bits = masks[w]; bits != 0; bits &= bits - 1)
+                        counts[cell(p, w, bits)]++;
+            this.byCell = new int[spec.getCells()][];
+            for (int cell = 0; cell < byCell.length; cell++)
+                byCell[cell] = new int[counts[cell]];
+            Arrays.fill(counts, 0);
+            this.density = new long[spec.getCells()];
+            for (int p = 0; p < n; p++)
+                for (int w = offset[p]; w < offset[p + 1]; w++)
+                    for (long bits = masks[w]; bits != 0; bits &= bits - 1) {
+                        int cell = cell(p, w, bits);
+                        byCell[cell][counts[cell]++] = p;
+                        density[cell] += spec.count(types[type[p]]);
+                    }
+        }
+
+        /**
+         * @return the mask shifted to a board index, as masks of the two
+         * words from the index's on
+         */
+        private static long[] shift(long mask, int index) {
+            int bit = index & 63;
+            return new long[]{mask << bit, bit == 0 ? 0 : mask >>> (Long.SIZE - bit)};
+        }
+
+        /**
+         * @return the cells, none before the index, as masks of the words
+         * from the index's on
+         */
+        private static long[] words(int[] cells, int index) {
+            int last = index;
+            for (int cell : cells)
+                last = Math.max(last, cell);
+            long[] words = new long[(last >>> 6) - (index >>> 6) + 1];
+            for (int cell : cells)
+                words[(cell >>> 6) - (index >>> 6)] |= 1L << cell;
+            return words;
+        }
+
+        /**
+         * @return the cell of the lowest bit of a mask word of a placement
+         */
+        int cell(int p, int w, long bits) {
+            return (word[p] + w - offset[p]) << 6 | Long.numberOfTrailingZeros(bits);
+        }
+
+        /**
+         * @return true if the placement covers none of the cells of the
+         * bitboard
+         */
+        boolean disjoint(int p, long[] board) {
+            for (int w = offset[p]; w < offset[p + 1]; w++)
+                if ((masks[w] & board[word[p] + w - offset[p]]) != 0)
+                    return false;
+            return true;
+        }
+
+        /**
+         * @return the number of cells of the bitboard the placement covers
+         */
+        int covered(int p, long[] board) {
+            int n = 0;
+            for (int w = offset[p]; w < offset[p + 1]; w++)
+                n += Long.bitCount(masks[w] & board[word[p] + w - offset[p]]);
+            return n;
+        }
+
+        /**
+         * Adds to the density and the target density of every cell of a
+         * placement
+         */
+        void add(int p, long[] density, long dDensity, long[] target, long dTarget) {
+            for (int w = offset[p]; w < offset[p + 1]; w++)
+                for (long bits = masks[w]; bits != 0; bits &= bits - 1) {
+                    int cell = cell(p, w, bits);
+                    density[cell] += dDensity;
+                    target[cell] += dTarget;
+                }
+        }
+    }
+
+    private static final Map<BoardSpec, Table> TABLES = new ConcurrentHashMap<>();
+
+    private static final byte UNKNOWN = 0;
+    private static final byte SHOT = 1;
+    private static final byte WOUNDED = 2;
+    private static final byte EMPTY = 3;
+
+    private final Table table;
+    private final SplittableRandom random;
+
+    /**
+     * What is known about each cell: nothing, shot (a miss or a sunk ship),
+     * hit on a ship still floating, or empty for being next to a sunk ship
+     */
+    private final byte[] state;
+
+    /**
+     * The cells no floating ship may cover: misses, sunk ships and the cells
+     * around them
+     */
+    private final long[] blocked;
+
+    /**
+     * The hits on ships still floating
+     */
+    private final long[] hits;
+    private final int[] remaining;
+    private final long[] density;
+    private final long[] target;
+    private int wounded;
+
+    /**
+     * @param spec   the board of the game
+     * @param random breaks ties between cells of the same density
+     */
+    public DensityShooter(BoardSpec spec, SplittableRandom random) {
+        this.table = TABLES.computeIfAbsent(spec, Table::new);
+        this.random = random;
+        this.state = new byte[spec.getCells()];
+        int words = (spec.getCells() + 63) >>> 6;
+        this.blocked = new long[words];
+        this.hits = new long[words];
+        this.remaining = new int[table.types.length];
+        for (int t = 0; t < remaining.length; t++)
+            remaining[t] = spec.count(table.types[t]);
+        this.density = table.density.clone();
+        this.target = new long[spec.getCells()];
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IShooter#nextShot()
+     */
+    @Override
+    public int nextShot() {
+        long[] scores = wounded > 0 ? target : density;
+        int best = -1;
+        long bestScore = -1;
+        int ties = 0;
+        for (int cell = 0; cell < state.length; cell++) {
+            if (state[cell] != UNKNOWN)
+                continue;
+            long score = scores[cell];
+            if (score > bestScore) {
+                best = cell;
+                bestScore = score;
+                ties = 1;
+            } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                best = cell;
+            }
+        }
+        if (best < 0)
+            throw new IllegalStateException("ERROR! every cell has been fired at");
+
+        int columns = table.spec.getColumns();
+        return IPosition.toCell(best / columns, best % columns);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IShooter#shotResult(int, boolean, battleship.IShip)
+     */
+    @Override
+    public void shotResult(int cell, boolean hit, IShip sunk) {
+        int index = table.spec.indexOf(IPosition.rowOf(cell), IPosition.columnOf(cell));
+        if (state[index] == SHOT || state[index] == WOUNDED)
+            return;
+
+        if (!hit) {
+            state[index] = SHOT;
+            block(index);
+        } else if (sunk == null) {
+            state[index] = WOUNDED;
+            wounded++;
+            for (int p : table.byCell[index])
+                if (table.disjoint(p, blocked))
+                    table.add(p, density, 0, target, remaining[table.type[p]]);
+            hits[index >>> 6] |= 1L << index;
+        } else {
+            sink(index, sunk);
+        }
+    }
+
+    /**
+     * @param row    a row of the board
+     * @param column a column of the board
+     * @return the number of placements of the floating ships that cover the
+     * cell and agree with the shots so far
+     */
+    long getDensity(int row, int column) {
+        return density[table.spec.indexOf(row, column)];
+    }
+
+    /**
+     * @param row    a row of the board
+     * @param column a column of the board
+     * @return the number of hits on floating ships covered by the placements
+     * that cover the cell and agree with the shots so far
+     */
+    long getTargetDensity(int row, int column) {
+        return target[table.spec.indexOf(row, column)];
+    }
+
+    private void sink(int index, IShip sunk) {
+        state[index] = WOUNDED;
+        wounded++;
+
+        BoardSpec spec = table.spec;
+        for (IPosition pos : sunk.getPositions()) {
+            int c = spec.indexOf(pos.getRow(), pos.getColumn());
+            if (state[c] == WOUNDED)
+                wounded--;
+            state[c] = SHOT;
+        }
+        for (IPosition pos : sunk.getPositions())
+            for (int r = pos.getRow() - 1; r <= pos.getRow() + 1; r++)
+                for (int c = pos.getColumn() - 1; c <= pos.getColumn() + 1; c++)
+                    if (spec.isInside(r, c)) {
+                        int near = spec.indexOf(r, c);
+                        if (state[near] == UNKNOWN)
+                            state[near] = EMPTY;
+                        block(near);
+                    }
+        // every placement covering the ship is blocked by now
+        for (IPosition pos : sunk.getPositions()) {
+            int c = spec.indexOf(pos.getRow(), pos.getColumn());
+            hits[c >>> 6] &= ~(1L << c);
+        }
+
+        int t = typeOf(sunk);
+        if (t >= 0 && remaining[t] > 0) {
+            remaining[t]--;
+            for (int p = 0; p < table.type.length; p++)
+                if (table.type[p] == t && table.disjoint(p, blocked))
+                    table.add(p, density, -1, target, -table.covered(p, hits));
+        }
+    }
+
+    /**
+     * Blocks a cell, dropping the placements that covered it
+     */
+    private void block(int index) {
+        long bit = 1L << index;
+        if ((blocked[index >>> 6] & bit) != 0)
+            return;
+        for (int p : table.byCell[index])
+            if (table.disjoint(p, blocked)) {
+                long weight = remaining[table.type[p]];
+                table.add(p, density, -weight, target, -weight * table.covered(p, hits));
+            }
+        blocked[index >>> 6] |= bit;
+    }
+
+    private int typeOf(IShip ship) {
+        for (int t = 0; t < table.types.length; t++)
+            if (table.types[t] == ship.getType())
+                return t;
+        return -1;
+    }
+}
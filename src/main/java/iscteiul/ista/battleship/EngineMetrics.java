@@ -0,0 +1,446 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters of the engine: shots fired by {@link Game} and
+ * {@link ConcurrentGame} by outcome, fleets built, ships added to fleets or
+ * rejected (and why), and the latencies of {@link Game} shots and
+ * {@link Fleet#addShip(IShip)}. Work done off the game is left out: fleets laid
+ * out by a placer, and fleets and games restored by {@link GameCodec} or
+ * replayed by {@link JournalReader}.
+ * <p>
+ * Counters are {@link LongAdder}s, which threads update without contending
+ * for a shared word; a shot costs a single increment. Latencies are sampled:
+ * each game and fleet times one call in {@link #SAMPLE_EVERY}, starting with
+ * the first, so the clock is read for few of them.
+ * <p>
+ * Read the counters with {@link #snapshot()}, or over JMX once
+ * {@link #register()} has published them.
+ */
+public final class EngineMetrics {
+    public static final String OBJECT_NAME = "iscteiul.ista.battleship:type=EngineMetrics";
+
+    /**
+     * One call in this many is timed
+     */
+    public static final int SAMPLE_EVERY = 64;
+    static final int SAMPLE_MASK = SAMPLE_EVERY - 1;
+
+    /**
+     * By outcome, {@link IGame#INVALID} to {@link IGame#SUNK}
+     */
+    private static final LongAdder[] SHOTS = new LongAdder[IGame.SUNK + 1];
+    private static final LongAdder FLEETS = new LongAdder();
+    private static final LongAdder SHIPS_ADDED = new LongAdder();
+    private static final LongAdder REJECTED_OUT_OF_BOARD = new LongAdder();
+    private static final LongAdder REJECTED_COLLISION = new LongAdder();
+    private static final LongAdder REJECTED_FLEET_FULL = new LongAdder();
+    private static final LatencyHistogram FIRE_LATENCY = new LatencyHistogram();
+    private static final LatencyHistogram ADD_SHIP_LATENCY = new LatencyHistogram();
+
+    private static volatile long since = System.nanoTime();
+    private static ObjectName registered;
+
+    static {
+        for (int i = 0; i < SHOTS.length; i++)
+            SHOTS[i] = new LongAdder();
+    }
+
+    private EngineMetrics() {
+    }
+
+    /**
+     * @param outcome the outcome of a shot
+     * @return the outcome
+     */
+    static byte fired(byte outcome) {
+        SHOTS[outcome].increment();
+        return outcome;
+    }
+
+    static void fireTimed(long nanos) {
+        FIRE_LATENCY.record(nanos);
+    }
+
+    static void fleetBuilt() {
+        FLEETS.increment();
+    }
+
+    static void shipAdded() {
+        SHIPS_ADDED.increment();
+    }
+
+    static void shipOutOfBoard() {
+        REJECTED_OUT_OF_BOARD.increment();
+    }
+
+    static void shipColliding() {
+        REJECTED_COLLISION.increment();
+    }
+
+    static void fleetFull() {
+        REJECTED_FLEET_FULL.increment();
+    }
+
+    static void addShipTimed(long nanos) {
+        ADD_SHIP_LATENCY.record(nanos);
+    }
+
+    /**
+     * @return the counters as they are now
+     */
+    public static Snapshot snapshot() {
+        long[] shots = new long[SHOTS.length];
+        for (int i = 0; i < shots.length; i++)
+            shots[i] = SHOTS[i].sum();
+        return new Snapshot(System.nanoTime() - since, shots, FLEETS.sum(), SHIPS_ADDED.sum(),
+                REJECTED_OUT_OF_BOARD.sum(), REJECTED_COLLISION.sum(), REJECTED_FLEET_FULL.sum(),
+                FIRE_LATENCY.copy(), ADD_SHIP_LATENCY.copy());
+    }
+
+    /**
+     * Sets every counter and histogram back to zero. Updates made meanwhile
+     * may be kept in part.
+     */
+    public static void reset() {
+        for (LongAdder shots : SHOTS)
+            shots.reset();
+        FLEETS.reset();
+        SHIPS_ADDED.reset();
+        REJECTED_OUT_OF_BOARD.reset();
+        REJECTED_COLLISION.reset();
+        REJECTED_FLEET_FULL.reset();
+        FIRE_LATENCY.reset();
+        ADD_SHIP_LATENCY.reset();
+        since = System.nanoTime();
+    }
+
+    /**
+     * Publishes the counters in the platform MBean server under
+     * {@link #OBJECT_NAME}, unless they already are
+     *
+     * @throws IllegalStateException if the MBean cannot be registered
+     */
+    public static synchronized void register() {
+        if (registered != null)
+            return;
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), name);
+            registered = name;
+        } catch (InstanceAlreadyExistsException e) {
+            throw new IllegalStateException("ERROR! another MBean is registered as " + OBJECT_NAME, e);
+        } catch (JMException e) {
+            throw new IllegalStateException("ERROR! cannot register " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * Withdraws the counters from the platform MBean server, if they were
+     * published
+     */
+    public static synchronized void unregister() {
+        if (registered == null)
+            return;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(registered))
+                server.unregisterMBean(registered);
+        } catch (JMException e) {
+            throw new IllegalStateException("ERROR! cannot unregister " + OBJECT_NAME, e);
+        } finally {
+            registered = null;
+        }
+    }
+
+    /**
+     * The counters at some instant
+     */
+    public static final class Snapshot {
+        private final long elapsedNanos;
+        private final long[] shots;
+        private final long fleetBuilds;
+        private final long shipsAdded;
+        private final long rejectedOutOfBoard;
+        private final long rejectedCollision;
+        private final long rejectedFleetFull;
+        private final LatencyHistogram fireLatency;
+        private final LatencyHistogram addShipLatency;
+
+        private Snapshot(long elapsedNanos, long[] shots, long fleetBuilds, long shipsAdded, long rejectedOutOfBoard,
+                         long rejectedCollision, long rejectedFleetFull, LatencyHistogram fireLatency,
+                         LatencyHistogram addShipLatency) {
+            this.elapsedNanos = elapsedNanos;
+            this.shots = shots;
+            this.fleetBuilds = fleetBuilds;
+            this.shipsAdded = shipsAdded;
+            this.rejectedOutOfBoard = rejectedOutOfBoard;
+            this.rejectedCollision = rejectedCollision;
+            this.rejectedFleetFull = rejectedFleetFull;
+            this.fireLatency = fireLatency;
+            this.addShipLatency = addShipLatency;
+        }
+
+        /**
+         * @return the time covered, since the counters were first used or
+         * last reset, in nanoseconds
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * @param outcome an outcome, {@link IGame#INVALID} to
+         *                {@link IGame#SUNK}
+         * @return the number of shots with that outcome
+         */
+        public long getShots(byte outcome) {
+            return shots[outcome];
+        }
+
+        /**
+         * @return the number of shots fired, whatever their outcome
+         */
+        public long getFires() {
+            long fires = 0;
+            for (long count : shots)
+                fires += count;
+            return fires;
+        }
+
+        /**
+         * @return the number of shots that hit a ship, including those that
+         * sank it
+         */
+        public long getHits() {
+            return shots[IGame.HIT] + shots[IGame.SUNK];
+        }
+
+        public long getSinks() {
+            return shots[IGame.SUNK];
+        }
+
+        public long getInvalidShots() {
+            return shots[IGame.INVALID];
+        }
+
+        public long getRepeatedShots() {
+            return shots[IGame.REPEATED];
+        }
+
+        /**
+         * @return the number of shots fired per second
+         */
+        public double getFiresPerSecond() {
+            return elapsedNanos == 0 ? Double.NaN : getFires() * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * @return the fraction of the valid, new shots that hit a ship
+         */
+        public double getHitRatio() {
+            return ratio(getHits(), shots[IGame.MISS] + getHits());
+        }
+
+        /**
+         * @return the fraction of the shots fired outside the board
+         */
+        public double getInvalidShotRate() {
+            return ratio(getInvalidShots(), getFires());
+        }
+
+        /**
+         * @return the fraction of the shots fired at a cell already shot
+         */
+        public double getRepeatedShotRate() {
+            return ratio(getRepeatedShots(), getFires());
+        }
+
+        public long getFleetBuilds() {
+            return fleetBuilds;
+        }
+
+        public long getShipsAdded() {
+            return shipsAdded;
+        }
+
+        /**
+         * @return the number of ships rejected for leaving the board
+         */
+        public long getShipsRejectedOutOfBoard() {
+            return rejectedOutOfBoard;
+        }
+
+        /**
+         * @return the number of ships rejected for touching a ship of the
+         * fleet
+         */
+        public long getShipsRejectedCollision() {
+            return rejectedCollision;
+        }
+
+        /**
+         * @return the number of ships rejected because the fleet was complete
+         */
+        public long getShipsRejectedFleetFull() {
+            return rejectedFleetFull;
+        }
+
+        /**
+         * @return the sampled latencies of shots at a {@link Game}
+         */
+        public LatencyHistogram getFireLatency() {
+            return fireLatency;
+        }
+
+        /**
+         * @return the sampled latencies of {@link Fleet#addShip(IShip)}
+         */
+        public LatencyHistogram getAddShipLatency() {
+            return addShipLatency;
+        }
+
+        private static double ratio(long part, long whole) {
+            return whole == 0 ? Double.NaN : (double) part / whole;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d fires (%.0f/s), hit ratio %.3f, invalid %.3f, repeated %.3f, %d sinks, "
+                            + "%d fleets, %d ships added, rejected %d out of board, %d colliding, %d fleet full; "
+                            + "fire: %s; addShip: %s",
+                    getFires(), getFiresPerSecond(), getHitRatio(), getInvalidShotRate(), getRepeatedShotRate(),
+                    getSinks(), fleetBuilds, shipsAdded, rejectedOutOfBoard, rejectedCollision, rejectedFleetFull,
+                    fireLatency, addShipLatency);
+        }
+    }
+
+    /**
+     * The MBean, reading the counters afresh for each attribute
+     */
+    private static final class Bean implements EngineMetricsMXBean {
+        @Override
+        public long getFires() {
+            return snapshot().getFires();
+        }
+
+        @Override
+        public double getFiresPerSecond() {
+            return snapshot().getFiresPerSecond();
+        }
+
+        @Override
+        public double getHitRatio() {
+            return snapshot().getHitRatio();
+        }
+
+        @Override
+        public double getInvalidShotRate() {
+            return snapshot().getInvalidShotRate();
+        }
+
+        @Override
+        public double getRepeatedShotRate() {
+            return snapshot().getRepeatedShotRate();
+        }
+
+        @Override
+        public long getHits() {
+            return snapshot().getHits();
+        }
+
+        @Override
+        public long getSinks() {
+            return SHOTS[IGame.SUNK].sum();
+        }
+
+        @Override
+        public long getInvalidShots() {
+            return SHOTS[IGame.INVALID].sum();
+        }
+
+        @Override
+        public long getRepeatedShots() {
+            return SHOTS[IGame.REPEATED].sum();
+        }
+
+        @Override
+        public long getFleetBuilds() {
+            return FLEETS.sum();
+        }
+
+        @Override
+        public long getShipsAdded() {
+            return SHIPS_ADDED.sum();
+        }
+
+        @Override
+        public long getShipsRejectedOutOfBoard() {
+            return REJECTED_OUT_OF_BOARD.sum();
+        }
+
+        @Override
+        public long getShipsRejectedCollision() {
+            return REJECTED_COLLISION.sum();
+        }
+
+        @Override
+        public long getShipsRejectedFleetFull() {
+            return REJECTED_FLEET_FULL.sum();
+        }
+
+        @Override
+        public long getFireLatencySamples() {
+            return FIRE_LATENCY.getCount();
+        }
+
+        @Override
+        public long getFireLatencyP50() {
+            return FIRE_LATENCY.getPercentile(0.5);
+        }
+
+        @Override
+        public long getFireLatencyP99() {
+            return FIRE_LATENCY.getPercentile(0.99);
+        }
+
+        @Override
+        public long getFireLatencyMax() {
+            return FIRE_LATENCY.getMax();
+        }
+
+        @Override
+        public long getAddShipLatencySamples() {
+            return ADD_SHIP_LATENCY.getCount();
+        }
+
+        @Override
+        public long getAddShipLatencyP50() {
+            return ADD_SHIP_LATENCY.getPercentile(0.5);
+        }
+
+        @Override
+        public long getAddShipLatencyP99() {
+            return ADD_SHIP_LATENCY.getPercentile(0.99);
+        }
+
+        @Override
+        public long getAddShipLatencyMax() {
+            return ADD_SHIP_LATENCY.getMax();
+        }
+
+        @Override
+        public void reset() {
+            EngineMetrics.reset();
+        }
+    }
+}
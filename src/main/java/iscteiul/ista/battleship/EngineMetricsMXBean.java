@@ -0,0 +1,60 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * The engine counters of {@link EngineMetrics}, as published over JMX under
+ * {@link EngineMetrics#OBJECT_NAME}. Counts and rates are since the counters were
+ * first used or last {@link #reset()}; latencies are in nanoseconds.
+ */
+public interface EngineMetricsMXBean {
+    long getFires();
+
+    double getFiresPerSecond();
+
+    double getHitRatio();
+
+    double getInvalidShotRate();
+
+    double getRepeatedShotRate();
+
+    long getHits();
+
+    long getSinks();
+
+    long getInvalidShots();
+
+    long getRepeatedShots();
+
+    long getFleetBuilds();
+
+    long getShipsAdded();
+
+    long getShipsRejectedOutOfBoard();
+
+    long getShipsRejectedCollision();
+
+    long getShipsRejectedFleetFull();
+
+    long getFireLatencySamples();
+
+    long getFireLatencyP50();
+
+    long getFireLatencyP99();
+
+    long getFireLatencyMax();
+
+    long getAddShipLatencySamples();
+
+    long getAddShipLatencyP50();
+
+    long getAddShipLatencyP99();
+
+    long getAddShipLatencyMax();
+
+    /**
+     * Sets every counter and histogram back to zero
+     */
+    void reset();
+}
@@ -4,7 +4,11 @@
 package iscteiul.ista.battleship;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 public class Fleet implements IFleet {
     /**
@@ -19,10 +23,76 @@ public class Fleet implements IFleet {
 
     // -----------------------------------------------------
 
+    private BoardSpec spec;
     private List<IShip> ships;
 
+    /**
+     * The ships of each type, in the order they were added, and read-only
+     * views of them
+     */
+    private Map<ShipType, List<IShip>> shipsByType;
+    private Map<ShipType, List<IShip>> shipsByTypeView;
+
+    /**
+     * Cells occupied by a ship of the fleet or adjacent to one. A new ship is
+     * too close to the fleet if any of its cells is in the halo.
+     */
+    private BitSet halo;
+
+    /**
+     * Calls to {@link #addShip(IShip)}; picks the calls timed for
+     * {@link EngineMetrics}
+     */
+    private long countOffers;
+
+    /**
+     * Whether the fleet and its ships are counted in {@link EngineMetrics}
+     */
+    private final boolean metered;
+
     public Fleet() {
+        this(BoardSpec.STANDARD);
+    }
+
+    /**
+     * @param spec the board and fleet composition rules of the fleet
+     */
+    public Fleet(BoardSpec spec) {
+        this(spec, true);
+    }
+
+    /**
+     * @param spec    the board and fleet composition rules of the fleet
+     * @param metered false for a fleet rebuilt or laid out off the game, such
+     *                as a restored or placed one, that {@link EngineMetrics}
+     *                should not count
+     */
+    Fleet(BoardSpec spec, boolean metered) {
+        assert spec != null;
+
+        this.spec = spec;
+        this.metered = metered;
         ships = new ArrayList<>();
+        halo = new BitSet(spec.getCells());
+        shipsByType = new EnumMap<>(ShipType.class);
+        shipsByTypeView = new EnumMap<>(ShipType.class);
+        for (ShipType type : ShipType.ALL) {
+            List<IShip> list = new ArrayList<>(spec.count(type));
+            shipsByType.put(type, list);
+            shipsByTypeView.put(type, Collections.unmodifiableList(list));
+        }
+        if (metered)
+            EngineMetrics.fleetBuilt();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IFleet#getBoardSpec()
+     */
+    @Override
+    public BoardSpec getBoardSpec() {
+        return spec;
     }
 
     @Override
@@ -37,12 +107,51 @@ public class Fleet implements IFleet {
      */
     @Override
     public boolean addShip(IShip s) {
-        boolean result = false;
-        if ((ships.size() <= FLEET_SIZE) && (isInsideBoard(s)) && (!colisionRisk(s))) {
-            ships.add(s);
-            result = true;
+        if (!metered || (countOffers++ & EngineMetrics.SAMPLE_MASK) != 0)
+            return place(s);
+        long start = System.nanoTime();
+        boolean placed = place(s);
+        EngineMetrics.addShipTimed(System.nanoTime() - start);
+        return placed;
+    }
+
+    /**
+     * Adds the ship if the fleet has room for it, both in total and among the
+     * ships of its type, counting the outcome in {@link EngineMetrics} if the
+     * fleet is metered
+     */
+    private boolean place(IShip s) {
+        if (ships.size() >= spec.getFleetSize() || !roomFor(s.getType())) {
+            if (metered)
+                EngineMetrics.fleetFull();
+            return false;
+        }
+        if (!isInsideBoard(s)) {
+            if (metered)
+                EngineMetrics.shipOutOfBoard();
+            return false;
+        }
+        if (colisionRisk(s)) {
+            if (metered)
+                EngineMetrics.shipColliding();
+            return false;
         }
-        return result;
+        ships.add(s);
+        if (s.getType() != null)
+            shipsByType.get(s.getType()).add(s);
+        markHalo(s);
+        if (metered)
+            EngineMetrics.shipAdded();
+        return true;
+    }
+
+    /**
+     * @param type the type of a ship, or null for a ship of its own category
+     * @return whether the composition of the board spec takes one more ship
+     * of that type; ships of no type only count towards the fleet size
+     */
+    private boolean roomFor(ShipType type) {
+        return type == null || shipsByType.get(type).size() < spec.count(type);
     }
 
     /*
@@ -52,6 +161,10 @@ public class Fleet implements IFleet {
      */
     @Override
     public List<IShip> getShipsLike(String category) {
+        ShipType type = ShipType.ofCategory(category);
+        if (type != null)
+            return getShipsLike(type);
+
         List<IShip> shipsLike = new ArrayList<>();
         for (IShip s : ships)
             if (s.getCategory().equals(category))
@@ -60,6 +173,16 @@ public class Fleet implements IFleet {
         return shipsLike;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IFleet#getShipsLike(battleship.ShipType)
+     */
+    @Override
+    public List<IShip> getShipsLike(ShipType type) {
+        return shipsByTypeView.get(type);
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -88,19 +211,49 @@ public class Fleet implements IFleet {
         return null;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IFleet#shipAt(int)
+     */
+    @Override
+    public IShip shipAt(int cell) {
+        for (int i = 0; i < ships.size(); i++)
+            if (ships.get(i).occupies(cell))
+                return ships.get(i);
+        return null;
+    }
+
     private boolean isInsideBoard(IShip s) {
-        return (s.getLeftMostPos() >= 0 && s.getRightMostPos() <= BOARD_SIZE - 1 && s.getTopMostPos() >= 0
-                && s.getBottomMostPos() <= BOARD_SIZE - 1);
+        return s.getBoundingBox().isInside(spec);
     }
 
+    /**
+     * Same rule as {@link IShip#tooCloseTo(IShip)} against every ship of the
+     * fleet, but costs O(size of the new ship). The ship must be inside the
+     * board.
+     */
     private boolean colisionRisk(IShip s) {
-        for (int i = 0; i < ships.size(); i++) {
-            if (ships.get(i).tooCloseTo(s))
+        List<IPosition> positions = s.getPositions();
+        for (int i = 0; i < positions.size(); i++) {
+            IPosition pos = positions.get(i);
+            if (halo.get(spec.indexOf(pos.getRow(), pos.getColumn())))
                 return true;
         }
         return false;
     }
 
+    private void markHalo(IShip s) {
+        List<IPosition> positions = s.getPositions();
+        for (int i = 0; i < positions.size(); i++) {
+            IPosition pos = positions.get(i);
+            for (int r = pos.getRow() - 1; r <= pos.getRow() + 1; r++)
+                for (int c = pos.getColumn() - 1; c <= pos.getColumn() + 1; c++)
+                    if (spec.isInside(r, c))
+                        halo.set(spec.indexOf(r, c));
+        }
+    }
+
 
     /**
      * This operation shows the state of a fleet
@@ -108,11 +261,8 @@ public class Fleet implements IFleet {
     public void printStatus() {
         printAllShips();
         printFloatingShips();
-        printShipsByCategory("Galeao");
-        printShipsByCategory("Fragata");
-        printShipsByCategory("Nau");
-        printShipsByCategory("Caravela");
-        printShipsByCategory("Barca");
+        for (ShipType type : ShipType.ALL)
+            printShips(getShipsLike(type));
     }
 
     /**
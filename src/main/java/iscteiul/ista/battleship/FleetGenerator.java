@@ -0,0 +1,561 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Generates uniformly random legal fleets for a board.
+ * <p>
+ * Every distinct placement of every ship type that fits inside the board is
+ * worked out once, with the cells it occupies and the cells it forbids to the
+ * other ships (itself and its neighbours). A fleet is built by going through
+ * the board one cell at a time, as {@link PlacementCounter} does, deciding at
+ * each cell whether a ship starts there and which: each choice is taken with
+ * probability proportional to the number of ways of completing the fleet
+ * after it, read from tables of counts worked out once per generator.
+ * <p>
+ * When the exact counts would take too many states (the standard fleet needs
+ * some 50 million), the tables count a relaxed problem instead, that forgets
+ * the cells forbidden beyond the next row. Its counts are upper bounds of the
+ * exact ones, so at each cell some probability is left to no choice at all,
+ * and the draw then starts over. Every legal fleet is still reached with
+ * probability one over the count of the whole relaxed problem, so the draw
+ * stays exact; a standard fleet takes some 140 draws, where drawing one
+ * placement per ship and starting over on any collision takes some 300,000.
+ * Fleets whose counts do not fit in a long, or in {@link #MAX_STATES} states
+ * even relaxed, fall back to that: drawing one placement per ship and
+ * starting over as soon as a ship lands on a forbidden cell.
+ * <p>
+ * The tables are never changed after construction, so a generator can be
+ * shared between threads.
+ */
+public class FleetGenerator implements IPlacer {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * The most states the tables of counts may hold, some 16 bytes each, and
+     * the most they are tried with exact counts
+     */
+    static final int MAX_STATES = 1 << 22;
+    static final int MAX_EXACT_STATES = MAX_STATES / 4;
+
+    /**
+     * One way of placing a ship of some type on the board
+     */
+    private static final class Placement {
+        final ShipType type;
+        final Compass bearing;
+        final int row;
+        final int column;
+
+        /**
+         * The index of the type in {@link #types}, and of the placement among
+         * those of its type
+         */
+        final int kind;
+        final int index;
+
+        /**
+         * The cells and the halo as masks of the board words from
+         * {@link #word} on, the words they touch
+         */
+        final int word;
+        final long[] cellMask;
+        final long[] haloMask;
+
+        /**
+         * The sorted board indexes of the cells and of the halo
+         */
+        final int[] cellList;
+        final int[] haloList;
+
+        /**
+         * The first cell, and the cells and the halo from there on as bits of
+         * the window starting there
+         */
+        final int first;
+        long cells;
+        long halo;
+
+        Placement(ShipType type, Compass bearing, int row, int column, int kind, int index, int[] cells, int[] halo) {
+            this.type = type;
+            this.bearing = bearing;
+            this.row = row;
+            this.column = column;
+            this.kind = kind;
+            this.index = index;
+            this.word = halo[0] >>> 6;
+            this.cellMask = new long[(halo[halo.length - 1] >>> 6) - word + 1];
+            this.haloMask = new long[cellMask.length];
+            for (int cell : cells)
+                cellMask[(cell >>> 6) - word] |= 1L << cell;
+            for (int cell : halo)
+                haloMask[(cell >>> 6) - word] |= 1L << cell;
+            this.cellList = cells;
+            this.haloList = halo;
+            this.first = cells[0];
+        }
+
+        /**
+         * @return the farthest cell the placement forbids, counted from its
+         * first cell
+         */
+        int reach() {
+            return haloList[haloList.length - 1] - first + 1;
+        }
+
+        /**
+         * @return the number of columns the placement spans
+         */
+        int width(int columns) {
+            int left = columns;
+            int right = 0;
+            for (int cell : cellList) {
+                left = Math.min(left, cell % columns);
+                right = Math.max(right, cell % columns);
+            }
+            return right - left + 1;
+        }
+
+        /**
+         * Cuts the cells and the halo to a window
+         */
+        void window(int window) {
+            cells = 0;
+            for (int cell : cellList)
+                if (cell - first < window)
+                    cells |= 1L << (cell - first);
+            halo = 0;
+            for (int cell : haloList)
+                if (cell >= first && cell - first <= window)
+                    halo |= 1L << (cell - first);
+        }
+
+        boolean fits(long[] blocked) {
+            for (int w = 0; w < cellMask.length; w++)
+                if ((blocked[word + w] & cellMask[w]) != 0)
+                    return false;
+            return true;
+        }
+
+        void block(long[] blocked) {
+            for (int w = 0; w < haloMask.length; w++)
+                blocked[word + w] |= haloMask[w];
+        }
+    }
+
+    private final BoardSpec spec;
+    private final int words;
+    private final long maxAttempts;
+
+    /**
+     * The types of the fleet, largest first, with the number of ships, the
+     * first of their slots and the stride of the count in a state index
+     */
+    private final ShipType[] types;
+    private final int[] counts;
+    private final int[] firstSlot;
+    private final int[] strides;
+
+    /**
+     * For each ship of the fleet, largest first, the placements it may take
+     */
+    private final Placement[][] slots;
+
+    /**
+     * By board index: the placements whose first cell it is
+     */
+    private final Placement[][] starts;
+
+    /**
+     * The window of the states, and by cell the states that can still be
+     * completed, each followed by the number of ways of completing it; null
+     * if ships are drawn independently. The states of a cell are kept in an
+     * open-addressing hash table, three quarters full, with 0 for an empty
+     * slot (no stored state has its index at 0): a lookup then costs about
+     * one cache miss where a binary search over the sorted states took a
+     * dozen.
+     */
+    private int window;
+    private long[][] states;
+
+    /**
+     * The first state, and the number of ways of completing it: the number
+     * of legal fleets if the counts are exact
+     */
+    private long root;
+    private long total;
+
+    /**
+     * @param spec the board and the fleet composition
+     */
+    public FleetGenerator(BoardSpec spec) {
+        this(spec, 100_000_000L);
+    }
+
+    /**
+     * @param spec        the board and the fleet composition
+     * @param maxAttempts the number of draws after which a fleet is deemed
+     *                    impossible to place
+     */
+    public FleetGenerator(BoardSpec spec, long maxAttempts) {
+        this(spec, maxAttempts, MAX_EXACT_STATES, MAX_STATES);
+    }
+
+    /**
+     * @param exactStates the most states the tables may hold with exact
+     *                    counts
+     * @param maxStates   the most states the tables may hold with relaxed
+     *                    counts
+     */
+    FleetGenerator(BoardSpec spec, long maxAttempts, int exactStates, int maxStates) {
+        this.spec = spec;
+        this.words = (spec.getCells() + 63) >>> 6;
+        this.maxAttempts = maxAttempts;
+
+        List<ShipType> fleet = new ArrayList<>();
+        for (Map.Entry<ShipType, Integer> entry : spec.getComposition().entrySet())
+            if (entry.getValue() > 0)
+                fleet.add(entry.getKey());
+        types = fleet.toArray(new ShipType[0]);
+        counts = new int[types.length];
+        firstSlot = new int[types.length];
+        strides = new int[types.length];
+        List<Placement[]> list = new ArrayList<>();
+        List<List<Placement>> byCell = new ArrayList<>();
+        for (int i = 0; i < spec.getCells(); i++)
+            byCell.add(new ArrayList<>());
+        long stride = 1;
+        int exact = 1;
+        int wide = 1;
+        for (int t = 0; t < types.length; t++) {
+            counts[t] = spec.count(types[t]);
+            firstSlot[t] = list.size();
+            strides[t] = (int) Math.min(stride, Integer.MAX_VALUE);
+            stride *= counts[t] + 1;
+            Placement[] placements = placements(types[t], t).toArray(new Placement[0]);
+            if (placements.length == 0)
+                throw new IllegalArgumentException("ERROR! " + types[t] + " does not fit in " + spec);
+            for (int n = 0; n < counts[t]; n++)
+                list.add(placements);
+            for (Placement p : placements) {
+                byCell.get(p.first).add(p);
+                exact = Math.max(exact, p.reach());
+                wide = Math.max(wide, p.width(spec.getColumns()));
+            }
+        }
+        this.slots = list.toArray(new Placement[0][]);
+        this.starts = new Placement[spec.getCells()][];
+        for (int i = 0; i < starts.length; i++)
+            starts[i] = byCell.get(i).toArray(new Placement[0]);
+
+        if (types.length > 0 && stride <= 1 << 16) {
+            int indexBits = Long.SIZE - Long.numberOfLeadingZeros(stride - 1);
+            if (!count(exact, indexBits, exactStates))
+                count(Math.min(exact, spec.getColumns() + wide + 1), indexBits, maxStates);
+        }
+        LOGGER.debug("Generator of {}: window {} of {}, {} ways", spec, states == null ? 0 : window, exact, total);
+    }
+
+    /**
+     * @return the board and the fleet composition
+     */
+    public BoardSpec getBoardSpec() {
+        return spec;
+    }
+
+    /**
+     * @param type a ship type
+     * @return the number of distinct placements of the type on the board
+     */
+    public int countPlacements(ShipType type) {
+        for (int t = 0; t < types.length; t++)
+            if (types[t] == type)
+                return slots[firstSlot[t]].length;
+        return placements(type, -1).size();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IPlacer#place(battleship.BoardSpec, java.util.SplittableRandom)
+     */
+    @Override
+    public IFleet place(BoardSpec spec, SplittableRandom random) {
+        if (!this.spec.equals(spec))
+            throw new IllegalArgumentException("ERROR! generator for " + this.spec + " asked for " + spec);
+        return generate(random);
+    }
+
+    /**
+     * @param random the random source
+     * @return a uniformly random legal fleet
+     */
+    public IFleet generate(SplittableRandom random) {
+        int[] layout = new int[slots.length];
+        nextLayout(random, layout);
+
+        BitboardFleet fleet = new BitboardFleet(spec, false);
+        for (int i = 0; i < slots.length; i++) {
+            Placement p = slots[i][layout[i]];
+            boolean added = fleet.addShip(p.type.build(p.bearing, new Position(p.row, p.column)));
+            assert added;
+        }
+        return fleet;
+    }
+
+    /**
+     * Draws a uniformly random legal fleet without building it
+     *
+     * @param random the random source
+     * @param layout receives, for each ship of the fleet (largest first), the
+     *               index of its placement
+     * @return the number of draws it took, 1 whenever the counts are exact
+     * @throws IllegalStateException if no legal fleet was found after the
+     *                               maximum number of draws, or there is none
+     */
+    public long nextLayout(SplittableRandom random, int[] layout) throws IllegalStateException {
+        assert layout.length >= slots.length;
+
+        if (slots.length == 0)
+            return 1;
+        long[] blocked = new long[words];
+        if (states != null && total == 0)
+            throw new IllegalStateException("ERROR! the fleet " + spec + " cannot be placed");
+        for (long attempt = 1; attempt <= maxAttempts; attempt++) {
+            if (states != null ? tryWalk(random, layout, blocked) : tryLayout(random, layout, blocked))
+                return attempt;
+            Arrays.fill(blocked, 0L);
+        }
+        throw new IllegalStateException("ERROR! could not place the fleet " + spec);
+    }
+
+    /**
+     * Goes through the board choosing at each cell by the counts of the
+     * completions, until the fleet is complete or a choice is left
+     */
+    private boolean tryWalk(SplittableRandom random, int[] layout, long[] blocked) {
+        int[] placed = new int[types.length];
+        long key = root;
+        long bound = total;
+        cells:
+        for (int i = 0; i < starts.length; i++) {
+            long pick = random.nextLong(bound);
+            long next = skip(key);
+            long w = waysOf(i + 1, next);
+            if (pick < w) {
+                key = next;
+                bound = w;
+                continue;
+            }
+            pick -= w;
+            int index = (int) (key >>> window);
+            for (Placement p : starts[i]) {
+                if (index / strides[p.kind] % (counts[p.kind] + 1) == 0 || !p.fits(blocked))
+                    continue;
+                next = take(key, p);
+                w = next >>> window == 0 ? 1 : waysOf(i + 1, next);
+                if (pick < w) {
+                    p.block(blocked);
+                    layout[firstSlot[p.kind] + placed[p.kind]++] = p.index;
+                    if (next >>> window == 0)
+                        return true;
+                    key = next;
+                    bound = w;
+                    continue cells;
+                }
+                pick -= w;
+            }
+            return false;
+        }
+        return false;
+    }
+
+    private boolean tryLayout(SplittableRandom random, int[] layout, long[] blocked) {
+        for (int i = 0; i < slots.length; i++) {
+            Placement[] placements = slots[i];
+            int index = random.nextInt(placements.length);
+            Placement p = placements[index];
+            if (!p.fits(blocked))
+                return false;
+            p.block(blocked);
+            layout[i] = index;
+        }
+        return true;
+    }
+
+    /**
+     * @return the state after a cell no ship starts at
+     */
+    private long skip(long key) {
+        long free = key & (1L << window) - 1;
+        return key - free | free >>> 1;
+    }
+
+    /**
+     * @return the state after a ship starts at the cell, its index 0 once the
+     * fleet is complete
+     */
+    private long take(long key, Placement p) {
+        long free = key & (1L << window) - 1;
+        long index = (key >>> window) - strides[p.kind];
+        return index << window | (free | p.halo) >>> 1 & (1L << window) - 1;
+    }
+
+    /**
+     * @return the number of ways of completing a state at a cell, 0 if it
+     * cannot be completed
+     */
+    private long waysOf(int cell, long key) {
+        if (cell == states.length)
+            return 0;
+        long[] table = states[cell];
+        int size = table.length >>> 1;
+        for (int k = slot(key, size); ; k = k + 1 == size ? 0 : k + 1) {
+            long found = table[2 * k];
+            if (found == key)
+                return table[2 * k + 1];
+            if (found == 0)
+                return 0;
+        }
+    }
+
+    /**
+     * @return the slot a state hashes to in a table of the given size
+     */
+    private static int slot(long key, int size) {
+        return (int) (((key * 0x9E3779B97F4A7C15L) >>> 32) * size >>> 32);
+    }
+
+    /**
+     * Works out the tables of counts for a window, the states reached first
+     * and then, from the last cell back, the ways of completing each
+     *
+     * @return false if the tables would take more than the given number of
+     * states, or a count overflows a long
+     */
+    private boolean count(int window, int indexBits, int maxStates) {
+        if (window + 1 + indexBits > Long.SIZE - 1)
+            return false;
+        this.window = window;
+        for (Placement[] cell : starts)
+            for (Placement p : cell)
+                p.window(window);
+
+        int cells = spec.getCells();
+        long[][] states = new long[cells][];
+        long first = 0;
+        for (int t = 0; t < types.length; t++)
+            first += (long) counts[t] * strides[t];
+        StateLayer layer = new StateLayer();
+        layer.add(first << window, 1);
+        long reached = 0;
+        for (int i = 0; i < cells; i++) {
+            states[i] = layer.sortedKeys();
+            reached += states[i].length;
+            if (reached > maxStates)
+                return false;
+            if (i + 1 == cells)
+                break;
+            layer.clear();
+            for (long key : states[i]) {
+                layer.add(skip(key), 1);
+                long free = key & (1L << window) - 1;
+                int index = (int) (key >>> window);
+                for (Placement p : starts[i])
+                    if ((free & p.cells) == 0 && index / strides[p.kind] % (counts[p.kind] + 1) != 0) {
+                        long next = take(key, p);
+                        if (next >>> window != 0)
+                            layer.add(next, 1);
+                    }
+            }
+        }
+
+        this.states = new long[cells][];
+        try {
+            for (int i = cells - 1; i >= 0; i--) {
+                long[] w = new long[states[i].length];
+                int live = 0;
+                for (int k = 0; k < w.length; k++) {
+                    long key = states[i][k];
+                    long free = key & (1L << window) - 1;
+                    int index = (int) (key >>> window);
+                    w[k] = waysOf(i + 1, skip(key));
+                    for (Placement p : starts[i])
+                        if ((free & p.cells) == 0 && index / strides[p.kind] % (counts[p.kind] + 1) != 0) {
+                            long next = take(key, p);
+                            w[k] = Math.addExact(w[k], next >>> window == 0 ? 1 : waysOf(i + 1, next));
+                        }
+                    if (w[k] != 0)
+                        live++;
+                }
+                long[] kept = new long[live];
+                long[] keptWays = new long[live];
+                for (int k = 0, n = 0; k < w.length; k++)
+                    if (w[k] != 0) {
+                        kept[n] = states[i][k];
+                        keptWays[n++] = w[k];
+                    }
+                int size = live + live / 3 + 1;
+                long[] table = new long[2 * size];
+                for (int k = 0; k < live; k++) {
+                    int h = slot(kept[k], size);
+                    while (table[2 * h] != 0)
+                        h = h + 1 == size ? 0 : h + 1;
+                    table[2 * h] = kept[k];
+                    table[2 * h + 1] = keptWays[k];
+                }
+                this.states[i] = table;
+                states[i] = null;
+            }
+        } catch (ArithmeticException e) {
+            this.states = null;
+            return false;
+        }
+        root = first << window;
+        total = waysOf(0, root);
+        return true;
+    }
+
+    /**
+     * Works out every distinct placement of a type inside the board, from the
+     * distinct shapes of the type (see {@link ShipShape#distinct(ShipType)})
+     */
+    private List<Placement> placements(ShipType type, int kind) {
+        List<Placement> placements = new ArrayList<>();
+        for (ShipShape shape : ShipShape.distinct(type))
+            for (int r = 0; r < spec.getRows(); r++)
+                for (int c = 0; c < spec.getColumns(); c++)
+                    if (shape.fits(spec, r, c)) {
+                        int[] cells = shape.cells(spec, r, c);
+                        Arrays.sort(cells);
+                        placements.add(new Placement(type, shape.getBearing(), r, c, kind, placements.size(), cells,
+                                haloOf(cells)));
+                    }
+        return placements;
+    }
+
+    private int[] haloOf(int[] cells) {
+        Set<Integer> halo = new HashSet<>();
+        for (int cell : cells) {
+            int row = cell / spec.getColumns();
+            int column = cell % spec.getColumns();
+            for (int r = row - 1; r <= row + 1; r++)
+                for (int c = column - 1; c <= column + 1; c++)
+                    if (spec.isInside(r, c))
+                        halo.add(spec.indexOf(r, c));
+        }
+        return halo.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+}
@@ -5,28 +5,17 @@ package iscteiul.ista.battleship;
 
 public class Frigate extends Ship {
     private static final Integer SIZE = 4;
-    private static final String NAME = "Fragata";
 
     /**
      * @param bearing
      * @param pos
      */
     public Frigate(Compass bearing, IPosition pos) throws IllegalArgumentException {
-        super(Frigate.NAME, bearing, pos);
-        switch (bearing) {
-            case NORTH:
-            case SOUTH:
-                for (int r = 0; r < SIZE; r++)
-                    getPositions().add(new Position(pos.getRow() + r, pos.getColumn()));
-                break;
-            case EAST:
-            case WEST:
-                for (int c = 0; c < SIZE; c++)
-                    getPositions().add(new Position(pos.getRow(), pos.getColumn() + c));
-                break;
-            default:
-                throw new IllegalArgumentException("ERROR! invalid bearing for thr frigate");
-        }
+        super(ShipType.FRIGATE, bearing, pos);
+        ShipShape shape = ShipShape.of(ShipType.FRIGATE, bearing);
+        if (shape == null)
+            throw new IllegalArgumentException("ERROR! invalid bearing for the frigate");
+        fill(shape);
     }
 
     /*
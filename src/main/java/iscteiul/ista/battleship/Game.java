@@ -3,33 +3,92 @@
  */
 package iscteiul.ista.battleship;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 
 /**
- * @author fba
+ * A game owns its fleet: the ships are shot only through the game, which
+ * keeps track of those still floating as they sink. A fleet must not be
+ * shared by two games, nor its ships shot directly.
  *
+ * @author fba
  */
-public class Game implements IGame {
+public class Game implements IEncodableGame {
     private IFleet fleet;
-    private List<IPosition> shots;
+    private BoardSpec spec;
+    private CellList shots;
+    private BitSet shotCells;
+
+    /**
+     * The ships of the fleet already considered, in fleet order, and the
+     * index of each among them
+     */
+    private final List<IShip> knownShips = new ArrayList<>();
+    private final Map<IShip, Integer> shipIndexes = new IdentityHashMap<>();
+    /**
+     * The indexes of the known ships not yet sunk, updated as they sink
+     */
+    private final BitSet floating = new BitSet();
+    private int remaining;
+    /**
+     * Changes every time a ship is sunk or a floating ship tracked
+     */
+    private int floatingVersion;
+    private final List<IShip> floatingView = new FloatingView();
+
+    private int countInvalidShots;
+    private int countRepeatedShots;
+    private int countHits;
+    private int countSinks;
+
+    /**
+     * Shots fired at the game, whatever their outcome; picks the shots timed
+     * for {@link EngineMetrics}
+     */
+    private long countShots;
+
+    /**
+     * Whether shots are counted in {@link EngineMetrics}; off while a game is
+     * restored or replayed
+     */
+    private boolean metered = true;
+
+    /**
+     * The ship sunk by the last shot that sank one
+     */
+    private IShip lastSunk;
 
-    private Integer countInvalidShots;
-    private Integer countRepeatedShots;
-    private Integer countHits;
-    private Integer countSinks;
+    /**
+     * The drawing of the last board printed, reused by every print
+     */
+    private final StringBuilder board = new StringBuilder();
 
+    /**
+     * Valid shots the shot list has room for from the start, the whole of a
+     * standard board, so that firing does not grow it on boards that size
+     */
+    private static final int SHOTS_CAPACITY = 128;
 
     /**
-     * @param fleet
+     * @param fleet the fleet under fire; the game follows its board spec
      */
     public Game(IFleet fleet) {
-        shots = new ArrayList<>();
+        spec = fleet.getBoardSpec();
+        shots = new CellList(spec, Math.min(spec.getCells(), SHOTS_CAPACITY));
+        shotCells = new BitSet(spec.getCells());
         countInvalidShots = 0;
         countRepeatedShots = 0;
         countHits = 0; // Faltava para poder testar a classe Game
         countSinks = 0; // Faltava para poder testar a classe Game
         this.fleet = fleet;
+        trackNewShips();
     }
 
     /*
@@ -39,25 +98,101 @@ public class Game implements IGame {
      */
     @Override
     public IShip fire(IPosition pos) {
-        if (!validShot(pos))
+        return fire(pos.getRow(), pos.getColumn());
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#fire(int)
+     */
+    @Override
+    public IShip fire(int cell) {
+        return fire(IPosition.rowOf(cell), IPosition.columnOf(cell));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#fireBatch(int[], byte[])
+     */
+    @Override
+    public int fireBatch(int[] cells, byte[] outcomes) throws IllegalArgumentException {
+        if (outcomes.length < cells.length)
+            throw new IllegalArgumentException("ERROR! " + cells.length + " shots but room for " + outcomes.length
+                    + " outcomes");
+
+        int sunk = 0;
+        for (int i = 0; i < cells.length; i++) {
+            byte outcome = shoot(IPosition.rowOf(cells[i]), IPosition.columnOf(cells[i]));
+            outcomes[i] = outcome;
+            if (outcome == SUNK)
+                sunk++;
+        }
+        return sunk;
+    }
+
+    private IShip fire(int row, int column) {
+        return shoot(row, column) == SUNK ? lastSunk : null;
+    }
+
+    /**
+     * @param metered whether the shots that follow are counted in
+     *                {@link EngineMetrics}
+     */
+    void setMetered(boolean metered) {
+        this.metered = metered;
+    }
+
+    /**
+     * Fires a shot and updates the counters, timing a sample of the shots for
+     * {@link EngineMetrics}
+     *
+     * @return the outcome of the shot; when it is {@link IGame#SUNK}, the ship
+     * is left in lastSunk
+     */
+    private byte shoot(int row, int column) {
+        if (!metered)
+            return resolve(row, column);
+        if ((countShots++ & EngineMetrics.SAMPLE_MASK) != 0)
+            return EngineMetrics.fired(resolve(row, column));
+        long start = System.nanoTime();
+        byte outcome = resolve(row, column);
+        EngineMetrics.fireTimed(System.nanoTime() - start);
+        return EngineMetrics.fired(outcome);
+    }
+
+    private byte resolve(int row, int column) {
+        if (!validShot(row, column)) {
             countInvalidShots++;
-        else { // valid shot!
-            if (repeatedShot(pos))
-                countRepeatedShots++;
-            else {
-                shots.add(pos);
-                IShip s = fleet.shipAt(pos);
-                if (s != null) {
-                    s.shoot(pos);
-                    countHits++;
-                    if (!s.stillFloating()) {
-                        countSinks++;
-                        return s;
-                    }
-                }
-            }
+            return INVALID;
         }
-        return null;
+        if (repeatedShot(row, column)) {
+            countRepeatedShots++;
+            return REPEATED;
+        }
+
+        int cell = IPosition.toCell(row, column);
+        shots.addCell(cell);
+        shotCells.set(spec.indexOf(row, column));
+        IShip s = fleet.shipAt(cell);
+        if (s == null)
+            return MISS;
+
+        trackNewShips();
+        s.shoot(cell);
+        countHits++;
+        if (s.stillFloating())
+            return HIT;
+
+        countSinks++;
+        int index = shipIndexes.get(s);
+        assert floating.get(index) : "ship sunk outside the game: " + s;
+        floating.clear(index);
+        remaining--;
+        floatingVersion++;
+        lastSunk = s;
+        return SUNK;
     }
 
     /*
@@ -117,39 +252,183 @@ public class Game implements IGame {
      */
     @Override
     public int getRemainingShips() {
-        List<IShip> floatingShips = fleet.getFloatingShips();
-        return floatingShips.size();
+        trackNewShips();
+        assert ownsFleet() : "ships sunk outside the game";
+        return remaining;
     }
 
-    private boolean validShot(IPosition pos) {
-        return (pos.getRow() >= 0 && pos.getRow() <= Fleet.BOARD_SIZE && pos.getColumn() >= 0
-                && pos.getColumn() <= Fleet.BOARD_SIZE);
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#getFloatingShips()
+     */
+    @Override
+    public List<IShip> getFloatingShips() {
+        trackNewShips();
+        assert ownsFleet() : "ships sunk outside the game";
+        return floatingView;
     }
 
-    private boolean repeatedShot(IPosition pos) {
-        for (int i = 0; i < shots.size(); i++)
-            if (shots.get(i).equals(pos))
-                return true;
-        return false;
+    /**
+     * Adds to the floating ships those added to the fleet since the last call.
+     * Once the fleet is complete, this is a single size comparison.
+     */
+    private void trackNewShips() {
+        List<IShip> ships = fleet.getShips();
+        for (int i = knownShips.size(); i < ships.size(); i++) {
+            IShip ship = ships.get(i);
+            knownShips.add(ship);
+            shipIndexes.put(ship, i);
+            if (ship.stillFloating()) {
+                floating.set(i);
+                remaining++;
+                floatingVersion++;
+            }
+        }
     }
 
+    /**
+     * @return whether the ships tracked as floating are those of the fleet
+     * still floating, as they are while the game owns its fleet
+     */
+    private boolean ownsFleet() {
+        for (int i = 0; i < knownShips.size(); i++)
+            if (floating.get(i) != knownShips.get(i).stillFloating())
+                return false;
+        return true;
+    }
 
-    public void printBoard(List<IPosition> positions, Character marker) {
-        char[][] map = new char[Fleet.BOARD_SIZE][Fleet.BOARD_SIZE];
+    /**
+     * The ships of the fleet not yet sunk, in fleet order: a read-only view
+     * of the floating indexes
+     */
+    private class FloatingView extends AbstractList<IShip> {
+        /**
+         * The last index got and the bit of its ship, for the floating ships
+         * of version {@link #cachedVersion}; calls for the same or a later
+         * index walk on from there, so indexed loops take a single pass
+         */
+        private int cachedIndex = -1;
+        private int cachedBit;
+        private int cachedVersion;
 
-        for (int r = 0; r < Fleet.BOARD_SIZE; r++)
-            for (int c = 0; c < Fleet.BOARD_SIZE; c++)
-                map[r][c] = '.';
+        @Override
+        public IShip get(int index) {
+            Objects.checkIndex(index, size());
+            int at = 0;
+            int i = floating.nextSetBit(0);
+            if (cachedVersion == floatingVersion && cachedIndex >= 0 && cachedIndex <= index) {
+                at = cachedIndex;
+                i = cachedBit;
+            }
+            for (; at < index; at++)
+                i = floating.nextSetBit(i + 1);
+            cachedIndex = index;
+            cachedBit = i;
+            cachedVersion = floatingVersion;
+            return knownShips.get(i);
+        }
+
+        /**
+         * @return an iterator that walks the floating indexes once
+         */
+        @Override
+        public Iterator<IShip> iterator() {
+            return new Iterator<>() {
+                private int next = floating.nextSetBit(0);
 
-        for (IPosition pos : positions)
-            map[pos.getRow()][pos.getColumn()] = marker;
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
 
-        for (int row = 0; row < Fleet.BOARD_SIZE; row++) {
-            for (int col = 0; col < Fleet.BOARD_SIZE; col++)
-                System.out.print(map[row][col]);
-            System.out.println();
+                @Override
+                public IShip next() {
+                    if (next < 0)
+                        throw new NoSuchElementException();
+                    IShip ship = knownShips.get(next);
+                    next = floating.nextSetBit(next + 1);
+                    return ship;
+                }
+            };
         }
 
+        @Override
+        public int size() {
+            return remaining;
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IEncodableGame#getFleet()
+     */
+    @Override
+    public IFleet getFleet() {
+        return fleet;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IEncodableGame#getShotWord(int)
+     */
+    @Override
+    public long getShotWord(int word) {
+        long bits = 0;
+        int end = (word + 1) * Long.SIZE;
+        for (int i = shotCells.nextSetBit(word * Long.SIZE); i >= 0 && i < end; i = shotCells.nextSetBit(i + 1))
+            bits |= 1L << i;
+        return bits;
+    }
+
+    /**
+     * @return the board indexes (see {@link BoardSpec#indexOf(int, int)}) of
+     * the valid shots fired so far; not to be modified
+     */
+    BitSet getShotIndexes() {
+        return shotCells;
+    }
+
+    /**
+     * Sets the counters of shots that leave no trace on the board, for a game
+     * being restored
+     *
+     * @param invalid  the number of invalid shots
+     * @param repeated the number of repeated shots
+     */
+    void restoreCounters(int invalid, int repeated) {
+        countInvalidShots = invalid;
+        countRepeatedShots = repeated;
+    }
+
+    private boolean validShot(int row, int column) {
+        return spec.isInside(row, column);
+    }
+
+    private boolean repeatedShot(int row, int column) {
+        return shotCells.get(spec.indexOf(row, column));
+    }
+
+
+    public void printBoard(List<IPosition> positions, Character marker) {
+        board.setLength(0);
+        BoardRenderer.appendBoard(spec, positions, marker, board);
+        System.out.print(board);
+    }
+
+    /**
+     * Prints a board with the given positions marked, in a single write
+     *
+     * @param spec      the board
+     * @param positions the positions to mark
+     * @param marker    the character marking them
+     */
+    static void printBoard(BoardSpec spec, List<IPosition> positions, char marker) {
+        StringBuilder board = new StringBuilder(BoardRenderer.length(spec));
+        BoardRenderer.appendBoard(spec, positions, marker, board);
+        System.out.print(board);
     }
 
 
@@ -157,7 +436,7 @@ public class Game implements IGame {
      * Prints the board showing valid shots that have been fired
      */
     public void printValidShots() {
-        printBoard(getShots(), 'X');
+        printBoard(getShots(), BoardRenderer.SHOT);
     }
 
 
@@ -165,12 +444,9 @@ public class Game implements IGame {
      * Prints the board showing the fleet
      */
     public void printFleet() {
-        List<IPosition> shipPositions = new ArrayList<IPosition>();
-
-        for (IShip s : fleet.getShips())
-            shipPositions.addAll(s.getPositions());
-
-        printBoard(shipPositions, '#');
+        board.setLength(0);
+        BoardRenderer.appendFleet(fleet, board);
+        System.out.print(board);
     }
 
 }
@@ -0,0 +1,202 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of fleets and games, read and written in place in
+ * a {@link ByteBuffer} (heap, direct or mapped) in the byte order of the
+ * buffer.
+ * <p>
+ * A fleet is encoded as its board spec followed by its ships:
+ * <pre>
+ * short rows, short columns
+ * byte  n, then n times: byte type ordinal, int count    (the composition)
+ * short ships, then per ship:
+ *       byte  type ordinal &lt;&lt; 3 | bearing ordinal
+ *       short anchor row, short anchor column
+ * </pre>
+ * Only the layout is encoded, not the damage of the ships. A game is encoded
+ * as its fleet, the numbers of invalid and repeated shots (int each) and the
+ * board of valid shots as a bitset of one bit per cell in the order of
+ * {@link BoardSpec#indexOf(int, int)}, in longs. The standard fleet takes 87
+ * bytes and a standard game 111.
+ * <p>
+ * Any {@link IEncodableGame} can be written, and is read back as a
+ * {@link Game}. A restored game is rebuilt by firing at the cells of the
+ * bitset, so its hits, sunk ships and floating ships are those of the
+ * original game; only the order of its shots is lost:
+ * {@link IGame#getShots()} lists them in row-major order.
+ */
+public final class GameCodec {
+    private static final int SHIP_BYTES = 1 + 2 + 2;
+    private static final int BEARING_BITS = 3;
+
+    private GameCodec() {
+    }
+
+    /**
+     * @param fleet a fleet
+     * @return the number of bytes taken by the encoding of the fleet
+     */
+    public static int fleetSize(IFleet fleet) {
+        return 2 + 2 + 1 + fleet.getBoardSpec().getComposition().size() * (1 + 4) + 2
+                + fleet.getShips().size() * SHIP_BYTES;
+    }
+
+    /**
+     * @param game a game
+     * @return the number of bytes taken by the encoding of the game
+     */
+    public static int gameSize(IEncodableGame game) {
+        return fleetSize(game.getFleet()) + 4 + 4 + words(game.getFleet().getBoardSpec()) * Long.BYTES;
+    }
+
+    /**
+     * Writes a fleet at the position of the buffer and moves past it
+     *
+     * @param fleet  the fleet
+     * @param buffer the buffer
+     * @throws BufferOverflowException  if the buffer has no room for the fleet
+     * @throws IllegalArgumentException if the fleet has too many ships to be
+     *                                  encoded, or a ship of none of the
+     *                                  {@link ShipType}s; nothing is written
+     */
+    public static void writeFleet(IFleet fleet, ByteBuffer buffer)
+            throws BufferOverflowException, IllegalArgumentException {
+        List<IShip> ships = fleet.getShips();
+        if (ships.size() > Short.MAX_VALUE)
+            throw new IllegalArgumentException("ERROR! too many ships to encode: " + ships.size());
+        for (IShip s : ships)
+            ShipType.of(s);
+        if (buffer.remaining() < fleetSize(fleet))
+            throw new BufferOverflowException();
+
+        BoardSpec spec = fleet.getBoardSpec();
+        buffer.putShort((short) spec.getRows());
+        buffer.putShort((short) spec.getColumns());
+        buffer.put((byte) spec.getComposition().size());
+        for (Map.Entry<ShipType, Integer> entry : spec.getComposition().entrySet()) {
+            buffer.put((byte) entry.getKey().ordinal());
+            buffer.putInt(entry.getValue());
+        }
+        buffer.putShort((short) ships.size());
+        for (int i = 0; i < ships.size(); i++) {
+            IShip s = ships.get(i);
+            IPosition anchor = s.getPosition();
+            buffer.put((byte) (ShipType.of(s).ordinal() << BEARING_BITS | s.getBearing().ordinal()));
+            buffer.putShort((short) anchor.getRow());
+            buffer.putShort((short) anchor.getColumn());
+        }
+    }
+
+    /**
+     * Reads a fleet at the position of the buffer and moves past it
+     *
+     * @param buffer the buffer
+     * @return a new fleet, with no damage, not counted in
+     * {@link EngineMetrics}
+     * @throws BufferUnderflowException if the buffer ends before the fleet
+     * @throws IllegalArgumentException if the data is not a valid fleet
+     */
+    public static BitboardFleet readFleet(ByteBuffer buffer)
+            throws BufferUnderflowException, IllegalArgumentException {
+        int rows = buffer.getShort();
+        int columns = buffer.getShort();
+        int types = buffer.get();
+        Map<ShipType, Integer> composition = new EnumMap<>(ShipType.class);
+        for (int i = 0; i < types; i++)
+            composition.put(shipType(buffer.get()), buffer.getInt());
+        BitboardFleet fleet = new BitboardFleet(new BoardSpec(rows, columns, composition), false);
+
+        int ships = buffer.getShort();
+        for (int i = 0; i < ships; i++) {
+            int kind = buffer.get() & 0xFF;
+            int row = buffer.getShort();
+            int column = buffer.getShort();
+            int bearing = kind & ((1 << BEARING_BITS) - 1);
+            if (bearing >= Compass.values().length)
+                throw new IllegalArgumentException("ERROR! invalid bearing " + bearing);
+            Ship s = shipType(kind >>> BEARING_BITS).build(Compass.values()[bearing], new Position(row, column));
+            if (!fleet.addShip(s))
+                throw new IllegalArgumentException("ERROR! fleet rejected " + s);
+        }
+        return fleet;
+    }
+
+    /**
+     * Writes a game at the position of the buffer and moves past it
+     *
+     * @param game   the game
+     * @param buffer the buffer
+     * @throws BufferOverflowException  if the buffer has no room for the game
+     * @throws IllegalArgumentException if the fleet has too many ships to be
+     *                                  encoded, or a ship of none of the
+     *                                  {@link ShipType}s; nothing is written
+     */
+    public static void writeGame(IEncodableGame game, ByteBuffer buffer)
+            throws BufferOverflowException, IllegalArgumentException {
+        if (buffer.remaining() < gameSize(game))
+            throw new BufferOverflowException();
+
+        writeFleet(game.getFleet(), buffer);
+        buffer.putInt(game.getInvalidShots());
+        buffer.putInt(game.getRepeatedShots());
+
+        int words = words(game.getFleet().getBoardSpec());
+        for (int w = 0; w < words; w++)
+            buffer.putLong(game.getShotWord(w));
+    }
+
+    /**
+     * Reads a game at the position of the buffer and moves past it
+     *
+     * @param buffer the buffer
+     * @return a new game in the state encoded; restoring it is not counted in
+     * {@link EngineMetrics}, the shots fired at it afterwards are
+     * @throws BufferUnderflowException if the buffer ends before the game
+     * @throws IllegalArgumentException if the data is not a valid game
+     */
+    public static Game readGame(ByteBuffer buffer) throws BufferUnderflowException, IllegalArgumentException {
+        BitboardFleet fleet = readFleet(buffer);
+        BoardSpec spec = fleet.getBoardSpec();
+        int invalid = buffer.getInt();
+        int repeated = buffer.getInt();
+        if (invalid < 0 || repeated < 0)
+            throw new IllegalArgumentException("ERROR! invalid shot counters " + invalid + ", " + repeated);
+
+        Game game = new Game(fleet);
+        game.setMetered(false);
+        int words = words(spec);
+        for (int w = 0; w < words; w++) {
+            long word = buffer.getLong();
+            while (word != 0) {
+                int index = w * Long.SIZE + Long.numberOfTrailingZeros(word);
+                if (index >= spec.getCells())
+                    throw new IllegalArgumentException("ERROR! shot outside the board: " + index);
+                game.fire(IPosition.toCell(index / spec.getColumns(), index % spec.getColumns()));
+                word &= word - 1;
+            }
+        }
+        game.restoreCounters(invalid, repeated);
+        game.setMetered(true);
+        return game;
+    }
+
+    private static int words(BoardSpec spec) {
+        return (spec.getCells() + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    private static ShipType shipType(int ordinal) {
+        if (ordinal < 0 || ordinal >= ShipType.ALL.size())
+            throw new IllegalArgumentException("ERROR! invalid ship type " + ordinal);
+        return ShipType.ALL.get(ordinal);
+    }
+}
@@ -0,0 +1,235 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * An append-only binary journal of games: the fleet of each game and the
+ * outcome of every shot, written through memory-mapped files.
+ * <p>
+ * Every record takes {@link #RECORD} bytes:
+ * <pre>
+ * int   game   the id of the game
+ * byte  type   GAME, SHIP, SHOT or END
+ * byte  a      SHIP: the ship type ordinal; SHOT: the outcome code
+ * short b      GAME: the number of ships; SHIP: the bearing ordinal
+ * int   value  GAME: the board rows and columns; SHIP: the anchor; SHOT: the
+ *              cell fired at; all packed as in {@link IPosition#toCell(int, int)}
+ * </pre>
+ * A GAME record is followed by the SHIP records of its fleet; SHOT records of
+ * different games may be interleaved, and an END record closes a game. A type
+ * of 0 marks the end of the data.
+ * <p>
+ * Files are named {@code journal-NNNNNN.bin} and are mapped at their maximum
+ * size. When a record does not fit, the file is cut to the data written and
+ * the journal moves on to the next file. A reopened journal carries on
+ * after the files already written, with ids following the last game
+ * recorded, so a game id is never reused within a directory.
+ */
+public class GameJournal implements Closeable {
+    public static final int RECORD = 12;
+
+    static final byte GAME = 1;
+    static final byte SHIP = 2;
+    static final byte SHOT = 3;
+    static final byte END = 4;
+
+    /**
+     * Packed cell recorded for shots whose coordinates cannot be packed
+     */
+    static final int OFF_BOARD = IPosition.toCell(-1, -1);
+
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".bin";
+
+    private final Path directory;
+    private final long maxFileSize;
+    private int fileIndex;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int nextGame;
+
+    /**
+     * Opens a journal, continuing after the files already in the directory
+     *
+     * @param directory   the directory of the journal files
+     * @param maxFileSize the size at which a file is rotated, at least one
+     *                    record
+     * @throws IOException if the first file cannot be created
+     */
+    public GameJournal(Path directory, long maxFileSize) throws IOException {
+        if (maxFileSize < RECORD || maxFileSize > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("ERROR! invalid journal file size " + maxFileSize);
+        this.directory = Files.createDirectories(directory);
+        this.maxFileSize = maxFileSize / RECORD * RECORD;
+        List<Path> existing = files(directory);
+        this.fileIndex = existing.isEmpty() ? 0 : indexOf(existing.get(existing.size() - 1)) + 1;
+        this.nextGame = lastGame(existing) + 1;
+        open();
+    }
+
+    /**
+     * @param directory a journal directory
+     * @return the journal files in the directory, oldest first
+     * @throws IOException if the directory cannot be listed
+     */
+    public static List<Path> files(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory))
+            return files;
+        try (Stream<Path> list = Files.list(directory)) {
+            list.filter(p -> p.getFileName().toString().matches(PREFIX + "\\d{6}" + SUFFIX))
+                    .sorted()
+                    .forEach(files::add);
+        }
+        return files;
+    }
+
+    /**
+     * Reads back from the newest file until one records a game; ids only grow
+     * within a directory, so its highest id is the last one given
+     *
+     * @param files journal files, oldest first
+     * @return the highest game id recorded, or -1 if there is none
+     * @throws IOException if a file cannot be read
+     */
+    private static int lastGame(List<Path> files) throws IOException {
+        for (int i = files.size() - 1; i >= 0; i--)
+            try (FileChannel channel = FileChannel.open(files.get(i), StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                int last = -1;
+                for (int at = 0; at + RECORD <= buffer.limit(); at += RECORD) {
+                    byte type = buffer.get(at + 4);
+                    if (type == 0)
+                        break;
+                    if (type == GAME)
+                        last = Math.max(last, buffer.getInt(at));
+                }
+                if (last >= 0)
+                    return last;
+            }
+        return -1;
+    }
+
+    private static int indexOf(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Records a new game and its fleet
+     *
+     * @param fleet the fleet of the game, before any shot
+     * @return the id of the game in the journal
+     */
+    public synchronized int startGame(IFleet fleet) {
+        int game = nextGame++;
+        BoardSpec spec = fleet.getBoardSpec();
+        List<IShip> ships = fleet.getShips();
+        write(game, GAME, 0, ships.size(), IPosition.toCell(spec.getRows(), spec.getColumns()));
+        for (IShip s : ships) {
+            IPosition anchor = s.getPosition();
+            write(game, SHIP, ShipType.of(s).ordinal(), s.getBearing().ordinal(),
+                    IPosition.toCell(anchor.getRow(), anchor.getColumn()));
+        }
+        return game;
+    }
+
+    /**
+     * Records a shot
+     *
+     * @param game    the id of the game
+     * @param cell    the packed cell fired at
+     * @param outcome the outcome of the shot
+     */
+    public synchronized void shot(int game, int cell, byte outcome) {
+        write(game, SHOT, outcome, 0, cell);
+    }
+
+    /**
+     * Records a salvo
+     *
+     * @param game     the id of the game
+     * @param cells    the packed cells fired at
+     * @param outcomes the outcome of each shot
+     */
+    public synchronized void shots(int game, int[] cells, byte[] outcomes) {
+        for (int i = 0; i < cells.length; i++)
+            write(game, SHOT, outcomes[i], 0, cells[i]);
+    }
+
+    /**
+     * Records the end of a game; no more shots of the game may follow
+     *
+     * @param game the id of the game
+     */
+    public synchronized void endGame(int game) {
+        write(game, END, 0, 0, 0);
+    }
+
+    /**
+     * @return the number of the file being written
+     */
+    public synchronized int getFileIndex() {
+        return fileIndex;
+    }
+
+    /**
+     * Writes the records to the file and cuts it to the data written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            finish();
+            channel = null;
+            buffer = null;
+        }
+    }
+
+    private void write(int game, byte type, int a, int b, int value) {
+        if (channel == null)
+            throw new IllegalStateException("ERROR! journal closed");
+        if (buffer.remaining() < RECORD)
+            rotate();
+        buffer.putInt(game);
+        buffer.put(type);
+        buffer.put((byte) a);
+        buffer.putShort((short) b);
+        buffer.putInt(value);
+    }
+
+    private void rotate() {
+        try {
+            finish();
+            fileIndex++;
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void open() throws IOException {
+        Path file = directory.resolve(String.format("%s%06d%s", PREFIX, fileIndex, SUFFIX));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, maxFileSize);
+    }
+
+    private void finish() throws IOException {
+        buffer.force();
+        channel.truncate(buffer.position());
+        channel.close();
+    }
+}
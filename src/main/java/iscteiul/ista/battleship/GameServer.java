@@ -0,0 +1,345 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Hosts many {@link GameSession}s over TCP, one per connection. Players send
+ * the commands of {@link Tasks#taskD()} as whitespace-separated tokens, and
+ * every complete command is answered with its response ended by a blank line.
+ * <p>
+ * A single thread runs the selector: it accepts connections, splits the bytes
+ * read into tokens and writes the responses back. The commands are run by a
+ * bounded pool of workers, never more than one at a time for the same
+ * session, so each session sees its tokens in order. When the pool queue is
+ * full the selector thread runs the commands itself, which slows down reading
+ * until the workers catch up.
+ * <p>
+ * A connection stops being read while {@value #MAX_PENDING} of its tokens
+ * wait to be run, and a token longer than {@value #MAX_TOKEN} characters is
+ * answered as an unknown command. When the client shuts down its output, the
+ * tokens already received are still run and answered before the connection is
+ * closed.
+ */
+public class GameServer implements Closeable {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    public static final int DEFAULT_PORT = 7777;
+    public static final int DEFAULT_BACKLOG = 10_000;
+
+    private static final int READ_BUFFER = 4096;
+    private static final int MAX_TOKEN = 64;
+    private static final int MAX_PENDING = 1024;
+
+    /**
+     * Stands for a token that was too long, since no real token is empty
+     */
+    private static final String TOO_LONG = "";
+
+    /**
+     * A connection and its session
+     */
+    private final class Connection implements Runnable {
+        final SocketChannel channel;
+        final GameSession session = new GameSession();
+        final StringBuilder token = new StringBuilder();
+        final Queue<String> tokens = new ConcurrentLinkedQueue<>();
+        final AtomicInteger pending = new AtomicInteger();
+        final AtomicBoolean paused = new AtomicBoolean();
+        final Queue<ByteBuffer> output = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        volatile boolean closing;
+        volatile boolean eof;
+        boolean overlong;
+        SelectionKey key;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Runs the session over the tokens received so far, on a worker. The
+         * responses of each pass are queued before the connection is released
+         * to another worker, so they are written in the order of the tokens.
+         */
+        @Override
+        public void run() {
+            do {
+                StringBuilder responses = new StringBuilder();
+                String t;
+                while ((t = tokens.poll()) != null && !session.isClosed()) {
+                    if (pending.decrementAndGet() < MAX_PENDING && paused.compareAndSet(true, false)) {
+                        readable.add(this);
+                        selector.wakeup();
+                    }
+                    String response;
+                    try {
+                        response = t.isEmpty() ? session.fail() : session.accept(t);
+                    } catch (RuntimeException e) {
+                        LOGGER.warn("Comando falhado: {}", t, e);
+                        response = session.fail();
+                    }
+                    if (response != null)
+                        responses.append(response);
+                }
+
+                if (responses.length() > 0 || session.isClosed()) {
+                    output.add(ByteBuffer.wrap(responses.toString().getBytes(StandardCharsets.UTF_8)));
+                    // only after the last response is queued
+                    closing = session.isClosed();
+                    writable.add(this);
+                    selector.wakeup();
+                }
+                scheduled.set(false);
+            } while (!tokens.isEmpty() && !session.isClosed() && scheduled.compareAndSet(false, true));
+
+            // lets the selector close a half-closed connection once idle
+            if (eof) {
+                writable.add(this);
+                selector.wakeup();
+            }
+        }
+
+        /**
+         * @return true if no token waits or is being run
+         */
+        boolean idle() {
+            return tokens.isEmpty() && !scheduled.get();
+        }
+
+        /**
+         * Queues a complete token, on the selector thread
+         */
+        void add(String t) {
+            tokens.add(t);
+            pending.incrementAndGet();
+        }
+    }
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final ThreadPoolExecutor workers;
+    private final Queue<Connection> writable = new ConcurrentLinkedQueue<>();
+    private final Queue<Connection> readable = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER);
+    private final Thread loop;
+    private volatile boolean running = true;
+    private volatile int sessions;
+
+    /**
+     * Opens the server and starts accepting connections
+     *
+     * @param port    the local port, or 0 for any free port
+     * @param threads the number of worker threads
+     * @param backlog the number of sessions with commands that may wait for
+     *                a worker
+     * @throws IOException if the port cannot be opened
+     */
+    public GameServer(int port, int threads, int backlog) throws IOException {
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress("localhost", port), backlog);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(backlog), new ThreadPoolExecutor.CallerRunsPolicy());
+        loop = new Thread(this::serve, "game-server");
+        loop.start();
+        LOGGER.info("Servidor a escutar na porta {}", getPort());
+    }
+
+    /**
+     * @return the local port of the server
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * @return the number of open sessions
+     */
+    public int getSessions() {
+        return sessions;
+    }
+
+    /**
+     * Stops accepting connections, closes every session and waits for the
+     * workers to finish
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            loop.join();
+            workers.shutdown();
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void serve() {
+        try {
+            while (running) {
+                selector.select();
+                Connection c;
+                while ((c = writable.poll()) != null)
+                    if (c.key.isValid())
+                        c.key.interestOps(c.key.interestOps() | SelectionKey.OP_WRITE);
+                while ((c = readable.poll()) != null)
+                    if (c.key.isValid() && !c.eof)
+                        c.key.interestOps(c.key.interestOps() | SelectionKey.OP_READ);
+
+                for (SelectionKey key : selector.selectedKeys()) {
+                    try {
+                        if (!key.isValid())
+                            continue;
+                        if (key.isAcceptable())
+                            accept();
+                        if (key.isValid() && key.isReadable())
+                            read((Connection) key.attachment());
+                        if (key.isValid() && key.isWritable())
+                            write((Connection) key.attachment());
+                    } catch (IOException e) {
+                        LOGGER.debug("Ligacao perdida: {}", e.getMessage());
+                        close((Connection) key.attachment());
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            LOGGER.error("Servidor parado", e);
+        } finally {
+            for (SelectionKey key : selector.keys())
+                closeQuietly(key);
+            closeQuietly(server);
+            closeQuietly(selector);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            Connection c = new Connection(channel);
+            c.key = channel.register(selector, SelectionKey.OP_READ, c);
+            sessions++;
+        }
+    }
+
+    private void read(Connection c) throws IOException {
+        readBuffer.clear();
+        int n = c.channel.read(readBuffer);
+        if (n < 0) {
+            // the client is done sending: answer what came before closing
+            c.eof = true;
+            c.key.interestOps(SelectionKey.OP_WRITE);
+            if (!c.closing && endToken(c))
+                schedule(c);
+            return;
+        }
+        if (c.closing)
+            return;
+        readBuffer.flip();
+        boolean added = false;
+        while (readBuffer.hasRemaining()) {
+            char ch = (char) (readBuffer.get() & 0xFF);
+            if (Character.isWhitespace(ch))
+                added |= endToken(c);
+            else if (c.token.length() < MAX_TOKEN)
+                c.token.append(ch);
+            else
+                c.overlong = true;
+        }
+        if (c.pending.get() >= MAX_PENDING) {
+            c.paused.set(true);
+            c.key.interestOps(c.key.interestOps() & ~SelectionKey.OP_READ);
+            // the workers may have caught up before the pause was seen
+            if (c.pending.get() < MAX_PENDING && c.paused.compareAndSet(true, false))
+                c.key.interestOps(c.key.interestOps() | SelectionKey.OP_READ);
+        }
+        if (added)
+            schedule(c);
+    }
+
+    /**
+     * Queues the token being read, if any
+     *
+     * @return true if a token was queued
+     */
+    private static boolean endToken(Connection c) {
+        if (c.overlong) {
+            c.add(TOO_LONG);
+            c.overlong = false;
+        } else if (c.token.length() > 0) {
+            c.add(c.token.toString());
+        } else {
+            return false;
+        }
+        c.token.setLength(0);
+        return true;
+    }
+
+    private void schedule(Connection c) {
+        if (c.scheduled.compareAndSet(false, true))
+            workers.execute(c);
+    }
+
+    private void write(Connection c) throws IOException {
+        ByteBuffer buffer;
+        while ((buffer = c.output.peek()) != null) {
+            c.channel.write(buffer);
+            if (buffer.hasRemaining())
+                return;
+            c.output.poll();
+        }
+        if (c.closing || c.eof && c.idle()) {
+            if (c.output.isEmpty())
+                close(c);
+        } else {
+            c.key.interestOps(c.key.interestOps() & ~SelectionKey.OP_WRITE);
+        }
+    }
+
+    private void close(Connection c) {
+        if (c != null && c.key.isValid()) {
+            sessions--;
+            closeQuietly(c.key);
+        }
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        key.cancel();
+        closeQuietly(key.channel());
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            LOGGER.debug("Erro ao fechar: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.List;
+
+import static iscteiul.ista.battleship.Protocol.*;
+
+/**
+ * The state of one player of the {@link Tasks#taskD()} protocol, fed one
+ * token at a time. Each complete command produces its response, the text
+ * taskD would have written, ended by a blank line.
+ */
+class GameSession {
+    /**
+     * Marks the end of a response
+     */
+    static final String END = "\n";
+
+    private enum State {COMMAND, FLEET, SALVO, CLOSED}
+
+    private State state = State.COMMAND;
+    private IFleet fleet;
+    private IGame game;
+
+    /**
+     * The fleet being built and the tokens of the current ship
+     */
+    private Fleet building;
+    private final String[] shipTokens = new String[4];
+    private int shipToken;
+    private int shipsAdded;
+
+    /**
+     * The cells of the current salvo
+     */
+    private final int[] salvo = new int[NUMBER_SHOTS];
+    private final byte[] outcomes = new byte[NUMBER_SHOTS];
+    private int salvoToken;
+    private int salvoRow;
+
+    private final StringBuilder out = new StringBuilder();
+
+    /**
+     * @param token the next token sent by the player
+     * @return the response, if the token completed a command, or null
+     */
+    String accept(String token) {
+        switch (state) {
+            case COMMAND:
+                return command(token);
+            case FLEET:
+                return shipToken(token);
+            case SALVO:
+                return salvoToken(token);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @return true once the player gave up
+     */
+    boolean isClosed() {
+        return state == State.CLOSED;
+    }
+
+    /**
+     * @return the game being played, or null before the first fleet
+     */
+    IGame getGame() {
+        return game;
+    }
+
+    private String command(String token) {
+        switch (token) {
+            case NOVAFROTA:
+                building = new Fleet();
+                shipToken = 0;
+                shipsAdded = 0;
+                state = State.FLEET;
+                return null;
+            case RAJADA:
+                if (game == null)
+                    return respond();
+                salvoToken = 0;
+                state = State.SALVO;
+                return null;
+            case STATUS:
+                if (fleet != null)
+                    appendStatus();
+                return respond();
+            case BATOTA:
+                if (game != null)
+                    BoardRenderer.appendFleet(fleet, out);
+                return respond();
+            case VERTIROS:
+                if (game != null)
+                    BoardRenderer.appendBoard(fleet.getBoardSpec(), game.getShots(), BoardRenderer.SHOT, out);
+                return respond();
+            case DESISTIR:
+                state = State.CLOSED;
+                out.append(GOODBYE).append('\n');
+                return respond();
+            default:
+                out.append(UNKNOWN_COMMAND).append('\n');
+                return respond();
+        }
+    }
+
+    private String shipToken(String token) {
+        shipTokens[shipToken++] = token;
+        if (shipToken < shipTokens.length)
+            return null;
+        shipToken = 0;
+
+        Integer row = parse(shipTokens[1]);
+        Integer column = parse(shipTokens[2]);
+        if (row == null || column == null)
+            return abort(INVALID_POSITION);
+
+        ShipType type = ShipType.ofKind(shipTokens[0]);
+        Compass bearing = Compass.charToCompass(shipTokens[3].charAt(0));
+        if (type == null || ShipShape.of(type, bearing) == null) {
+            out.append(UNKNOWN_SHIP).append('\n');
+        } else {
+            IShip s = type.build(bearing, new Position(row, column));
+            if (building.addShip(s))
+                shipsAdded++;
+            else
+                out.append(Protocol.shipRejected(s)).append('\n');
+        }
+
+        if (shipsAdded < building.getBoardSpec().getFleetSize())
+            return null;
+
+        out.append(Protocol.fleetBuilt(shipsAdded)).append('\n');
+        fleet = building;
+        game = new Game(fleet);
+        building = null;
+        state = State.COMMAND;
+        return respond();
+    }
+
+    private String salvoToken(String token) {
+        Integer value = parse(token);
+        if (value == null)
+            return abort(INVALID_POSITION);
+
+        if (salvoToken % 2 == 0)
+            salvoRow = value;
+        else
+            salvo[salvoToken / 2] = IPosition.toCell(salvoRow, value);
+        if (++salvoToken < 2 * NUMBER_SHOTS)
+            return null;
+
+        game.fireBatch(salvo, outcomes);
+        for (int i = 0; i < NUMBER_SHOTS; i++)
+            if (outcomes[i] == IGame.SUNK)
+                out.append(Protocol.sunk(fleet.shipAt(salvo[i]))).append('\n');
+        out.append(Protocol.counters(game)).append('\n');
+        if (game.getRemainingShips() == 0)
+            out.append(DEFEAT).append('\n');
+        state = State.COMMAND;
+        return respond();
+    }
+
+    /**
+     * Drops the command in progress after a token could not be handled,
+     * keeping the session usable
+     *
+     * @return the response reporting the failure
+     */
+    String fail() {
+        building = null;
+        if (state != State.CLOSED)
+            state = State.COMMAND;
+        out.setLength(0);
+        out.append(UNKNOWN_COMMAND).append('\n');
+        return respond();
+    }
+
+    /**
+     * Drops the command in progress
+     */
+    private String abort(String message) {
+        building = null;
+        state = State.COMMAND;
+        out.append(message).append('\n');
+        return respond();
+    }
+
+    private String respond() {
+        out.append(END);
+        String response = out.toString();
+        out.setLength(0);
+        return response;
+    }
+
+    private static Integer parse(String token) {
+        try {
+            return Integer.valueOf(token);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void appendStatus() {
+        appendShips(fleet.getShips());
+        appendShips(fleet.getFloatingShips());
+        for (ShipType type : ShipType.ALL)
+            appendShips(fleet.getShipsLike(type));
+    }
+
+    private void appendShips(List<IShip> ships) {
+        for (IShip s : ships)
+            out.append(s).append('\n');
+    }
+}
@@ -0,0 +1,25 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * A game whose state {@link GameCodec} can encode: besides the counters of
+ * {@link IGame}, its fleet and the board of its valid shots. A game is
+ * encoded as it is at the time, so one fired at by other threads must be
+ * left alone while it is written.
+ */
+public interface IEncodableGame extends IGame {
+    /**
+     * @return the fleet under fire
+     */
+    IFleet getFleet();
+
+    /**
+     * @param word the number of a word of the board
+     * @return one bit for each of the 64 cells of board index (see
+     * {@link BoardSpec#indexOf(int, int)}) {@code 64 * word} onwards, set if
+     * a valid shot was fired at the cell
+     */
+    long getShotWord(int word);
+}
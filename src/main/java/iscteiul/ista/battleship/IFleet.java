@@ -9,15 +9,26 @@ public interface IFleet {
     Integer BOARD_SIZE = 10;
     Integer FLEET_SIZE = 10;
 
+    BoardSpec getBoardSpec();
+
     List<IShip> getShips();
 
     boolean addShip(IShip s);
 
     List<IShip> getShipsLike(String category);
 
+    /**
+     * @param type a type of ship
+     * @return a read-only list of the ships of the fleet of that type, in the
+     * order they were added
+     */
+    List<IShip> getShipsLike(ShipType type);
+
     List<IShip> getFloatingShips();
 
     IShip shipAt(IPosition pos);
 
+    IShip shipAt(int cell);
+
     void printStatus();
 }
@@ -6,8 +6,33 @@ package iscteiul.ista.battleship;
 import java.util.List;
 
 public interface IGame {
+    /**
+     * Outcomes of a shot, as written by {@link #fireBatch(int[], byte[])}
+     */
+    byte INVALID = 0;
+    byte REPEATED = 1;
+    byte MISS = 2;
+    byte HIT = 3;
+    byte SUNK = 4;
+
     IShip fire(IPosition pos);
 
+    IShip fire(int cell);
+
+    /**
+     * Fires a salvo of shots, in order
+     *
+     * @param cells    the packed cells (see {@link IPosition#toCell(int, int)})
+     *                 of the shots
+     * @param outcomes receives the outcome of each shot: {@link #INVALID},
+     *                 {@link #REPEATED}, {@link #MISS}, {@link #HIT} or
+     *                 {@link #SUNK}; at least as long as cells
+     * @return the number of ships sunk by the salvo
+     * @throws IllegalArgumentException if outcomes is shorter than cells, in
+     *                                  which case no shot is fired
+     */
+    int fireBatch(int[] cells, byte[] outcomes) throws IllegalArgumentException;
+
     List<IPosition> getShots();
 
     int getRepeatedShots();
@@ -20,6 +45,8 @@ public interface IGame {
 
     int getRemainingShips();
 
+    List<IShip> getFloatingShips();
+
     void printValidShots();
 
     void printFleet();
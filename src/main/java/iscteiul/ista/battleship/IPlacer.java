@@ -0,0 +1,19 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.SplittableRandom;
+
+/**
+ * A fleet placement strategy
+ */
+@FunctionalInterface
+public interface IPlacer {
+    /**
+     * @param spec   the board and the fleet composition
+     * @param random the random source the placer may use
+     * @return a complete fleet, with every ship of the composition
+     */
+    IFleet place(BoardSpec spec, SplittableRandom random);
+}
@@ -7,10 +7,41 @@ package iscteiul.ista.battleship;
  * @author fba
  */
 public interface IPosition {
+    /**
+     * Packs a pair of coordinates in a single int cell: the row in the upper 16
+     * bits and the column in the lower 16 bits. Rows and columns from -32768 to
+     * 32767 survive the round trip, so invalid shots keep their coordinates.
+     *
+     * @param row    the row
+     * @param column the column
+     * @return the packed cell
+     */
+    static int toCell(int row, int column) {
+        return (row << 16) | (column & 0xFFFF);
+    }
+
+    /**
+     * @param cell a packed cell
+     * @return the row of the cell
+     */
+    static int rowOf(int cell) {
+        return cell >> 16;
+    }
+
+    /**
+     * @param cell a packed cell
+     * @return the column of the cell
+     */
+    static int columnOf(int cell) {
+        return (short) cell;
+    }
+
     int getRow();
 
     int getColumn();
 
+    int getCell();
+
     boolean equals(Object other);
 
     boolean isAdjacentTo(IPosition other);
@@ -8,6 +8,12 @@ import java.util.List;
 public interface IShip {
     String getCategory();
 
+    /**
+     * @return the type of the ship, or null if its category is not one of the
+     * types
+     */
+    ShipType getType();
+
     Integer getSize();
 
     List<IPosition> getPositions();
@@ -18,6 +24,8 @@ public interface IShip {
 
     boolean stillFloating();
 
+    BoundingBox getBoundingBox();
+
     int getTopMostPos();
 
     int getBottomMostPos();
@@ -28,9 +36,13 @@ public interface IShip {
 
     boolean occupies(IPosition pos);
 
+    boolean occupies(int cell);
+
     boolean tooCloseTo(IShip other);
 
     boolean tooCloseTo(IPosition pos);
 
     void shoot(IPosition pos);
+
+    void shoot(int cell);
 }
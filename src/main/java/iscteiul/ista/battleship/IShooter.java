@@ -0,0 +1,38 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.SplittableRandom;
+
+/**
+ * A shooting strategy: picks the next shot of a game and learns from the
+ * result of each shot
+ */
+public interface IShooter {
+    /**
+     * Builds a new shooter for each game
+     */
+    @FunctionalInterface
+    interface Factory {
+        /**
+         * @param spec   the board of the game
+         * @param random the random source the shooter may use
+         * @return a shooter that has not fired yet
+         */
+        IShooter create(BoardSpec spec, SplittableRandom random);
+    }
+
+    /**
+     * @return the packed cell (see {@link IPosition#toCell(int, int)}) of the
+     * next shot
+     */
+    int nextShot();
+
+    /**
+     * @param cell the packed cell of the last shot
+     * @param hit  true if the shot hit a ship
+     * @param sunk the ship sunk by the shot, or null
+     */
+    void shotResult(int cell, boolean hit, IShip sunk);
+}
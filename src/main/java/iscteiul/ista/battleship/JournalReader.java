@@ -0,0 +1,248 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays the games of a {@link GameJournal}: rebuilds each fleet, fires the
+ * recorded shots at it in batches and checks that every shot has the
+ * recorded outcome.
+ */
+public class JournalReader {
+    private static final int BATCH = 256;
+    private static final int MAX_PROBLEMS = 100;
+
+    /**
+     * The outcome of a replay
+     */
+    public static final class Result {
+        private long games;
+        private long shots;
+        private long mismatches;
+        private final List<String> problems = new ArrayList<>();
+
+        /**
+         * @return the number of games started in the journal
+         */
+        public long getGames() {
+            return games;
+        }
+
+        /**
+         * @return the number of shots replayed
+         */
+        public long getShots() {
+            return shots;
+        }
+
+        /**
+         * @return the number of shots and fleets that did not replay as
+         * recorded
+         */
+        public long getMismatches() {
+            return mismatches;
+        }
+
+        /**
+         * @return a description of the first mismatches
+         */
+        public List<String> getProblems() {
+            return Collections.unmodifiableList(problems);
+        }
+
+        /**
+         * @return true if every game replayed as recorded
+         */
+        public boolean isConsistent() {
+            return mismatches == 0;
+        }
+
+        private void problem(String description) {
+            mismatches++;
+            if (problems.size() < MAX_PROBLEMS)
+                problems.add(description);
+        }
+
+        @Override
+        public String toString() {
+            return games + " games, " + shots + " shots, " + mismatches + " mismatches";
+        }
+    }
+
+    /**
+     * A game being replayed
+     */
+    private static final class Replay {
+        final int id;
+        final BoardSpec board;
+        final ShipType[] types;
+        final Compass[] bearings;
+        final int[] anchors;
+        int ships;
+        IGame game;
+        long shotIndex;
+
+        final int[] cells = new int[BATCH];
+        final byte[] recorded = new byte[BATCH];
+        final byte[] replayed = new byte[BATCH];
+        int pending;
+
+        Replay(int id, int rows, int columns, int ships) {
+            this.id = id;
+            this.board = new BoardSpec(rows, columns);
+            this.types = new ShipType[ships];
+            this.bearings = new Compass[ships];
+            this.anchors = new int[ships];
+        }
+    }
+
+    private final List<Path> files;
+
+    /**
+     * @param directory the directory of a journal
+     * @throws IOException if the directory cannot be listed
+     */
+    public JournalReader(Path directory) throws IOException {
+        this.files = GameJournal.files(directory);
+    }
+
+    /**
+     * Replays every game of the journal
+     *
+     * @return the games and shots replayed and the mismatches found
+     * @throws IOException if a journal file cannot be read
+     */
+    public Result replay() throws IOException {
+        Result result = new Result();
+        Map<Integer, Replay> games = new HashMap<>();
+        Replay last = null;
+
+        for (Path file : files)
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                for (int at = 0; at + GameJournal.RECORD <= buffer.limit(); at += GameJournal.RECORD) {
+                    int id = buffer.getInt(at);
+                    byte type = buffer.get(at + 4);
+                    byte a = buffer.get(at + 5);
+                    short b = buffer.getShort(at + 6);
+                    int value = buffer.getInt(at + 8);
+                    if (type == 0)
+                        break;
+
+                    try {
+                        if (type == GameJournal.GAME) {
+                            Replay previous = games.remove(id);
+                            if (previous != null)
+                                finish(previous, result);
+                            last = new Replay(id, IPosition.rowOf(value), IPosition.columnOf(value), b);
+                            games.put(id, last);
+                            result.games++;
+                            if (b == 0)
+                                start(last, result);
+                            continue;
+                        }
+
+                        Replay r = last != null && last.id == id ? last : games.get(id);
+                        if (r == null) {
+                            result.problem("record of unknown game " + id + " in " + file.getFileName());
+                            continue;
+                        }
+                        last = r;
+                        switch (type) {
+                            case GameJournal.SHIP:
+                                r.types[r.ships] = ShipType.ALL.get(a);
+                                r.bearings[r.ships] = Compass.values()[b];
+                                r.anchors[r.ships] = value;
+                                if (++r.ships == r.types.length)
+                                    start(r, result);
+                                break;
+                            case GameJournal.SHOT:
+                                r.cells[r.pending] = value;
+                                r.recorded[r.pending] = a;
+                                if (++r.pending == BATCH)
+                                    flush(r, result);
+                                break;
+                            case GameJournal.END:
+                                finish(r, result);
+                                games.remove(id);
+                                last = null;
+                                break;
+                            default:
+                                result.problem("unknown record type " + type + " in " + file.getFileName());
+                        }
+                    } catch (IllegalArgumentException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+                        result.problem("corrupt record of game " + id + " in " + file.getFileName() + ": "
+                                + e.getMessage());
+                    }
+                }
+            }
+
+        for (Replay r : games.values())
+            finish(r, result);
+        return result;
+    }
+
+    /**
+     * Builds the fleet of a game once all its ships are known
+     */
+    private static void start(Replay r, Result result) {
+        Map<ShipType, Integer> composition = new EnumMap<>(ShipType.class);
+        for (ShipType type : r.types)
+            composition.merge(type, 1, Integer::sum);
+        BoardSpec spec = composition.isEmpty() ? r.board
+                : new BoardSpec(r.board.getRows(), r.board.getColumns(), composition);
+
+        IFleet fleet = new BitboardFleet(spec, false);
+        for (int i = 0; i < r.types.length; i++) {
+            IShip s = r.types[i].build(r.bearings[i],
+                    new Position(IPosition.rowOf(r.anchors[i]), IPosition.columnOf(r.anchors[i])));
+            if (!fleet.addShip(s))
+                result.problem("game " + r.id + ": fleet rejected " + s);
+        }
+        Game game = new Game(fleet);
+        game.setMetered(false);
+        r.game = game;
+    }
+
+    private static void flush(Replay r, Result result) {
+        if (r.pending == 0)
+            return;
+        if (r.game == null) {
+            result.problem("game " + r.id + ": shots before its fleet");
+            r.pending = 0;
+            return;
+        }
+
+        int[] cells = r.cells;
+        if (r.pending < BATCH)
+            cells = Arrays.copyOf(cells, r.pending);
+        r.game.fireBatch(cells, r.replayed);
+        for (int i = 0; i < r.pending; i++)
+            if (r.replayed[i] != r.recorded[i])
+                result.problem("game " + r.id + " shot " + (r.shotIndex + i) + " at " + IPosition.rowOf(cells[i])
+                        + "," + IPosition.columnOf(cells[i]) + ": recorded " + r.recorded[i] + ", replayed "
+                        + r.replayed[i]);
+        result.shots += r.pending;
+        r.shotIndex += r.pending;
+        r.pending = 0;
+    }
+
+    private static void finish(Replay r, Result result) {
+        if (r.ships < r.types.length)
+            result.problem("game " + r.id + ": " + r.ships + " of " + r.types.length + " ships recorded");
+        flush(r, result);
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.List;
+
+/**
+ * A game that records its fleet and the outcome of every shot in a
+ * {@link GameJournal}
+ */
+public class JournaledGame implements IEncodableGame {
+    private final Game game;
+    private final IFleet fleet;
+    private final GameJournal journal;
+    private final int id;
+
+    private final int[] cell = new int[1];
+    private final byte[] outcome = new byte[1];
+
+    /**
+     * Records the fleet and starts the game
+     *
+     * @param fleet   the complete fleet under fire
+     * @param journal the journal of the game
+     */
+    public JournaledGame(IFleet fleet, GameJournal journal) {
+        this.fleet = fleet;
+        this.journal = journal;
+        this.id = journal.startGame(fleet);
+        this.game = new Game(fleet);
+    }
+
+    /**
+     * @return the id of the game in the journal
+     */
+    public int getId() {
+        return id;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IEncodableGame#getFleet()
+     */
+    @Override
+    public IFleet getFleet() {
+        return fleet;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IEncodableGame#getShotWord(int)
+     */
+    @Override
+    public long getShotWord(int word) {
+        return game.getShotWord(word);
+    }
+
+    /**
+     * Records the end of the game; it must not be fired at afterwards
+     */
+    public void end() {
+        journal.endGame(id);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#fire(battleship.IPosition)
+     */
+    @Override
+    public IShip fire(IPosition pos) {
+        int row = pos.getRow();
+        int column = pos.getColumn();
+        boolean packable = row >= Short.MIN_VALUE && row <= Short.MAX_VALUE && column >= Short.MIN_VALUE
+                && column <= Short.MAX_VALUE;
+        return fire(packable ? IPosition.toCell(row, column) : GameJournal.OFF_BOARD);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#fire(int)
+     */
+    @Override
+    public IShip fire(int cell) {
+        this.cell[0] = cell;
+        game.fireBatch(this.cell, outcome);
+        journal.shot(id, cell, outcome[0]);
+        return outcome[0] == SUNK ? fleet.shipAt(cell) : null;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#fireBatch(int[], byte[])
+     */
+    @Override
+    public int fireBatch(int[] cells, byte[] outcomes) {
+        int sunk = game.fireBatch(cells, outcomes);
+        journal.shots(id, cells, outcomes);
+        return sunk;
+    }
+
+    @Override
+    public List<IPosition> getShots() {
+        return game.getShots();
+    }
+
+    @Override
+    public int getRepeatedShots() {
+        return game.getRepeatedShots();
+    }
+
+    @Override
+    public int getInvalidShots() {
+        return game.getInvalidShots();
+    }
+
+    @Override
+    public int getHits() {
+        return game.getHits();
+    }
+
+    @Override
+    public int getSunkShips() {
+        return game.getSunkShips();
+    }
+
+    @Override
+    public int getRemainingShips() {
+        return game.getRemainingShips();
+    }
+
+    @Override
+    public List<IShip> getFloatingShips() {
+        return game.getFloatingShips();
+    }
+
+    @Override
+    public void printValidShots() {
+        game.printValidShots();
+    }
+
+    @Override
+    public void printFleet() {
+        game.printFleet();
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations in nanoseconds, in power-of-two buckets: bucket i
+ * counts the durations d with 2<sup>i-1</sup> &lt;= d &lt; 2<sup>i</sup>
+ * (bucket 0 counts zero). Percentiles are given as the upper bound of their
+ * bucket, so they are at most twice the real value. Safe to record into from
+ * several threads at once.
+ */
+public final class LatencyHistogram {
+    private static final int BUCKETS = Long.SIZE;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param nanos a duration in nanoseconds; negative ones count as zero
+     */
+    public void record(long nanos) {
+        if (nanos < 0)
+            nanos = 0;
+        buckets.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(nanos));
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * @return the number of durations recorded
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++)
+            count += buckets.get(i);
+        return count;
+    }
+
+    /**
+     * @return the longest duration recorded, 0 if none was
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @param fraction a fraction between 0 and 1
+     * @return an upper bound of the shortest duration at least the given
+     * fraction of the durations take no longer than, or -1 if none was
+     * recorded
+     */
+    public long getPercentile(double fraction) {
+        assert fraction >= 0 && fraction <= 1;
+
+        long target = Math.max(1, (long) Math.ceil(fraction * getCount()));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= target)
+                return Math.min(upperBound(i), getMax());
+        }
+        return -1;
+    }
+
+    /**
+     * @return a copy of the histogram, not affected by later records
+     */
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        for (int i = 0; i < BUCKETS; i++)
+            copy.buckets.set(i, buckets.get(i));
+        copy.max.set(max.get());
+        return copy;
+    }
+
+    /**
+     * Forgets every duration recorded. Records made meanwhile may be kept in
+     * part.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++)
+            buckets.set(i, 0);
+        max.set(0);
+    }
+
+    /**
+     * @return the longest duration counted by a bucket (bucket 63 ends at
+     * Long.MAX_VALUE)
+     */
+    private static long upperBound(int bucket) {
+        return (1L << bucket) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d samples, p50 %d ns, p99 %d ns, max %d ns", getCount(), getPercentile(0.5),
+                getPercentile(0.99), getMax());
+    }
+}
@@ -0,0 +1,472 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Counts exactly the legal fleets of a board: the ways of placing every ship
+ * of the composition inside the board with no two ships touching, not even
+ * diagonally, ships of the same type being alike.
+ * <p>
+ * Ships are placed in row-major order of their first cell, going through the
+ * board one cell at a time. Once a cell is passed only the cells ahead of it
+ * that earlier ships forbid matter, and these all lie within a window of a few
+ * rows, so a partial board is reduced to that window and the ships still to
+ * place. Partial boards reducing to the same state have the same completions
+ * and are counted together, one layer of states per cell.
+ * <p>
+ * One ship of the largest type is fixed first. The symmetries of the board
+ * (and of every ship type) map its placements onto each other, so the
+ * completions are counted once per orbit of the symmetry group and
+ * multiplied by the size of the orbit. Orbits are counted in parallel in a
+ * {@link ForkJoinPool}; each finished orbit can be reported and appended to a
+ * checkpoint file, and a run given the same file skips the orbits in it.
+ */
+public class PlacementCounter {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * Told of the progress of a count
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * @param done  the number of orbits counted so far, resumed ones
+         *              included
+         * @param total the number of orbits
+         */
+        void progress(int done, int total);
+    }
+
+    /**
+     * A placement of a ship, relative to its first cell: the cells it takes
+     * and the cells it forbids, as bits of the window starting there
+     */
+    private static final class Start {
+        final int type;
+        final long cells;
+        final long halo;
+
+        Start(int type, long cells, long halo) {
+            this.type = type;
+            this.cells = cells;
+            this.halo = halo;
+        }
+    }
+
+    private final BoardSpec spec;
+
+    /**
+     * The board counted: the spec or its transpose, whichever needs the
+     * narrower window
+     */
+    private final BoardSpec board;
+    private final int window;
+    private final long windowMask;
+
+    /**
+     * The types of the fleet, the pivot (a largest type) first, and for each
+     * the stride of its count in a state index
+     */
+    private final ShipType[] types;
+    private final int[] counts;
+    private final int[] strides;
+
+    /**
+     * By board index: the placements whose first cell it is
+     */
+    private final Start[][] starts;
+
+    /**
+     * One placement of the pivot per orbit, as the sorted board indexes of its
+     * cells, with the size of the orbit
+     */
+    private final List<int[]> orbits = new ArrayList<>();
+    private final List<Integer> orbitSizes = new ArrayList<>();
+
+    /**
+     * @param spec the board and the fleet composition
+     * @throws IllegalArgumentException if the board is too wide for the
+     *                                  states to fit in 64 bits
+     */
+    public PlacementCounter(BoardSpec spec) throws IllegalArgumentException {
+        this.spec = spec;
+
+        List<ShipType> fleet = new ArrayList<>();
+        for (ShipType type : ShipType.ALL)
+            if (spec.count(type) > 0)
+                fleet.add(type);
+        fleet.sort((a, b) -> b.getSize() - a.getSize());
+        types = fleet.toArray(new ShipType[0]);
+        counts = new int[types.length];
+        strides = new int[types.length];
+        int states = 1;
+        for (int t = 0; t < types.length; t++) {
+            counts[t] = spec.count(types[t]) - (t == 0 ? 1 : 0);
+            strides[t] = states;
+            states *= counts[t] + 1;
+        }
+
+        BoardSpec transposed = new BoardSpec(spec.getColumns(), spec.getRows(), spec.getComposition());
+        board = window(transposed) < window(spec) ? transposed : spec;
+        window = window(board);
+        int indexBits = Integer.SIZE - Integer.numberOfLeadingZeros(states - 1);
+        if (window + indexBits > Long.SIZE)
+            throw new IllegalArgumentException("ERROR! " + spec + " is too wide to count");
+        windowMask = window == Long.SIZE ? -1L : (1L << window) - 1;
+
+        starts = new Start[board.getCells()][];
+        List<List<Start>> lists = new ArrayList<>();
+        for (int i = 0; i < board.getCells(); i++)
+            lists.add(new ArrayList<>());
+        for (int t = 0; t < types.length; t++)
+            for (int[] cells : placements(board, types[t])) {
+                int first = cells[0];
+                long mask = 0;
+                for (int cell : cells)
+                    mask |= 1L << (cell - first);
+                long halo = 0;
+                for (int cell : halo(board, cells))
+                    if (cell >= first)
+                        halo |= 1L << (cell - first);
+                lists.get(first).add(new Start(t, mask, halo));
+            }
+        for (int i = 0; i < starts.length; i++)
+            starts[i] = lists.get(i).toArray(new Start[0]);
+
+        if (types.length > 0)
+            findOrbits();
+    }
+
+    /**
+     * @return the board and the fleet composition
+     */
+    public BoardSpec getBoardSpec() {
+        return spec;
+    }
+
+    /**
+     * @return the number of orbits counted separately, the units of work and
+     * of progress
+     */
+    public int getOrbits() {
+        return orbits.size();
+    }
+
+    /**
+     * Counts on the common pool
+     *
+     * @return the number of legal fleets
+     */
+    public BigInteger count() {
+        try {
+            return count(ForkJoinPool.commonPool(), null, (done, total) -> {
+            });
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Counts on a new pool with the given number of threads
+     *
+     * @param threads the number of worker threads
+     * @return the number of legal fleets
+     */
+    public BigInteger count(int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return count(pool, null, (done, total) -> {
+            });
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * @param pool       the pool that counts the orbits
+     * @param checkpoint a file the count of each orbit is appended to as soon
+     *                   as it is known, and read back from to resume an
+     *                   interrupted count; null for none
+     * @param listener   told of the progress after each orbit, one call at a
+     *                   time
+     * @return the number of legal fleets
+     * @throws IOException              if the checkpoint cannot be read or
+     *                                  written
+     * @throws IllegalArgumentException if the checkpoint is of another board
+     * @throws ArithmeticException      if a partial count overflows a long
+     */
+    public BigInteger count(ForkJoinPool pool, Path checkpoint, ProgressListener listener)
+            throws IOException, IllegalArgumentException, ArithmeticException {
+        if (types.length == 0)
+            return BigInteger.ONE;
+
+        long[] found = new long[orbits.size()];
+        Arrays.fill(found, -1);
+        if (checkpoint != null)
+            resume(checkpoint, found);
+
+        if (checkpoint != null && (!Files.exists(checkpoint) || Files.size(checkpoint) == 0))
+            Files.write(checkpoint, (header() + "\n").getBytes(StandardCharsets.UTF_8));
+
+        long start = System.nanoTime();
+        Run run = new Run(found, checkpoint, listener);
+        listener.progress(run.done, orbits.size());
+        pool.invoke(run);
+        if (run.failure != null)
+            throw run.failure;
+
+        BigInteger total = BigInteger.ZERO;
+        for (int o = 0; o < found.length; o++)
+            total = total.add(BigInteger.valueOf(found[o]).multiply(BigInteger.valueOf(orbitSizes.get(o))));
+        total = total.divide(BigInteger.valueOf(counts[0] + 1));
+        LOGGER.debug("{} legal fleets of {} in {} ms", total, spec, (System.nanoTime() - start) / 1_000_000);
+        return total;
+    }
+
+    /**
+     * Counts the completions of the fleet around a fixed pivot ship
+     *
+     * @param pivot the sorted board indexes of the cells of the pivot ship
+     * @return the number of legal fleets including it
+     */
+    long countAround(int[] pivot) {
+        int cells = board.getCells();
+        boolean[] blocked = new boolean[cells + window];
+        for (int cell : halo(board, pivot))
+            blocked[cell] = true;
+
+        int first = 0;
+        for (int t = 0; t < types.length; t++)
+            first += counts[t] * strides[t];
+        if (first == 0)
+            return 1;
+        long initial = 0;
+        for (int k = 0; k < window; k++)
+            if (blocked[k])
+                initial |= 1L << k;
+
+        StateLayer current = new StateLayer();
+        StateLayer next = new StateLayer();
+        current.add((long) first << window | initial, 1);
+        long complete = 0;
+        for (int i = 0; i < cells && current.size > 0; i++) {
+            long incoming = blocked[i + window] ? 1L << (window - 1) : 0;
+            for (int s = 0; s < current.values.length; s++) {
+                long ways = current.values[s];
+                if (ways == 0)
+                    continue;
+                long key = current.keys[s];
+                long free = key & windowMask;
+                int index = (int) (key >>> window);
+                next.add((long) index << window | free >>> 1 | incoming, ways);
+                if ((free & 1) != 0)
+                    continue;
+                for (Start p : starts[i]) {
+                    if ((free & p.cells) != 0 || index / strides[p.type] % (counts[p.type] + 1) == 0)
+                        continue;
+                    int rest = index - strides[p.type];
+                    if (rest == 0)
+                        complete = Math.addExact(complete, ways);
+                    else
+                        next.add((long) rest << window | (free | p.halo) >>> 1 | incoming, ways);
+                }
+            }
+            StateLayer swap = current;
+            current = next;
+            next = swap;
+            next.clear();
+        }
+        return complete;
+    }
+
+    /**
+     * Groups the placements of the pivot type into orbits of the symmetries
+     * of the board
+     */
+    private void findOrbits() {
+        List<int[]> placements = placements(board, types[0]);
+        Map<String, Integer> index = new HashMap<>();
+        for (int p = 0; p < placements.size(); p++)
+            index.put(Arrays.toString(placements.get(p)), p);
+
+        int rows = board.getRows();
+        int columns = board.getColumns();
+        int symmetries = rows == columns ? 8 : 4;
+        boolean[] seen = new boolean[placements.size()];
+        for (int p = 0; p < placements.size(); p++) {
+            if (seen[p])
+                continue;
+            int size = 0;
+            for (int s = 0; s < symmetries; s++) {
+                int[] image = placements.get(p).clone();
+                for (int k = 0; k < image.length; k++) {
+                    int r = image[k] / columns;
+                    int c = image[k] % columns;
+                    int r2 = (s & 1) != 0 ? rows - 1 - r : r;
+                    int c2 = (s & 2) != 0 ? columns - 1 - c : c;
+                    image[k] = (s & 4) != 0 ? c2 * columns + r2 : r2 * columns + c2;
+                }
+                Arrays.sort(image);
+                Integer q = index.get(Arrays.toString(image));
+                assert q != null;
+                if (!seen[q]) {
+                    seen[q] = true;
+                    size++;
+                }
+            }
+            orbits.add(placements.get(p));
+            orbitSizes.add(size);
+        }
+    }
+
+    private void resume(Path checkpoint, long[] found) throws IOException {
+        if (!Files.exists(checkpoint))
+            return;
+        List<String> lines = Files.readAllLines(checkpoint, StandardCharsets.UTF_8);
+        if (lines.isEmpty())
+            return;
+        if (!lines.get(0).equals(header()))
+            throw new IllegalArgumentException("ERROR! " + checkpoint + " is not a checkpoint of " + spec);
+        for (String line : lines.subList(1, lines.size())) {
+            String[] fields = line.trim().split(" ");
+            try {
+                if (fields.length == 2)
+                    found[Integer.parseInt(fields[0])] = Long.parseLong(fields[1]);
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                LOGGER.warn("Linha ignorada no checkpoint {}: {}", checkpoint, line);
+            }
+        }
+    }
+
+    private String header() {
+        return "# " + spec;
+    }
+
+    /**
+     * @return the number of bits of the window: the farthest cell a ship
+     * forbids, counted from its first cell
+     */
+    private static int window(BoardSpec board) {
+        int window = 1;
+        for (ShipType type : ShipType.ALL)
+            if (board.count(type) > 0)
+                for (int[] cells : placements(board, type)) {
+                    int[] halo = halo(board, cells);
+                    window = Math.max(window, halo[halo.length - 1] - cells[0] + 1);
+                }
+        return window;
+    }
+
+    /**
+     * @return the distinct placements of a type inside the board, as sorted
+     * board indexes
+     */
+    private static List<int[]> placements(BoardSpec board, ShipType type) {
+        List<int[]> placements = new ArrayList<>();
+        for (ShipShape shape : ShipShape.distinct(type))
+            for (int r = 0; r < board.getRows(); r++)
+                for (int c = 0; c < board.getColumns(); c++)
+                    if (shape.fits(board, r, c)) {
+                        int[] cells = shape.cells(board, r, c);
+                        Arrays.sort(cells);
+                        placements.add(cells);
+                    }
+        return placements;
+    }
+
+    /**
+     * @return the sorted board indexes of the cells and their neighbours
+     */
+    private static int[] halo(BoardSpec board, int[] cells) {
+        boolean[] halo = new boolean[board.getCells()];
+        for (int cell : cells) {
+            int row = cell / board.getColumns();
+            int column = cell % board.getColumns();
+            for (int r = row - 1; r <= row + 1; r++)
+                for (int c = column - 1; c <= column + 1; c++)
+                    if (board.isInside(r, c))
+                        halo[board.indexOf(r, c)] = true;
+        }
+        int n = 0;
+        int[] sorted = new int[board.getCells()];
+        for (int i = 0; i < halo.length; i++)
+            if (halo[i])
+                sorted[n++] = i;
+        return Arrays.copyOf(sorted, n);
+    }
+
+    /**
+     * Forks a task per orbit not yet counted
+     */
+    private final class Run extends RecursiveTask<Void> {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] found;
+        private final Path checkpoint;
+        private final ProgressListener listener;
+        private int done;
+
+        /**
+         * The first failure to write the checkpoint; the orbits go on being
+         * counted
+         */
+        private IOException failure;
+
+        Run(long[] found, Path checkpoint, ProgressListener listener) {
+            this.found = found;
+            this.checkpoint = checkpoint;
+            this.listener = listener;
+            for (long count : found)
+                if (count >= 0)
+                    done++;
+        }
+
+        @Override
+        protected Void compute() {
+            List<ForkJoinTask<Void>> tasks = new ArrayList<>();
+            for (int o = 0; o < found.length; o++) {
+                if (found[o] >= 0)
+                    continue;
+                int orbit = o;
+                tasks.add(ForkJoinTask.adapt(() -> finish(orbit, countAround(orbits.get(orbit))), (Void) null));
+            }
+            ForkJoinTask.invokeAll(tasks);
+            return null;
+        }
+
+        private synchronized void finish(int orbit, long count) {
+            found[orbit] = count;
+            if (checkpoint != null && failure == null) {
+                try {
+                    Files.write(checkpoint, (orbit + " " + count + "\n").getBytes(StandardCharsets.UTF_8),
+                            StandardOpenOption.APPEND);
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            done++;
+            listener.progress(done, found.length);
+        }
+    }
+}
@@ -3,14 +3,17 @@
  */
 package iscteiul.ista.battleship;
 
-import java.util.Objects;
-
 public class Position implements IPosition {
     private int row;
     private int column;
     private boolean isOccupied;
     private boolean isHit;
 
+    /**
+     * The ship the position belongs to, told when the position is first hit
+     */
+    private Ship owner;
+
     /**
      *
      */
@@ -42,9 +45,19 @@ public class Position implements IPosition {
     }
 
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IPosition#getCell()
+     */
+    @Override
+    public int getCell() {
+        return IPosition.toCell(row, column);
+    }
+
     @Override
     public int hashCode() {
-        return Objects.hash(column, isHit, isOccupied, row);
+        return 31 * row + column;
     }
 
     /*
@@ -91,7 +104,25 @@ public class Position implements IPosition {
      */
     @Override
     public void shoot() {
+        if (isHit)
+            return;
         isHit = true;
+        if (owner != null)
+            owner.hit();
+    }
+
+    /**
+     * @return the ship the position belongs to, or null
+     */
+    Ship getOwner() {
+        return owner;
+    }
+
+    /**
+     * @param owner the ship the position now belongs to
+     */
+    void setOwner(Ship owner) {
+        this.owner = owner;
     }
 
     /*
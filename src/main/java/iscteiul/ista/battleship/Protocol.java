@@ -0,0 +1,70 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * The text protocol of the game: the command words players type and the
+ * replies they get, shared by {@link Tasks} and {@link GameSession}
+ */
+final class Protocol {
+    /**
+     * Strings to be used by the user
+     */
+    static final String NOVAFROTA = "nova";
+    static final String DESISTIR = "desisto";
+    static final String RAJADA = "rajada";
+    static final String VERTIROS = "ver";
+    static final String BATOTA = "mapa";
+    static final String STATUS = "estado";
+
+    static final String[] COMMANDS = {NOVAFROTA, DESISTIR, RAJADA, VERTIROS, BATOTA, STATUS};
+
+    /**
+     * Shots in a salvo
+     */
+    static final int NUMBER_SHOTS = 3;
+
+    static final String GOODBYE = "Bons ventos!";
+    static final String UNKNOWN_COMMAND = "Que comando é esse??? Repete ...";
+    /**
+     * The same reply, as worded by the fleet-building tasks B and C
+     */
+    static final String UNKNOWN_COMMAND_LA = "Que comando é esse??? Repete lá ...";
+    static final String UNKNOWN_SHIP = "Navio desconhecido!";
+    static final String INVALID_POSITION = "Posicao invalida!";
+    static final String DEFEAT = "Maldito sejas, Java Sparrow, eu voltarei, glub glub glub...";
+
+    private Protocol() {
+    }
+
+    /**
+     * @param ship a ship the fleet would not take
+     */
+    static String shipRejected(IShip ship) {
+        return "Falha na criacao de " + ship.getCategory() + " " + ship.getBearing() + " " + ship.getPosition();
+    }
+
+    /**
+     * @param ships the number of ships of the new fleet
+     */
+    static String fleetBuilt(int ships) {
+        return ships + " navios adicionados com sucesso!";
+    }
+
+    /**
+     * @param ship a ship just sunk
+     */
+    static String sunk(IShip ship) {
+        return "Mas... mas... " + ship.getCategory() + "s nao sao a prova de bala? :-(";
+    }
+
+    /**
+     * @param game a game
+     * @return the counters of the game, as reported after each salvo
+     */
+    static String counters(IGame game) {
+        return "Hits: " + game.getHits() + " Inv: " + game.getInvalidShots() + " Rep: " + game.getRepeatedShots()
+                + " Restam " + game.getRemainingShips() + " navios.";
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Places the ships one at a time, largest first, each at a random anchor and
+ * bearing until the fleet accepts it. When a ship cannot be placed the fleet
+ * is started over. Layouts are legal but not uniformly distributed.
+ */
+public class RandomPlacer implements IPlacer {
+    private static final Compass[] BEARINGS = {Compass.NORTH, Compass.SOUTH, Compass.EAST, Compass.WEST};
+    private static final int ATTEMPTS_PER_SHIP = 1000;
+    private static final int MAX_RESTARTS = 10_000;
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IPlacer#place(battleship.BoardSpec, java.util.SplittableRandom)
+     */
+    @Override
+    public IFleet place(BoardSpec spec, SplittableRandom random) {
+        for (int restart = 0; restart < MAX_RESTARTS; restart++) {
+            IFleet fleet = tryPlace(spec, random);
+            if (fleet != null)
+                return fleet;
+        }
+        throw new IllegalStateException("ERROR! could not place the fleet " + spec);
+    }
+
+    private static IFleet tryPlace(BoardSpec spec, SplittableRandom random) {
+        BitboardFleet fleet = new BitboardFleet(spec, false);
+        for (Map.Entry<ShipType, Integer> entry : spec.getComposition().entrySet())
+            for (int n = 0; n < entry.getValue(); n++)
+                if (!placeShip(fleet, entry.getKey(), spec, random))
+                    return null;
+        return fleet;
+    }
+
+    private static boolean placeShip(IFleet fleet, ShipType type, BoardSpec spec, SplittableRandom random) {
+        for (int attempt = 0; attempt < ATTEMPTS_PER_SHIP; attempt++) {
+            Compass bearing = BEARINGS[random.nextInt(BEARINGS.length)];
+            int row = random.nextInt(spec.getRows());
+            int column = random.nextInt(spec.getColumns());
+            if (ShipShape.of(type, bearing).fits(spec, row, column)
+                    && fleet.addShip(type.build(bearing, new Position(row, column))))
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.SplittableRandom;
+
+/**
+ * Fires at the cells of the board in random order, never twice at the same
+ * cell and ignoring the results
+ */
+public class RandomShooter implements IShooter {
+    private final SplittableRandom random;
+    private final int[] cells;
+    private int remaining;
+
+    /**
+     * @param spec   the board of the game
+     * @param random the random source of the shooter
+     */
+    public RandomShooter(BoardSpec spec, SplittableRandom random) {
+        this.random = random;
+        cells = new int[spec.getCells()];
+        for (int r = 0; r < spec.getRows(); r++)
+            for (int c = 0; c < spec.getColumns(); c++)
+                cells[spec.indexOf(r, c)] = IPosition.toCell(r, c);
+        remaining = cells.length;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IShooter#nextShot()
+     */
+    @Override
+    public int nextShot() {
+        if (remaining == 0)
+            throw new IllegalStateException("ERROR! every cell has been fired at");
+
+        int i = random.nextInt(remaining);
+        int cell = cells[i];
+        cells[i] = cells[--remaining];
+        cells[remaining] = cell;
+        return cell;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IShooter#shotResult(int, boolean, battleship.IShip)
+     */
+    @Override
+    public void shotResult(int cell, boolean hit, IShip sunk) {
+        // a random shooter does not learn
+    }
+}
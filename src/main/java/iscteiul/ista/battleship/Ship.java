@@ -4,67 +4,130 @@
 package iscteiul.ista.battleship;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 
 public abstract class Ship implements IShip {
 
-    private static final String GALEAO = "galeao";
-    private static final String FRAGATA = "fragata";
-    private static final String NAU = "nau";
-    private static final String CARAVELA = "caravela";
-    private static final String BARCA = "barca";
-
     /**
-     * @param shipKind
-     * @param bearing
-     * @param pos
-     * @return
-     */
-    static Ship buildShip(String shipKind, Compass bearing, Position pos) {
-        Ship s;
-        switch (shipKind) {
-            case BARCA:
-                s = new Barge(bearing, pos);
-                break;
-            case CARAVELA:
-                s = new Caravel(bearing, pos);
-                break;
-            case NAU:
-                s = new Carrack(bearing, pos);
-                break;
-            case FRAGATA:
-                s = new Frigate(bearing, pos);
-                break;
-            case GALEAO:
-                s = new Galleon(bearing, pos);
-                break;
-            default:
-                s = null;
-        }
-        return s;
+     * @param shipKind the word used for the kind of ship in the commands
+     * @param bearing  the bearing of the ship
+     * @param pos      the anchor position of the ship
+     * @return the new ship, or null if the kind is unknown
+     */
+    static Ship buildShip(String shipKind, Compass bearing, IPosition pos) {
+        ShipType type = ShipType.ofKind(shipKind);
+        return type == null ? null : type.build(bearing, pos);
     }
 
 
     private String category;
+    private ShipType type;
     private Compass bearing;
     private IPosition pos;
     protected List<IPosition> positions;
 
+    /**
+     * Computed on first request: positions are filled in by the subclasses and
+     * never change afterwards
+     */
+    private BoundingBox boundingBox;
+
+    /**
+     * Number of distinct positions of the ship that have been hit, whether
+     * through {@link #shoot(IPosition)}, {@link #shoot(int)} or
+     * {@link Position#shoot()}: the {@link Position}s added to the ship report
+     * their first hit to it. Positions of other classes are only counted when
+     * shot through the ship.
+     */
+    private int hits;
+
+
+    /**
+     * @param type    the type of the ship
+     * @param bearing the bearing of the ship
+     * @param pos     the anchor position of the ship
+     */
+    protected Ship(ShipType type, Compass bearing, IPosition pos) {
+        this(type.getCategory(), type, bearing, pos);
+    }
 
     /**
-     * @param category
-     * @param bearing
-     * @param pos
+     * @param category the category of the ship; ships of the category of a
+     *                 {@link ShipType} are of that type
+     * @param bearing  the bearing of the ship
+     * @param pos      the anchor position of the ship
      */
     public Ship(String category, Compass bearing, IPosition pos) {
+        this(category, ShipType.ofCategory(category), bearing, pos);
+    }
+
+    private Ship(String category, ShipType type, Compass bearing, IPosition pos) {
         assert bearing != null;
         assert pos != null;
 
         this.category = category;
+        this.type = type;
         this.bearing = bearing;
         this.pos = pos;
-        positions = new ArrayList<>();
+        positions = new Positions(type == null ? 0 : type.getSize());
+        hits = 0;
+    }
+
+    /**
+     * Counts a position of the ship hit for the first time
+     */
+    void hit() {
+        hits++;
+    }
+
+    /**
+     * The positions of a ship, which takes on the {@link Position}s added
+     */
+    private final class Positions extends ArrayList<IPosition> {
+        private static final long serialVersionUID = 1L;
+
+        Positions(int capacity) {
+            super(capacity);
+        }
+
+        @Override
+        public boolean add(IPosition position) {
+            adopt(position);
+            return super.add(position);
+        }
+
+        @Override
+        public void add(int index, IPosition position) {
+            adopt(position);
+            super.add(index, position);
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends IPosition> positions) {
+            for (IPosition position : positions)
+                add(position);
+            return !positions.isEmpty();
+        }
+
+        private void adopt(IPosition position) {
+            if (position instanceof Position) {
+                ((Position) position).setOwner(Ship.this);
+                if (position.isHit())
+                    hits++;
+            }
+        }
+    }
+
+    /**
+     * Adds the positions of a shape anchored at the position of the ship
+     *
+     * @param shape the shape of the ship
+     */
+    protected void fill(ShipShape shape) {
+        for (int i = 0; i < shape.size(); i++)
+            positions.add(new Position(pos.getRow() + shape.getRowOffset(i), pos.getColumn() + shape.getColumnOffset(i)));
     }
 
     /*
@@ -77,6 +140,16 @@ public abstract class Ship implements IShip {
         return category;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IShip#getType()
+     */
+    @Override
+    public ShipType getType() {
+        return type;
+    }
+
     /**
      * @return the positions
      */
@@ -111,10 +184,19 @@ public abstract class Ship implements IShip {
      */
     @Override
     public boolean stillFloating() {
-        for (int i = 0; i < getSize(); i++)
-            if (!getPositions().get(i).isHit())
-                return true;
-        return false;
+        return hits < getSize();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IShip#getBoundingBox()
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        if (boundingBox == null)
+            boundingBox = BoundingBox.of(getPositions());
+        return boundingBox;
     }
 
     /*
@@ -124,11 +206,7 @@ public abstract class Ship implements IShip {
      */
     @Override
     public int getTopMostPos() {
-        int top = getPositions().get(0).getRow();
-        for (int i = 1; i < getSize(); i++)
-            if (getPositions().get(i).getRow() < top)
-                top = getPositions().get(i).getRow();
-        return top;
+        return getBoundingBox().getTop();
     }
 
     /*
@@ -138,11 +216,7 @@ public abstract class Ship implements IShip {
      */
     @Override
     public int getBottomMostPos() {
-        int bottom = getPositions().get(0).getRow();
-        for (int i = 1; i < getSize(); i++)
-            if (getPositions().get(i).getRow() > bottom)
-                bottom = getPositions().get(i).getRow();
-        return bottom;
+        return getBoundingBox().getBottom();
     }
 
     /*
@@ -152,11 +226,7 @@ public abstract class Ship implements IShip {
      */
     @Override
     public int getLeftMostPos() {
-        int left = getPositions().get(0).getColumn();
-        for (int i = 1; i < getSize(); i++)
-            if (getPositions().get(i).getColumn() < left)
-                left = getPositions().get(i).getColumn();
-        return left;
+        return getBoundingBox().getLeft();
     }
 
     /*
@@ -166,11 +236,7 @@ public abstract class Ship implements IShip {
      */
     @Override
     public int getRightMostPos() {
-        int right = getPositions().get(0).getColumn();
-        for (int i = 1; i < getSize(); i++)
-            if (getPositions().get(i).getColumn() > right)
-                right = getPositions().get(i).getColumn();
-        return right;
+        return getBoundingBox().getRight();
     }
 
     /*
@@ -182,12 +248,33 @@ public abstract class Ship implements IShip {
     public boolean occupies(IPosition pos) {
         assert pos != null;
 
+        if (!getBoundingBox().contains(pos.getRow(), pos.getColumn()))
+            return false;
         for (int i = 0; i < getSize(); i++)
             if (getPositions().get(i).equals(pos))
                 return true;
         return false;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IShip#occupies(int)
+     */
+    @Override
+    public boolean occupies(int cell) {
+        int row = IPosition.rowOf(cell);
+        int column = IPosition.columnOf(cell);
+        if (!getBoundingBox().contains(row, column))
+            return false;
+        for (int i = 0; i < getSize(); i++) {
+            IPosition position = getPositions().get(i);
+            if (position.getRow() == row && position.getColumn() == column)
+                return true;
+        }
+        return false;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -197,6 +284,9 @@ public abstract class Ship implements IShip {
     public boolean tooCloseTo(IShip other) {
         assert other != null;
 
+        if (!getBoundingBox().isNear(other.getBoundingBox()))
+            return false;
+
         Iterator<IPosition> otherPos = other.getPositions().iterator();
         while (otherPos.hasNext())
             if (tooCloseTo(otherPos.next()))
@@ -212,6 +302,8 @@ public abstract class Ship implements IShip {
      */
     @Override
     public boolean tooCloseTo(IPosition pos) {
+        if (!getBoundingBox().isNear(pos.getRow(), pos.getColumn()))
+            return false;
         for (int i = 0; i < this.getSize(); i++)
             if (getPositions().get(i).isAdjacentTo(pos))
                 return true;
@@ -228,9 +320,33 @@ public abstract class Ship implements IShip {
     public void shoot(IPosition pos) {
         assert pos != null;
 
-        for (IPosition position : getPositions()) {
-            if (position.equals(pos))
+        shoot(pos.getRow(), pos.getColumn());
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IShip#shoot(int)
+     */
+    @Override
+    public void shoot(int cell) {
+        shoot(IPosition.rowOf(cell), IPosition.columnOf(cell));
+    }
+
+    /**
+     * Hits the position of the ship at (row, column), if any. Shooting a
+     * position that was already hit changes nothing.
+     */
+    private void shoot(int row, int column) {
+        if (!getBoundingBox().contains(row, column))
+            return;
+        for (int i = 0; i < getSize(); i++) {
+            IPosition position = getPositions().get(i);
+            if (position.getRow() == row && position.getColumn() == column && !position.isHit()) {
                 position.shoot();
+                if (!(position instanceof Position) || ((Position) position).getOwner() != this)
+                    hits++;
+            }
         }
     }
 
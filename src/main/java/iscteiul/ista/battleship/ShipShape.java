@@ -0,0 +1,267 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The cells of a ship of some type and bearing, as (row, column) offsets
+ * from its anchor position. The shapes of every type and bearing are worked
+ * out once; ships, the fleet generator and the shooters all take their cells
+ * from here.
+ */
+public final class ShipShape {
+    private static final Compass[] BEARINGS = {Compass.NORTH, Compass.SOUTH, Compass.EAST, Compass.WEST};
+
+    /**
+     * Width of the masks compared to tell shapes apart, wider than any shape
+     */
+    private static final int COMPARE_STRIDE = 8;
+
+    /**
+     * By type and bearing ordinal; null where the type takes no such bearing
+     */
+    private static final ShipShape[][] SHAPES = new ShipShape[ShipType.ALL.size()][Compass.values().length];
+
+    /**
+     * By type ordinal: the bearings of the type covering different cells
+     */
+    private static final List<List<ShipShape>> DISTINCT = new ArrayList<>();
+
+    static {
+        for (ShipType type : ShipType.ALL) {
+            for (Compass bearing : Compass.values()) {
+                int[][] offsets = offsets(type, bearing);
+                if (offsets != null)
+                    SHAPES[type.ordinal()][bearing.ordinal()] = new ShipShape(type, bearing, offsets);
+            }
+            List<ShipShape> distinct = new ArrayList<>();
+            for (Compass bearing : BEARINGS) {
+                ShipShape shape = of(type, bearing);
+                boolean seen = false;
+                for (ShipShape other : distinct)
+                    seen |= other.mask(COMPARE_STRIDE) == shape.mask(COMPARE_STRIDE);
+                if (!seen)
+                    distinct.add(shape);
+            }
+            DISTINCT.add(Collections.unmodifiableList(distinct));
+        }
+    }
+
+    /**
+     * The shapes themselves, as {dRow, dCol} pairs in the order the ships list
+     * their positions
+     */
+    private static int[][] offsets(ShipType type, Compass bearing) {
+        switch (type) {
+            case GALLEON:
+                switch (bearing) {
+                    case NORTH:
+                        return new int[][]{{0, 0}, {0, 1}, {0, 2}, {1, 1}, {2, 1}};
+                    case SOUTH:
+                        return new int[][]{{0, 0}, {1, 0}, {2, -1}, {2, 0}, {2, 1}};
+                    case EAST:
+                        return new int[][]{{0, 0}, {1, -2}, {1, -1}, {1, 0}, {2, 0}};
+                    case WEST:
+                        return new int[][]{{0, 0}, {1, 0}, {1, 1}, {1, 2}, {2, 0}};
+                    default:
+                        return null;
+                }
+            case BARGE:
+                return new int[][]{{0, 0}};
+            default:
+                switch (bearing) {
+                    case NORTH:
+                    case SOUTH:
+                        return straight(type.getSize(), 1, 0);
+                    case EAST:
+                    case WEST:
+                        return straight(type.getSize(), 0, 1);
+                    default:
+                        return null;
+                }
+        }
+    }
+
+    private static int[][] straight(int size, int dRow, int dColumn) {
+        int[][] offsets = new int[size][];
+        for (int i = 0; i < size; i++)
+            offsets[i] = new int[]{i * dRow, i * dColumn};
+        return offsets;
+    }
+
+    /**
+     * @param type    a type of ship
+     * @param bearing a bearing
+     * @return the shape of ships of that type and bearing, or null if the type
+     * takes no such bearing
+     */
+    public static ShipShape of(ShipType type, Compass bearing) {
+        return SHAPES[type.ordinal()][bearing.ordinal()];
+    }
+
+    /**
+     * @param type a type of ship
+     * @return the shapes of the four bearings of the type, leaving out those
+     * covering the same cells as an earlier one (a barge has a single shape,
+     * a caravel two)
+     */
+    public static List<ShipShape> distinct(ShipType type) {
+        return DISTINCT.get(type.ordinal());
+    }
+
+    // -----------------------------------------------------
+
+    private final ShipType type;
+    private final Compass bearing;
+    private final int[] rows;
+    private final int[] columns;
+    private final int top;
+    private final int bottom;
+    private final int left;
+    private final int right;
+
+    private ShipShape(ShipType type, Compass bearing, int[][] offsets) {
+        this.type = type;
+        this.bearing = bearing;
+        this.rows = new int[offsets.length];
+        this.columns = new int[offsets.length];
+        int top = 0, bottom = 0, left = 0, right = 0;
+        for (int i = 0; i < offsets.length; i++) {
+            rows[i] = offsets[i][0];
+            columns[i] = offsets[i][1];
+            top = Math.min(top, rows[i]);
+            bottom = Math.max(bottom, rows[i]);
+            left = Math.min(left, columns[i]);
+            right = Math.max(right, columns[i]);
+        }
+        this.top = top;
+        this.bottom = bottom;
+        this.left = left;
+        this.right = right;
+    }
+
+    public ShipType getType() {
+        return type;
+    }
+
+    public Compass getBearing() {
+        return bearing;
+    }
+
+    /**
+     * @return the number of cells of the shape
+     */
+    public int size() {
+        return rows.length;
+    }
+
+    /**
+     * @param i the index of a cell of the shape
+     * @return the row of the cell, relative to the anchor
+     */
+    public int getRowOffset(int i) {
+        return rows[i];
+    }
+
+    /**
+     * @param i the index of a cell of the shape
+     * @return the column of the cell, relative to the anchor
+     */
+    public int getColumnOffset(int i) {
+        return columns[i];
+    }
+
+    /**
+     * @return the offset of the top-most row of the shape (zero or less)
+     */
+    public int getTop() {
+        return top;
+    }
+
+    /**
+     * @return the offset of the bottom-most row of the shape (zero or more)
+     */
+    public int getBottom() {
+        return bottom;
+    }
+
+    /**
+     * @return the offset of the left-most column of the shape (zero or less)
+     */
+    public int getLeft() {
+        return left;
+    }
+
+    /**
+     * @return the offset of the right-most column of the shape (zero or more)
+     */
+    public int getRight() {
+        return right;
+    }
+
+    /**
+     * @param spec   a board
+     * @param row    the row of the anchor
+     * @param column the column of the anchor
+     * @return true if the shape anchored there lies inside the board
+     */
+    public boolean fits(BoardSpec spec, int row, int column) {
+        return row + top >= 0 && column + left >= 0 && row + bottom < spec.getRows()
+                && column + right < spec.getColumns();
+    }
+
+    /**
+     * @param spec   a board
+     * @param row    the row of the anchor
+     * @param column the column of the anchor
+     * @return the board indexes ({@link BoardSpec#indexOf(int, int)}) of the
+     * cells of the shape anchored there, in shape order
+     * @throws IndexOutOfBoundsException if the shape does not fit there
+     */
+    public int[] cells(BoardSpec spec, int row, int column) {
+        if (!fits(spec, row, column))
+            throw new IndexOutOfBoundsException("ERROR! " + this + " does not fit at " + row + ", " + column);
+        int[] cells = new int[rows.length];
+        for (int i = 0; i < cells.length; i++)
+            cells[i] = spec.indexOf(row + rows[i], column + columns[i]);
+        return cells;
+    }
+
+    /**
+     * @param stride the width of a row-major grid
+     * @return true if the shape fits in 64 bits of such a grid, so that
+     * {@link #mask(int)} can be called
+     */
+    public boolean hasMask(int stride) {
+        return stride >= right - left + 1 && (bottom - top) * (long) stride + right - left < Long.SIZE;
+    }
+
+    /**
+     * The shape as a bit mask of a row-major grid of the given width, the
+     * top-left corner of its bounding box being bit 0. Shifting the mask left
+     * by the index of that corner in a board of that width gives the cells of
+     * the shape on the board.
+     *
+     * @param stride the width of the grid, at least the width of the shape
+     * @return the mask
+     * @throws IllegalArgumentException if the shape does not fit in 64 bits
+     *                                  of such a grid
+     */
+    public long mask(int stride) {
+        if (!hasMask(stride))
+            throw new IllegalArgumentException("ERROR! " + this + " does not fit a mask of width " + stride);
+        long mask = 0;
+        for (int i = 0; i < rows.length; i++)
+            mask |= 1L << ((rows[i] - top) * stride + columns[i] - left);
+        return mask;
+    }
+
+    @Override
+    public String toString() {
+        return type.getKind() + " " + bearing;
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.List;
+
+/**
+ * The kinds of ships that may be part of a fleet
+ */
+public enum ShipType {
+    GALLEON("galeao", "Galeao", 5),
+    FRIGATE("fragata", "Fragata", 4),
+    CARRACK("nau", "Nau", 3),
+    CARAVEL("caravela", "Caravela", 2),
+    BARGE("barca", "Barca", 1);
+
+    /**
+     * All the types, in declaration order, without the copy made by values()
+     */
+    static final List<ShipType> ALL = List.of(values());
+
+    private final String kind;
+    private final String category;
+    private final int size;
+
+    ShipType(String kind, String category, int size) {
+        this.kind = kind;
+        this.category = category;
+        this.size = size;
+    }
+
+    /**
+     * @return the word used for this kind of ship in the commands
+     */
+    public String getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the category reported by ships of this kind
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * @return the number of cells of ships of this kind
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @param bearing the bearing of the ship
+     * @param pos     the anchor position of the ship
+     * @return a new ship of this kind
+     */
+    public Ship build(Compass bearing, IPosition pos) {
+        switch (this) {
+            case GALLEON:
+                return new Galleon(bearing, pos);
+            case FRIGATE:
+                return new Frigate(bearing, pos);
+            case CARRACK:
+                return new Carrack(bearing, pos);
+            case CARAVEL:
+                return new Caravel(bearing, pos);
+            default:
+                return new Barge(bearing, pos);
+        }
+    }
+
+    /**
+     * @param ship a ship
+     * @return the type of the ship
+     * @throws IllegalArgumentException if the ship is not of one of the types
+     */
+    static ShipType of(IShip ship) throws IllegalArgumentException {
+        ShipType type = ship.getType();
+        if (type == null)
+            throw new IllegalArgumentException("ERROR! unknown ship " + ship);
+        return type;
+    }
+
+    /**
+     * @param kind the word used for a kind of ship in the commands
+     * @return the type of that kind, or null if there is none
+     */
+    static ShipType ofKind(String kind) {
+        for (ShipType type : ALL)
+            if (type.kind.equals(kind))
+                return type;
+        return null;
+    }
+
+    /**
+     * @param category the category reported by ships of some kind
+     * @return the type of that category, or null if there is none
+     */
+    static ShipType ofCategory(String category) {
+        for (ShipType type : ALL)
+            if (type.category.equals(category))
+                return type;
+        return null;
+    }
+}
@@ -0,0 +1,206 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Arrays;
+
+/**
+ * The outcome of a batch of simulated games: how many shots each game took to
+ * sink the whole fleet, kept as a histogram, and how long the batch took.
+ * <p>
+ * The histogram only grows as far as the longest game recorded, so a result
+ * for a large board costs little until games that long are played.
+ */
+public class SimulationResult {
+    private final int maxShots;
+    private long[] histogram = new long[0];
+    private long games;
+    private long unfinished;
+    private long elapsedNanos;
+
+    /**
+     * @param maxShots the largest number of shots a game may take
+     */
+    public SimulationResult(int maxShots) {
+        assert maxShots >= 0;
+
+        this.maxShots = maxShots;
+    }
+
+    /**
+     * Records a game won after the given number of shots
+     *
+     * @param shots the number of shots fired, at most the maximum
+     */
+    public void record(int shots) {
+        assert shots >= 0 && shots <= maxShots;
+
+        if (shots >= histogram.length)
+            grow(shots + 1);
+        histogram[shots]++;
+        games++;
+    }
+
+    private void grow(int length) {
+        histogram = Arrays.copyOf(histogram, Math.min(maxShots + 1, Math.max(length, 2 * histogram.length)));
+    }
+
+    /**
+     * Records a game given up after the maximum number of shots
+     */
+    public void recordUnfinished() {
+        unfinished++;
+    }
+
+    /**
+     * Adds the games of another result to this one
+     *
+     * @param other a result with the same maximum number of shots
+     * @return this result
+     */
+    public SimulationResult merge(SimulationResult other) {
+        assert other.maxShots == maxShots;
+
+        if (other.histogram.length > histogram.length)
+            grow(other.histogram.length);
+        for (int i = 0; i < other.histogram.length; i++)
+            histogram[i] += other.histogram[i];
+        games += other.games;
+        unfinished += other.unfinished;
+        return this;
+    }
+
+    /**
+     * @return the number of games won
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * @return the number of games given up before the fleet was sunk
+     */
+    public long getUnfinished() {
+        return unfinished;
+    }
+
+    /**
+     * @return the largest number of shots a game may take
+     */
+    public int getMaxShots() {
+        return maxShots;
+    }
+
+    /**
+     * @return a copy of the histogram, one element more than the maximum
+     * number of shots: element i is the number of games won after exactly i
+     * shots
+     */
+    public long[] getHistogram() {
+        return Arrays.copyOf(histogram, maxShots + 1);
+    }
+
+    /**
+     * @return the fewest shots needed to win a game, or -1 if none was won
+     */
+    public int getMin() {
+        for (int i = 0; i < histogram.length; i++)
+            if (histogram[i] > 0)
+                return i;
+        return -1;
+    }
+
+    /**
+     * @return the most shots needed to win a game, or -1 if none was won
+     */
+    public int getMax() {
+        for (int i = histogram.length - 1; i >= 0; i--)
+            if (histogram[i] > 0)
+                return i;
+        return -1;
+    }
+
+    /**
+     * @return the average number of shots needed to win a game
+     */
+    public double getMean() {
+        double sum = 0;
+        for (int i = 0; i < histogram.length; i++)
+            sum += (double) i * histogram[i];
+        return games == 0 ? Double.NaN : sum / games;
+    }
+
+    /**
+     * @return the sample variance of the number of shots needed to win a
+     * game, NaN if fewer than two games were won
+     */
+    public double getVariance() {
+        if (games < 2)
+            return Double.NaN;
+        double mean = getMean();
+        double sum = 0;
+        for (int i = 0; i < histogram.length; i++)
+            sum += (i - mean) * (i - mean) * histogram[i];
+        return sum / (games - 1);
+    }
+
+    /**
+     * @param fraction a fraction between 0 and 1
+     * @return the smallest number of shots that wins at least the given
+     * fraction of the games, or -1 if none was won
+     */
+    public int getPercentile(double fraction) {
+        assert fraction >= 0 && fraction <= 1;
+
+        long target = Math.max(1, (long) Math.ceil(fraction * games));
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= target)
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the wall-clock time of the batch in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return the number of games played per second of wall-clock time
+     */
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? Double.NaN : (games + unfinished) * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        if (!(other instanceof SimulationResult))
+            return false;
+        SimulationResult result = (SimulationResult) other;
+        return maxShots == result.maxShots && games == result.games && unfinished == result.unfinished
+                && Arrays.equals(histogram, 0, getMax() + 1, result.histogram, 0, result.getMax() + 1);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(Arrays.copyOf(histogram, getMax() + 1)) * 31 + Long.hashCode(unfinished);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d games (%d unfinished), %.0f games/s, shots to win: min %d, p50 %d, mean %.2f, sd %.2f, p99 %d, max %d",
+                games + unfinished, unfinished, getGamesPerSecond(), getMin(), getPercentile(0.5), getMean(),
+                Math.sqrt(getVariance()), getPercentile(0.99), getMax());
+    }
+}
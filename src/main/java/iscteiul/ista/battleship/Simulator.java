@@ -0,0 +1,167 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Plays many independent games in parallel, each with a fleet from an
+ * {@link IPlacer} fired at by an {@link IShooter}, and collects how many
+ * shots each game took.
+ * <p>
+ * The games are split into a fixed tree of ranges and every range gets its
+ * own {@link SplittableRandom}, split from its parent's in the same order
+ * every time. The tree only depends on the number of games, so the results
+ * for a seed are the same whatever the number of threads.
+ */
+public class Simulator {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * Ranges of at most this many games are played by a single task
+     */
+    static final int LEAF_GAMES = 64;
+
+    private final BoardSpec spec;
+    private final IPlacer placer;
+    private final IShooter.Factory shooters;
+    private final int maxShots;
+
+    /**
+     * @param spec     the board and the fleet composition
+     * @param placer   places the fleet of each game
+     * @param shooters builds the shooter of each game
+     */
+    public Simulator(BoardSpec spec, IPlacer placer, IShooter.Factory shooters) {
+        this.spec = spec;
+        this.placer = placer;
+        this.shooters = shooters;
+        // a shooter that never repeats a cell finishes within one shot per cell
+        this.maxShots = spec.getCells() * 2;
+    }
+
+    /**
+     * A standard board, random fleets and a random shooter
+     */
+    public Simulator() {
+        this(BoardSpec.STANDARD, new RandomPlacer(), RandomShooter::new);
+    }
+
+    /**
+     * Plays the games on the common pool
+     *
+     * @param games the number of games
+     * @param seed  the seed of the random sources
+     * @return the results
+     */
+    public SimulationResult run(long games, long seed) {
+        return run(games, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Plays the games on a new pool with the given number of threads
+     *
+     * @param games   the number of games
+     * @param seed    the seed of the random sources
+     * @param threads the number of worker threads
+     * @return the results
+     */
+    public SimulationResult run(long games, long seed, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return run(games, seed, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * @param games the number of games
+     * @param seed  the seed of the random sources
+     * @param pool  the pool that plays the games
+     * @return the results
+     */
+    public SimulationResult run(long games, long seed, ForkJoinPool pool) {
+        assert games >= 0;
+
+        long start = System.nanoTime();
+        SimulationResult result = pool.invoke(new Batch(games, new SplittableRandom(seed)));
+        result.setElapsedNanos(System.nanoTime() - start);
+        LOGGER.debug("Simulation of seed {}: {}", seed, result);
+        return result;
+    }
+
+    /**
+     * @param games  the number of games
+     * @param random the random source of the games, used by the task alone
+     * @return a task playing the games when invoked or forked in a pool
+     */
+    ForkJoinTask<SimulationResult> task(long games, SplittableRandom random) {
+        assert games >= 0;
+
+        return new Batch(games, random);
+    }
+
+    /**
+     * Plays a single game
+     *
+     * @param random the random source of the placer and the shooter
+     * @return the number of shots that sank the fleet, or -1 if the game was
+     * given up
+     */
+    int play(SplittableRandom random) {
+        IGame game = new Game(placer.place(spec, random));
+        IShooter shooter = shooters.create(spec, random);
+        int shots = 0;
+        while (game.getRemainingShips() > 0) {
+            if (shots == maxShots)
+                return -1;
+            int cell = shooter.nextShot();
+            int hits = game.getHits();
+            IShip sunk = game.fire(cell);
+            shots++;
+            shooter.shotResult(cell, game.getHits() > hits, sunk);
+        }
+        return shots;
+    }
+
+    private class Batch extends RecursiveTask<SimulationResult> {
+        private static final long serialVersionUID = 1L;
+
+        private final long games;
+        private final SplittableRandom random;
+
+        Batch(long games, SplittableRandom random) {
+            this.games = games;
+            this.random = random;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (games <= LEAF_GAMES) {
+                SimulationResult result = new SimulationResult(maxShots);
+                for (long i = 0; i < games; i++) {
+                    int shots = play(random);
+                    if (shots < 0)
+                        result.recordUnfinished();
+                    else
+                        result.record(shots);
+                }
+                return result;
+            }
+
+            long half = games / 2;
+            Batch right = new Batch(games - half, random.split());
+            Batch left = new Batch(half, random);
+            right.fork();
+            return left.compute().merge(right.join());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Arrays;
+
+/**
+ * The states of one cell of a layered count over a board (see
+ * {@link PlacementCounter} and {@link FleetGenerator}) and the number of
+ * partial boards reaching each, in open addressing; a slot is free while its
+ * count is 0
+ */
+final class StateLayer {
+    long[] keys = new long[1 << 10];
+    long[] values = new long[1 << 10];
+    int size;
+
+    /**
+     * @throws ArithmeticException if the count of the state overflows a long
+     */
+    void add(long key, long ways) throws ArithmeticException {
+        if (2 * (size + 1) > keys.length)
+            grow();
+        int mask = keys.length - 1;
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (hash ^ hash >>> 32) & mask;
+        while (values[slot] != 0 && keys[slot] != key)
+            slot = (slot + 1) & mask;
+        if (values[slot] == 0) {
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = Math.addExact(values[slot], ways);
+    }
+
+    void clear() {
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    /**
+     * @return the states, in ascending order
+     */
+    long[] sortedKeys() {
+        long[] sorted = new long[size];
+        int n = 0;
+        for (int s = 0; s < keys.length; s++)
+            if (values[s] != 0)
+                sorted[n++] = keys[s];
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new long[oldValues.length * 2];
+        size = 0;
+        for (int s = 0; s < oldKeys.length; s++)
+            if (oldValues[s] != 0)
+                add(oldKeys[s], oldValues[s]);
+    }
+}
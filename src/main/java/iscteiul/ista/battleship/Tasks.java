@@ -3,29 +3,14 @@
  */
 package iscteiul.ista.battleship;
 
-import java.util.Scanner;
-
-
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import static iscteiul.ista.battleship.Protocol.*;
+
 public class Tasks {
     private static final Logger LOGGER = LogManager.getLogger();
 
-    private static final int NUMBER_SHOTS = 3;
-
-    private static final String GOODBYE_MESSAGE = "Bons ventos!";
-
-    /**
-     * Strings to be used by the user
-     */
-    private static final String NOVAFROTA = "nova";
-    private static final String DESISTIR = "desisto";
-    private static final String RAJADA = "rajada";
-    private static final String VERTIROS = "ver";
-    private static final String BATOTA = "mapa";
-    private static final String STATUS = "estado";
-
 
     /////////////////////////////////////////////////////////////////////////////
     // hereafter one may find some code that can be converted to automatic tests,
@@ -39,12 +24,18 @@ public class Tasks {
      * indicates whether the ship occupies each one of such positions or not
      */
     public static void taskA() {
-        Scanner in = new Scanner(System.in);
+        taskA(new CommandTokenizer(System.in));
+    }
+
+    /**
+     * @param in the commands of the task
+     */
+    public static void taskA(CommandTokenizer in) {
         while (in.hasNext()) {
             Ship s = readShip(in);
             if (s != null)
                 for (int i = 0; i < NUMBER_SHOTS; i++) {
-                    Position p = readPosition(in);
+                    IPosition p = readCoordinates(in);
                     LOGGER.info("{} {}", p, s.occupies(p));
                 }
         }
@@ -54,11 +45,17 @@ public class Tasks {
      * This task tests the building up of fleets
      */
     public static void taskB() {
-        Scanner in = new Scanner(System.in);
+        taskB(new CommandTokenizer(System.in));
+    }
+
+    /**
+     * @param in the commands of the task
+     */
+    public static void taskB(CommandTokenizer in) {
         IFleet fleet = null;
-        String command = in.next();
-        while (!command.equals(DESISTIR)) {
-            switch (command) {
+        String command = in.nextWord(COMMANDS);
+        while (!DESISTIR.equals(command)) {
+            switch (command == null ? "" : command) {
                 case NOVAFROTA:
                     fleet = buildFleet(in);
                     break;
@@ -67,12 +64,12 @@ public class Tasks {
                         fleet.printStatus();
                     break;
                 default:
-                    LOGGER.info("Que comando é esse??? Repete lá ...");
+                    LOGGER.info(UNKNOWN_COMMAND_LA);
             }
             // The other commands are unknown in this task
-            command = in.next();
+            command = in.nextWord(COMMANDS);
         }
-        LOGGER.info(GOODBYE_MESSAGE);
+        LOGGER.info(GOODBYE);
     }
 
     /**
@@ -80,11 +77,17 @@ public class Tasks {
      * possibility of cheating
      */
     public static void taskC() {
-        Scanner in = new Scanner(System.in);
+        taskC(new CommandTokenizer(System.in));
+    }
+
+    /**
+     * @param in the commands of the task
+     */
+    public static void taskC(CommandTokenizer in) {
         IFleet fleet = null;
-        String command = in.next();
-        while (!command.equals(DESISTIR)) {
-            switch (command) {
+        String command = in.nextWord(COMMANDS);
+        while (!DESISTIR.equals(command)) {
+            switch (command == null ? "" : command) {
                 case NOVAFROTA:
                     fleet = buildFleet(in);
                     break;
@@ -96,25 +99,30 @@ public class Tasks {
                     LOGGER.info(fleet);
                     break;
                 default:
-                    LOGGER.info("Que comando é esse??? Repete lá ...");
+                    LOGGER.info(UNKNOWN_COMMAND_LA);
             }
             // The other commands are unknown in this task
-            command = in.next();
+            command = in.nextWord(COMMANDS);
         }
-        LOGGER.info(GOODBYE_MESSAGE);
+        LOGGER.info(GOODBYE);
     }
 
     /**
      * This task also tests the fighting element of a round of three shots
      */
     public static void taskD() {
+        taskD(new CommandTokenizer(System.in));
+    }
 
-        Scanner in = new Scanner(System.in);
+    /**
+     * @param in the commands of the task
+     */
+    public static void taskD(CommandTokenizer in) {
         IFleet fleet = null;
         IGame game = null;
-        String command = in.next();
-        while (!command.equals(DESISTIR)) {
-            switch (command) {
+        String command = in.nextWord(COMMANDS);
+        while (!DESISTIR.equals(command)) {
+            switch (command == null ? "" : command) {
                 case NOVAFROTA:
                     fleet = buildFleet(in);
                     game = new Game(fleet);
@@ -131,10 +139,9 @@ public class Tasks {
                     if (game != null) {
                         firingRound(in, game);
 
-                        LOGGER.info("Hits: {} Inv: {} Rep: {} Restam {} navios.", game.getHits(), game.getInvalidShots(),
-                                game.getRepeatedShots(), game.getRemainingShips());
+                        LOGGER.info(Protocol.counters(game));
                         if (game.getRemainingShips() == 0)
-                            LOGGER.info("Maldito sejas, Java Sparrow, eu voltarei, glub glub glub...");
+                            LOGGER.info(DEFEAT);
                     }
                     break;
                 case VERTIROS:
@@ -142,67 +149,80 @@ public class Tasks {
                         game.printValidShots();
                     break;
                 default:
-                    LOGGER.info("Que comando é esse??? Repete ...");
+                    LOGGER.info(UNKNOWN_COMMAND);
             }
-            command = in.next();
+            command = in.nextWord(COMMANDS);
         }
-        LOGGER.info(GOODBYE_MESSAGE);
+        LOGGER.info(GOODBYE);
     }
 
     /**
      * This operation allows the build up of a fleet, given user data
      *
-     * @param in The scanner to read from
+     * @param in The tokenizer to read from
      * @return The fleet that has been built
      */
-    static Fleet buildFleet(Scanner in) {
+    static Fleet buildFleet(CommandTokenizer in) {
         assert in != null;
 
         Fleet fleet = new Fleet();
         int i = 0; // i represents the total of successfully created ships
 
-        while (i <= Fleet.FLEET_SIZE) {
+        while (i < fleet.getBoardSpec().getFleetSize()) {
             IShip s = readShip(in);
             if (s != null) {
                 boolean success = fleet.addShip(s);
                 if (success)
                     i++;
                 else
-                    LOGGER.info("Falha na criacao de {} {} {}", s.getCategory(), s.getBearing(), s.getPosition());
+                    LOGGER.info(Protocol.shipRejected(s));
             } else {
-                LOGGER.info("Navio desconhecido!");
+                LOGGER.info(UNKNOWN_SHIP);
             }
         }
-        LOGGER.info("{} navios adicionados com sucesso!", i);
+        LOGGER.info(Protocol.fleetBuilt(i));
         return fleet;
     }
 
     /**
      * This operation reads data about a ship, build it and returns it
      *
-     * @param in The scanner to read from
-     * @return The created ship based on the data that has been read
+     * @param in The tokenizer to read from
+     * @return The created ship based on the data that has been read, or null if
+     * the kind is unknown or the ship cannot take the bearing
      */
-    static Ship readShip(Scanner in) {
-        String shipKind = in.next();
-        Position pos = readPosition(in);
-        char c = in.next().charAt(0);
-        Compass bearing = Compass.charToCompass(c);
-        return Ship.buildShip(shipKind, bearing, pos);
+    static Ship readShip(CommandTokenizer in) {
+        ShipType type = in.nextShipType();
+        IPosition pos = readPosition(in);
+        Compass bearing = in.nextBearing();
+        return type == null || ShipShape.of(type, bearing) == null ? null : type.build(bearing, pos);
     }
 
     /**
      * This operation allows reading a position in the map
      *
-     * @param in The scanner to read from
+     * @param in The tokenizer to read from
      * @return The position that has been read
      */
-    static Position readPosition(Scanner in) {
+    static Position readPosition(CommandTokenizer in) {
         int row = in.nextInt();
         int column = in.nextInt();
         return new Position(row, column);
     }
 
+    /**
+     * This operation allows reading a position only used to query the board,
+     * such as a shot, so it is read as immutable coordinates
+     *
+     * @param in The tokenizer to read from
+     * @return The coordinates that have been read
+     */
+    static Coordinates readCoordinates(CommandTokenizer in) {
+        int row = in.nextInt();
+        int column = in.nextInt();
+        return Coordinates.of(row, column);
+    }
+
     /**
      * This operation allows firing a round of shots (three) over a fleet, in the
      * context of a game
@@ -210,12 +230,12 @@ public class Tasks {
      * @param in   The scanner to read from
      * @param game The context game while fleet is being attacked
      */
-    static void firingRound(Scanner in, IGame game) {
+    static void firingRound(CommandTokenizer in, IGame game) {
         for (int i = 0; i < NUMBER_SHOTS; i++) {
-            IPosition pos = readPosition(in);
+            IPosition pos = readCoordinates(in);
             IShip sh = game.fire(pos);
             if (sh != null)
-                LOGGER.info("Mas... mas... {}s nao sao a prova de bala? :-(", sh.getCategory());
+                LOGGER.info(Protocol.sunk(sh));
         }
 
     }
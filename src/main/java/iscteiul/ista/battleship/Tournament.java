@@ -0,0 +1,266 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Plays every shooter against every placer, the same number of games for each
+ * pairing, and ranks the pairings by the shots their games took.
+ * <p>
+ * Each pairing is a {@link Simulator} batch, and all the batches are forked
+ * into one pool, so idle threads steal games from any pairing still running.
+ * A pairing only keeps the histogram of its {@link SimulationResult}, so the
+ * memory taken does not grow with the number of games. Pairings are reported
+ * to a listener as they finish.
+ * <p>
+ * Pairing i gets the i-th random source split from the seed, in the order
+ * shooters and placers were added, so the results for a seed are the same
+ * whatever the number of threads.
+ */
+public class Tournament {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * Fewest unfinished games first, then fewest shots on average, then the
+     * least spread
+     */
+    private static final Comparator<Pairing> RANKING = Comparator
+            .comparingLong((Pairing p) -> p.getResult().getUnfinished())
+            .thenComparingDouble(p -> p.getResult().getMean())
+            .thenComparingDouble(p -> p.getResult().getVariance());
+
+    private final BoardSpec spec;
+    private final Map<String, IShooter.Factory> shooters = new LinkedHashMap<>();
+    private final Map<String, IPlacer> placers = new LinkedHashMap<>();
+
+    /**
+     * @param spec the board and the fleet composition of every game
+     */
+    public Tournament(BoardSpec spec) {
+        this.spec = spec;
+    }
+
+    public Tournament() {
+        this(BoardSpec.STANDARD);
+    }
+
+    /**
+     * @param name     the name of the shooter in the rankings
+     * @param shooters builds the shooter of each game
+     * @return this tournament
+     * @throws IllegalArgumentException if the name is taken
+     */
+    public Tournament addShooter(String name, IShooter.Factory shooters) throws IllegalArgumentException {
+        if (this.shooters.putIfAbsent(name, shooters) != null)
+            throw new IllegalArgumentException("ERROR! shooter already added: " + name);
+        return this;
+    }
+
+    /**
+     * @param name   the name of the placer in the rankings
+     * @param placer places the fleet of each game
+     * @return this tournament
+     * @throws IllegalArgumentException if the name is taken
+     */
+    public Tournament addPlacer(String name, IPlacer placer) throws IllegalArgumentException {
+        if (placers.putIfAbsent(name, placer) != null)
+            throw new IllegalArgumentException("ERROR! placer already added: " + name);
+        return this;
+    }
+
+    /**
+     * Plays the tournament on the common pool
+     *
+     * @param games the number of games of each pairing
+     * @param seed  the seed of the random sources
+     * @return the pairings, ranked
+     */
+    public List<Pairing> run(long games, long seed) {
+        return run(games, seed, ForkJoinPool.commonPool(), pairing -> {
+        });
+    }
+
+    /**
+     * Plays the tournament on a new pool with the given number of threads
+     *
+     * @param games   the number of games of each pairing
+     * @param seed    the seed of the random sources
+     * @param threads the number of worker threads
+     * @return the pairings, ranked
+     */
+    public List<Pairing> run(long games, long seed, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return run(games, seed, pool, pairing -> {
+            });
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * @param games    the number of games of each pairing
+     * @param seed     the seed of the random sources
+     * @param pool     the pool that plays the games
+     * @param listener told of each pairing as soon as its games are over,
+     *                 one pairing at a time
+     * @return the pairings, ranked
+     */
+    public List<Pairing> run(long games, long seed, ForkJoinPool pool, Consumer<Pairing> listener) {
+        assert games >= 0;
+
+        long start = System.nanoTime();
+        List<Pairing> pairings = pool.invoke(new Round(games, new SplittableRandom(seed), listener));
+        pairings.sort(RANKING);
+        LOGGER.debug("Tournament of seed {}: {} pairings of {} games in {} ms", seed, pairings.size(), games,
+                (System.nanoTime() - start) / 1_000_000);
+        return pairings;
+    }
+
+    /**
+     * Adds up the games of each shooter against every placer
+     *
+     * @param pairings the pairings of a tournament
+     * @return one pairing per shooter, with no placer, ranked
+     */
+    public static List<Pairing> byShooter(List<Pairing> pairings) {
+        Map<String, Pairing> shooters = new LinkedHashMap<>();
+        for (Pairing p : pairings) {
+            Pairing total = shooters.get(p.getShooter());
+            if (total == null) {
+                SimulationResult result = new SimulationResult(p.getResult().getMaxShots());
+                total = new Pairing(p.getShooter(), null, result);
+                shooters.put(p.getShooter(), total);
+            }
+            total.getResult().merge(p.getResult());
+        }
+        List<Pairing> ranked = new ArrayList<>(shooters.values());
+        ranked.sort(RANKING);
+        return ranked;
+    }
+
+    /**
+     * @param pairings ranked pairings
+     * @return a table of the pairings, one line each in their order
+     */
+    public static String table(List<Pairing> pairings) {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%4s  %-20s %-20s %10s %8s %8s %8s %5s %5s%n", "rank", "shooter", "placer",
+                "games", "unfin.", "mean", "var", "p50", "p99"));
+        for (int i = 0; i < pairings.size(); i++) {
+            Pairing p = pairings.get(i);
+            SimulationResult r = p.getResult();
+            table.append(String.format("%4d  %-20s %-20s %10d %8d %8.2f %8.2f %5d %5d%n", i + 1, p.getShooter(),
+                    p.getPlacer() == null ? "*" : p.getPlacer(), r.getGames() + r.getUnfinished(),
+                    r.getUnfinished(), r.getMean(), r.getVariance(), r.getPercentile(0.5), r.getPercentile(0.99)));
+        }
+        return table.toString();
+    }
+
+    /**
+     * The games of a shooter against a placer
+     */
+    public static final class Pairing {
+        private final String shooter;
+        private final String placer;
+        private final SimulationResult result;
+
+        private Pairing(String shooter, String placer, SimulationResult result) {
+            this.shooter = shooter;
+            this.placer = placer;
+            this.result = result;
+        }
+
+        public String getShooter() {
+            return shooter;
+        }
+
+        /**
+         * @return the name of the placer, or null for the games of the
+         * shooter against every placer
+         */
+        public String getPlacer() {
+            return placer;
+        }
+
+        public SimulationResult getResult() {
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return shooter + " vs " + (placer == null ? "*" : placer) + ": " + result;
+        }
+    }
+
+    /**
+     * Forks a match per pairing and waits for them all
+     */
+    private class Round extends RecursiveTask<List<Pairing>> {
+        private static final long serialVersionUID = 1L;
+
+        private final long games;
+        private final SplittableRandom random;
+        private final Consumer<Pairing> listener;
+
+        Round(long games, SplittableRandom random, Consumer<Pairing> listener) {
+            this.games = games;
+            this.random = random;
+            this.listener = listener;
+        }
+
+        @Override
+        protected List<Pairing> compute() {
+            List<Match> matches = new ArrayList<>();
+            for (Map.Entry<String, IShooter.Factory> shooter : shooters.entrySet())
+                for (Map.Entry<String, IPlacer> placer : placers.entrySet())
+                    matches.add(new Match(shooter.getKey(), placer.getKey(),
+                            new Simulator(spec, placer.getValue(), shooter.getValue()), random.split()));
+            ForkJoinTask.invokeAll(matches);
+
+            List<Pairing> pairings = new ArrayList<>(matches.size());
+            for (Match match : matches)
+                pairings.add(match.join());
+            return pairings;
+        }
+
+        private class Match extends RecursiveTask<Pairing> {
+            private static final long serialVersionUID = 1L;
+
+            private final String shooter;
+            private final String placer;
+            private final Simulator simulator;
+            private final SplittableRandom random;
+
+            Match(String shooter, String placer, Simulator simulator, SplittableRandom random) {
+                this.shooter = shooter;
+                this.placer = placer;
+                this.simulator = simulator;
+                this.random = random;
+            }
+
+            @Override
+            protected Pairing compute() {
+                Pairing pairing = new Pairing(shooter, placer, simulator.task(games, random).invoke());
+                synchronized (listener) {
+                    listener.accept(pairing);
+                }
+                return pairing;
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package iscteiul.ista.battleship;
+
+import java.util.List;
+
+/**
+ * Fleets shared by the JMH benchmarks
+ */
+final class BenchmarkFleets {
+    static final String FLEET = "Fleet";
+    static final String BITBOARD = "BitboardFleet";
+
+    private BenchmarkFleets() {
+    }
+
+    /**
+     * @param type {@link #FLEET} or {@link #BITBOARD}
+     * @return a new empty fleet of the given implementation on the standard board
+     */
+    static Fleet newFleet(String type) {
+        switch (type) {
+            case FLEET:
+                return new Fleet();
+            case BITBOARD:
+                return new BitboardFleet();
+            default:
+                throw new IllegalArgumentException("ERROR! unknown fleet " + type);
+        }
+    }
+
+    /**
+     * @return new ships (none of them hit) forming a legal standard fleet
+     */
+    static List<IShip> standardShips() {
+        return List.of(
+                new Galleon(Compass.NORTH, new Position(0, 0)),
+                new Frigate(Compass.EAST, new Position(9, 6)),
+                new Carrack(Compass.SOUTH, new Position(4, 9)),
+                new Carrack(Compass.EAST, new Position(0, 5)),
+                new Caravel(Compass.WEST, new Position(5, 2)),
+                new Caravel(Compass.NORTH, new Position(7, 0)),
+                new Caravel(Compass.EAST, new Position(2, 8)),
+                new Barge(Compass.NORTH, new Position(3, 4)),
+                new Barge(Compass.NORTH, new Position(7, 4)),
+                new Barge(Compass.NORTH, new Position(9, 2)),
+                new Barge(Compass.NORTH, new Position(7, 7)));
+    }
+
+    /**
+     * @param type {@link #FLEET} or {@link #BITBOARD}
+     * @return a complete standard fleet of the given implementation
+     */
+    static Fleet standardFleet(String type) {
+        Fleet fleet = newFleet(type);
+        for (IShip s : standardShips())
+            if (!fleet.addShip(s))
+                throw new IllegalStateException("ERROR! benchmark fleet rejected " + s);
+        return fleet;
+    }
+}
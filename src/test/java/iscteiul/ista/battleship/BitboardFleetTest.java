@@ -0,0 +1,112 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("BitboardFleet Class – Test Suite")
+public class BitboardFleetTest {
+
+    private BitboardFleet bitboard;
+    private Fleet reference;
+
+    @BeforeEach
+    @DisplayName("Build the same fleet with both implementations")
+    void setup() {
+        bitboard = new BitboardFleet();
+        reference = new Fleet();
+        IShip[] ships = {
+                new Galleon(Compass.NORTH, new Position(0, 0)),
+                new Frigate(Compass.EAST, new Position(9, 6)),
+                new Carrack(Compass.SOUTH, new Position(4, 9)),
+                new Caravel(Compass.WEST, new Position(5, 2)),
+                new Barge(Compass.NORTH, new Position(7, 0))
+        };
+        for (IShip s : ships) {
+            bitboard.addShip(s);
+            reference.addShip(s);
+        }
+    }
+
+    @AfterEach
+    @DisplayName("Cleanup after each test")
+    void teardown() {
+        bitboard = null;
+        reference = null;
+    }
+
+    @Test
+    @DisplayName("shipAt agrees with Fleet on every cell of the board")
+    void testShipAtMatchesFleet() {
+        for (int r = 0; r < Fleet.BOARD_SIZE; r++)
+            for (int c = 0; c < Fleet.BOARD_SIZE; c++) {
+                Position p = new Position(r, c);
+                assertSame(reference.shipAt(p), bitboard.shipAt(p), p.toString());
+                assertSame(reference.shipAt(p), bitboard.shipAt(p.getCell()), p.toString());
+            }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"-1,0", "0,-1", "10,0", "0,10", "10,10"})
+    @DisplayName("shipAt returns null outside the board")
+    void testShipAtOutside(int row, int col) {
+        assertNull(bitboard.shipAt(new Position(row, col)));
+        assertNull(bitboard.shipAt(IPosition.toCell(row, col)));
+        assertFalse(bitboard.isOccupied(row, col));
+    }
+
+    @Test
+    @DisplayName("Rejected ships are not indexed")
+    void testRejectedShipNotIndexed() {
+        IShip tooClose = new Barge(Compass.NORTH, new Position(1, 0));
+        assertFalse(bitboard.addShip(tooClose));
+        assertNull(bitboard.shipAt(new Position(1, 0)));
+        assertEquals(5, bitboard.getShips().size());
+    }
+
+    @Test
+    @DisplayName("Occupancy mask covers exactly the ship cells")
+    void testOccupancy() {
+        int cells = 0;
+        for (int r = 0; r < Fleet.BOARD_SIZE; r++)
+            for (int c = 0; c < Fleet.BOARD_SIZE; c++) {
+                boolean occupied = reference.shipAt(new Position(r, c)) != null;
+                assertEquals(occupied, bitboard.isOccupied(r, c));
+                if (occupied)
+                    cells++;
+            }
+        assertEquals(5 + 4 + 3 + 2 + 1, cells);
+        assertEquals(cells, bitboard.getOccupiedCells());
+    }
+
+    @Test
+    @DisplayName("Large rectangular boards are indexed")
+    void testLargeBoard() {
+        BitboardFleet large = new BitboardFleet(new BoardSpec(4096, 4096));
+        IShip corner = new Frigate(Compass.NORTH, new Position(4092, 4095));
+        assertTrue(large.addShip(corner));
+        assertAll(
+                () -> assertSame(corner, large.shipAt(IPosition.toCell(4095, 4095))),
+                () -> assertSame(corner, large.shipAt(new Position(4092, 4095))),
+                () -> assertNull(large.shipAt(IPosition.toCell(4091, 4095))),
+                () -> assertNull(large.shipAt(IPosition.toCell(4096, 4095))),
+                () -> assertEquals(4, large.getOccupiedCells())
+        );
+    }
+
+    @Test
+    @DisplayName("Game behaves the same on top of a BitboardFleet")
+    void testGameOnBitboard() {
+        Game game = new Game(bitboard);
+        for (int c = 0; c < 3; c++)
+            game.fire(new Position(0, c));
+        game.fire(new Position(1, 1));
+        assertNotNull(game.fire(new Position(2, 1)));
+        assertEquals(5, game.getHits());
+        assertEquals(1, game.getSunkShips());
+        assertEquals(4, game.getRemainingShips());
+    }
+}
@@ -0,0 +1,120 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("BoardRenderer Class – Test Suite")
+public class BoardRendererTest {
+    private static final BoardSpec SMALL = new BoardSpec(3, 4);
+
+    private static final String FLEET_BOARD = ""
+            + "###..###..\n"
+            + ".#........\n"
+            + ".#......##\n"
+            + "....#.....\n"
+            + ".........#\n"
+            + "..##.....#\n"
+            + ".........#\n"
+            + "#...#..#..\n"
+            + "#.........\n"
+            + "..#...####\n";
+
+    @Test
+    @DisplayName("Marks the given positions on an empty board")
+    void testBoard() {
+        StringBuilder out = new StringBuilder("> ");
+        BoardRenderer.appendBoard(SMALL, List.of(new Position(0, 0), new Position(2, 3), new Position(1, 2)), 'X', out);
+        assertEquals("> X...\n..X.\n...X\n", out.toString());
+        assertEquals(12 + 3, BoardRenderer.length(SMALL));
+    }
+
+    @Test
+    @DisplayName("Packed cell lists are drawn like any other list")
+    void testCellList() {
+        CellList cells = new CellList();
+        cells.addCell(IPosition.toCell(1, 1));
+        cells.addCell(IPosition.toCell(2, 0));
+        StringBuilder packed = new StringBuilder();
+        StringBuilder plain = new StringBuilder();
+        BoardRenderer.appendBoard(SMALL, cells, '*', packed);
+        BoardRenderer.appendBoard(SMALL, List.copyOf(cells), '*', plain);
+        assertEquals("....\n.*..\n*...\n", packed.toString());
+        assertEquals(plain.toString(), packed.toString());
+    }
+
+    @Test
+    @DisplayName("Draws the cells of the ships of a fleet")
+    void testFleet() throws IOException {
+        IFleet fleet = BenchmarkFleets.standardFleet(BenchmarkFleets.BITBOARD);
+        StringBuilder out = new StringBuilder();
+        BoardRenderer.appendFleet(fleet, out);
+        StringWriter writer = new StringWriter();
+        BoardRenderer.appendFleet(fleet, writer);
+        assertEquals(FLEET_BOARD, out.toString());
+        assertEquals(FLEET_BOARD, writer.toString());
+    }
+
+    @Test
+    @DisplayName("Any appendable receives the board in a single append")
+    void testAppendable() throws IOException {
+        StringBuilder calls = new StringBuilder();
+        Appendable counting = new Appendable() {
+            @Override
+            public Appendable append(CharSequence csq) {
+                calls.append(csq).append('|');
+                return this;
+            }
+
+            @Override
+            public Appendable append(CharSequence csq, int start, int end) {
+                return append(csq.subSequence(start, end));
+            }
+
+            @Override
+            public Appendable append(char c) {
+                return append(String.valueOf(c));
+            }
+        };
+        BoardRenderer.appendBoard(SMALL, List.of(new Position(1, 3)), 'o', counting);
+        assertEquals("....\n...o\n....\n|", calls.toString());
+    }
+
+    @Test
+    @DisplayName("Positions outside the board are refused")
+    void testOutside() {
+        StringBuilder out = new StringBuilder();
+        assertAll(
+                () -> assertThrows(IndexOutOfBoundsException.class,
+                        () -> BoardRenderer.appendBoard(SMALL, List.of(new Position(0, 4)), 'X', out)),
+                () -> assertThrows(IndexOutOfBoundsException.class,
+                        () -> BoardRenderer.appendBoard(SMALL, List.of(new Position(-1, 0)), 'X', out))
+        );
+    }
+
+    @Test
+    @DisplayName("Games print the same drawings")
+    void testGamePrints() {
+        PrintStream stdout = System.out;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(bytes, true));
+        try {
+            Game game = new Game(BenchmarkFleets.standardFleet(BenchmarkFleets.FLEET));
+            game.fire(IPosition.toCell(0, 9));
+            game.printFleet();
+            game.printValidShots();
+            game.printFleet();
+        } finally {
+            System.setOut(stdout);
+        }
+        String shots = ".........X\n" + "..........\n".repeat(9);
+        assertEquals(FLEET_BOARD + shots + FLEET_BOARD, bytes.toString().replace("\r\n", "\n"));
+    }
+}
@@ -0,0 +1,104 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("BoardSpec Class – Test Suite")
+public class BoardSpecTest {
+
+    @Nested
+    @DisplayName("Standard Board Tests")
+    class StandardTests {
+
+        @Test
+        @DisplayName("Standard board is 10x10")
+        void testStandardDimensions() {
+            assertAll(
+                    () -> assertEquals(IFleet.BOARD_SIZE, BoardSpec.STANDARD.getRows()),
+                    () -> assertEquals(IFleet.BOARD_SIZE, BoardSpec.STANDARD.getColumns()),
+                    () -> assertEquals(100, BoardSpec.STANDARD.getCells())
+            );
+        }
+
+        @Test
+        @DisplayName("Standard fleet has eleven ships")
+        void testStandardComposition() {
+            assertAll(
+                    () -> assertEquals(IFleet.FLEET_SIZE + 1, BoardSpec.STANDARD.getFleetSize()),
+                    () -> assertEquals(1, BoardSpec.STANDARD.count(ShipType.GALLEON)),
+                    () -> assertEquals(1, BoardSpec.STANDARD.count(ShipType.FRIGATE)),
+                    () -> assertEquals(2, BoardSpec.STANDARD.count(ShipType.CARRACK)),
+                    () -> assertEquals(3, BoardSpec.STANDARD.count(ShipType.CARAVEL)),
+                    () -> assertEquals(4, BoardSpec.STANDARD.count(ShipType.BARGE))
+            );
+        }
+
+        @Test
+        @DisplayName("Fleets and games use the standard board by default")
+        void testDefaults() {
+            assertSame(BoardSpec.STANDARD, new Fleet().getBoardSpec());
+            assertEquals(BoardSpec.STANDARD, new BoardSpec(10, 10));
+        }
+    }
+
+    @Nested
+    @DisplayName("Custom Board Tests")
+    class CustomTests {
+
+        @Test
+        @DisplayName("Rectangular boards index cells in row-major order")
+        void testRectangular() {
+            BoardSpec spec = new BoardSpec(3, 7);
+            assertAll(
+                    () -> assertEquals(21, spec.getCells()),
+                    () -> assertEquals(0, spec.indexOf(0, 0)),
+                    () -> assertEquals(7, spec.indexOf(1, 0)),
+                    () -> assertEquals(20, spec.indexOf(2, 6)),
+                    () -> assertTrue(spec.isInside(2, 6)),
+                    () -> assertFalse(spec.isInside(3, 0)),
+                    () -> assertFalse(spec.isInside(0, 7))
+            );
+        }
+
+        @Test
+        @DisplayName("Composition is copied and zero counts are dropped")
+        void testComposition() {
+            Map<ShipType, Integer> composition = new EnumMap<>(ShipType.class);
+            composition.put(ShipType.BARGE, 5000);
+            composition.put(ShipType.GALLEON, 0);
+            BoardSpec spec = new BoardSpec(4096, 4096, composition);
+            composition.put(ShipType.CARAVEL, 3);
+
+            assertAll(
+                    () -> assertEquals(5000, spec.getFleetSize()),
+                    () -> assertEquals(0, spec.count(ShipType.CARAVEL)),
+                    () -> assertFalse(spec.getComposition().containsKey(ShipType.GALLEON)),
+                    () -> assertThrows(UnsupportedOperationException.class,
+                            () -> spec.getComposition().put(ShipType.CARRACK, 1))
+            );
+        }
+
+        @ParameterizedTest
+        @CsvSource({"0,10", "10,0", "-1,5", "32768,1"})
+        @DisplayName("Invalid dimensions are rejected")
+        void testInvalidDimensions(int rows, int columns) {
+            assertThrows(IllegalArgumentException.class, () -> new BoardSpec(rows, columns));
+        }
+
+        @Test
+        @DisplayName("Invalid compositions are rejected")
+        void testInvalidComposition() {
+            Map<ShipType, Integer> negative = new EnumMap<>(ShipType.class);
+            negative.put(ShipType.BARGE, -1);
+            assertThrows(IllegalArgumentException.class, () -> new BoardSpec(10, 10, negative));
+            assertThrows(IllegalArgumentException.class, () -> new BoardSpec(10, 10, null));
+        }
+    }
+}
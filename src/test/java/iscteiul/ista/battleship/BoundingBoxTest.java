@@ -0,0 +1,83 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("BoundingBox Class – Test Suite")
+public class BoundingBoxTest {
+
+    private BoundingBox box;
+
+    @BeforeEach
+    void setup() {
+        box = new BoundingBox(2, 4, 3, 5);
+    }
+
+    @Test
+    @DisplayName("Box of positions spans their extreme rows and columns")
+    void testOf() {
+        List<IPosition> positions = List.of(new Position(3, 7), new Position(1, 8), new Position(2, 6));
+        assertEquals(new BoundingBox(1, 3, 6, 8), BoundingBox.of(positions));
+    }
+
+    @Test
+    @DisplayName("Box of the T-shaped galleon")
+    void testGalleon() {
+        Galleon g = new Galleon(Compass.EAST, new Position(4, 4));
+        assertEquals(new BoundingBox(4, 6, 2, 4), BoundingBox.of(g.getPositions()));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"2,3,true", "4,5,true", "3,4,true", "1,3,false", "5,5,false", "3,2,false", "3,6,false"})
+    @DisplayName("contains checks the inclusive limits")
+    void testContains(int row, int col, boolean expected) {
+        assertEquals(expected, box.contains(row, col));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"1,2,true", "5,6,true", "3,6,true", "0,3,false", "6,4,false", "3,1,false", "3,7,false"})
+    @DisplayName("isNear accepts cells within one row and one column of the box")
+    void testNearCell(int row, int col, boolean expected) {
+        assertEquals(expected, box.isNear(row, col));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"5,6,6,7,true", "0,1,0,2,true", "6,8,0,9,false", "0,9,7,9,false", "3,3,4,4,true"})
+    @DisplayName("isNear between boxes matches the no-touch rule")
+    void testNearBox(int top, int bottom, int left, int right, boolean expected) {
+        BoundingBox other = new BoundingBox(top, bottom, left, right);
+        assertEquals(expected, box.isNear(other));
+        assertEquals(expected, other.isNear(box));
+    }
+
+    @Test
+    @DisplayName("isInside checks every side against the board")
+    void testInside() {
+        BoardSpec spec = new BoardSpec(5, 6);
+        assertAll(
+                () -> assertTrue(box.isInside(spec)),
+                () -> assertFalse(new BoundingBox(2, 5, 3, 5).isInside(spec)),
+                () -> assertFalse(new BoundingBox(2, 4, 3, 6).isInside(spec)),
+                () -> assertFalse(new BoundingBox(-1, 4, 3, 5).isInside(spec)),
+                () -> assertFalse(new BoundingBox(2, 4, -1, 5).isInside(spec))
+        );
+    }
+
+    @Test
+    @DisplayName("Equal boxes have equal hash codes")
+    void testEquals() {
+        BoundingBox same = new BoundingBox(2, 4, 3, 5);
+        assertAll(
+                () -> assertEquals(box, same),
+                () -> assertEquals(box.hashCode(), same.hashCode()),
+                () -> assertNotEquals(box, new BoundingBox(2, 4, 3, 6)),
+                () -> assertNotNull(box.toString())
+        );
+    }
+}
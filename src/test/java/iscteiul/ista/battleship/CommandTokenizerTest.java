@@ -0,0 +1,187 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("CommandTokenizer Class – Test Suite")
+public class CommandTokenizerTest {
+    private static final String[] COMMANDS = {"nova", "desisto", "rajada", "ver", "mapa", "estado"};
+
+    private static CommandTokenizer tokenizer(String text, int bufferSize) {
+        return new CommandTokenizer(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), bufferSize);
+    }
+
+    private static CommandTokenizer tokenizer(String text) {
+        return tokenizer(text, CommandTokenizer.BUFFER_SIZE);
+    }
+
+    @Test
+    @DisplayName("Reads each kind of token")
+    void testTokens() {
+        CommandTokenizer in = tokenizer("  nova galeao 3 -4\ts\r\nfoo   rajada\n");
+        assertAll(
+                () -> assertTrue(in.hasNext()),
+                () -> assertSame(COMMANDS[0], in.nextWord(COMMANDS)),
+                () -> assertEquals(ShipType.GALLEON, in.nextShipType()),
+                () -> assertEquals(3, in.nextInt()),
+                () -> assertEquals(-4, in.nextInt()),
+                () -> assertEquals(Compass.SOUTH, in.nextBearing()),
+                () -> assertNull(in.nextWord(COMMANDS)),
+                () -> assertEquals("rajada", in.next()),
+                () -> assertFalse(in.hasNext()),
+                () -> assertThrows(NoSuchElementException.class, in::next),
+                () -> assertThrows(NoSuchElementException.class, in::nextInt)
+        );
+    }
+
+    @Test
+    @DisplayName("Unknown kinds and bearings")
+    void testUnknown() {
+        CommandTokenizer in = tokenizer("navio barcas b barca norte xyz é");
+        assertAll(
+                () -> assertNull(in.nextShipType()),
+                () -> assertNull(in.nextShipType()),
+                () -> assertNull(in.nextShipType()),
+                () -> assertEquals(ShipType.BARGE, in.nextShipType()),
+                () -> assertEquals(Compass.NORTH, in.nextBearing()),
+                () -> assertEquals(Compass.UNKNOWN, in.nextBearing()),
+                () -> assertEquals(Compass.UNKNOWN, in.nextBearing())
+        );
+    }
+
+    @Test
+    @DisplayName("Integers over the whole int range")
+    void testIntegers() {
+        CommandTokenizer in = tokenizer("0 +7 007 2147483647 -2147483648");
+        assertAll(
+                () -> assertEquals(0, in.nextInt()),
+                () -> assertEquals(7, in.nextInt()),
+                () -> assertEquals(7, in.nextInt()),
+                () -> assertEquals(Integer.MAX_VALUE, in.nextInt()),
+                () -> assertEquals(Integer.MIN_VALUE, in.nextInt())
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2147483648", "-2147483649", "99999999999999999999", "-", "+", "1a", "a1", "--1", "1-"})
+    @DisplayName("Tokens that are not ints are consumed and refused")
+    void testNotIntegers(String token) {
+        CommandTokenizer in = tokenizer(token + " 5");
+        assertThrows(InputMismatchException.class, in::nextInt);
+        assertEquals(5, in.nextInt());
+    }
+
+    @Test
+    @DisplayName("Tokens may span any number of buffer refills")
+    void testSmallBuffer() {
+        String text = "estado   nova  caravela 12345 -678 e " + "x".repeat(CommandTokenizer.MAX_TOKEN) + " desisto";
+        for (int size = 1; size <= 8; size++) {
+            CommandTokenizer in = tokenizer(text, size);
+            assertSame(COMMANDS[5], in.nextWord(COMMANDS));
+            assertSame(COMMANDS[0], in.nextWord(COMMANDS));
+            assertEquals(ShipType.CARAVEL, in.nextShipType());
+            assertEquals(12345, in.nextInt());
+            assertEquals(-678, in.nextInt());
+            assertEquals(Compass.EAST, in.nextBearing());
+            assertEquals("x".repeat(CommandTokenizer.MAX_TOKEN), in.next());
+            assertSame(COMMANDS[1], in.nextWord(COMMANDS));
+            assertFalse(in.hasNext());
+        }
+    }
+
+    @Test
+    @DisplayName("Tokens longer than the limit are consumed and refused")
+    void testLongToken() {
+        for (int size : new int[]{7, CommandTokenizer.BUFFER_SIZE}) {
+            CommandTokenizer in = tokenizer("x".repeat(CommandTokenizer.MAX_TOKEN + 1) + " nova "
+                    + "y".repeat(1 << 20) + " rajada", size);
+            assertThrows(InputMismatchException.class, in::next);
+            assertSame(COMMANDS[0], in.nextWord(COMMANDS));
+            assertThrows(InputMismatchException.class, () -> in.nextWord(COMMANDS));
+            assertSame(COMMANDS[2], in.nextWord(COMMANDS));
+        }
+    }
+
+    @Test
+    @DisplayName("Non-blocking channels are refused")
+    void testNonBlocking() throws IOException {
+        Pipe pipe = Pipe.open();
+        try (Pipe.SourceChannel source = pipe.source()) {
+            source.configureBlocking(false);
+            assertThrows(IllegalArgumentException.class, () -> new CommandTokenizer(source));
+        } finally {
+            pipe.sink().close();
+        }
+    }
+
+    @Test
+    @DisplayName("Reads from a channel and from a stream that delivers one byte at a time")
+    void testSources() throws IOException {
+        byte[] data = "rajada 1 2\n".getBytes(StandardCharsets.US_ASCII);
+        InputStream slow = new ByteArrayInputStream(data) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+        try (CommandTokenizer channel = new CommandTokenizer(Channels.newChannel(new ByteArrayInputStream(data)));
+             CommandTokenizer stream = new CommandTokenizer(slow)) {
+            for (CommandTokenizer in : new CommandTokenizer[]{channel, stream}) {
+                assertSame(COMMANDS[2], in.nextWord(COMMANDS));
+                assertEquals(1, in.nextInt());
+                assertEquals(2, in.nextInt());
+                assertFalse(in.hasNext());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Reads random scripts like the scanner")
+    void testLikeScanner() {
+        SplittableRandom random = new SplittableRandom(7);
+        String[] words = {"nova", "rajada", "estado", "galeao", "nau", "n", "s", "o", "e", "-3", "12", "0", "zzz"};
+        String[] spaces = {" ", "  ", "\n", "\t", "\r\n"};
+        StringBuilder script = new StringBuilder();
+        for (int i = 0; i < 10_000; i++)
+            script.append(words[random.nextInt(words.length)]).append(spaces[random.nextInt(spaces.length)]);
+
+        Scanner scanner = new Scanner(script.toString());
+        CommandTokenizer in = tokenizer(script.toString(), 100);
+        while (scanner.hasNext()) {
+            assertTrue(in.hasNext());
+            switch (random.nextInt(3)) {
+                case 0:
+                    String token = scanner.next();
+                    assertEquals(Arrays.asList(COMMANDS).contains(token) ? token : null, in.nextWord(COMMANDS));
+                    break;
+                case 1:
+                    if (scanner.hasNextInt())
+                        assertEquals(scanner.nextInt(), in.nextInt());
+                    else {
+                        scanner.next();
+                        assertThrows(InputMismatchException.class, in::nextInt);
+                    }
+                    break;
+                default:
+                    assertEquals(Compass.charToCompass(scanner.next().charAt(0)), in.nextBearing());
+            }
+        }
+        assertFalse(in.hasNext());
+    }
+}
@@ -0,0 +1,164 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("ConcurrentGame Class – Test Suite")
+public class ConcurrentGameTest {
+
+    private static final int CELLS = Fleet.BOARD_SIZE * Fleet.BOARD_SIZE;
+    private static final int SHIP_CELLS = 5 + 4 + 2 * 3 + 3 * 2 + 4;
+    private static final int THREADS = 8;
+
+    private ExecutorService pool;
+
+    @BeforeAll
+    void startPool() {
+        pool = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterAll
+    void stopPool() {
+        pool.shutdownNow();
+    }
+
+    private static int[] shuffledCells(SplittableRandom random) {
+        int[] cells = new int[CELLS + 20];
+        for (int i = 0; i < cells.length; i++)
+            cells[i] = i < CELLS ? IPosition.toCell(i / Fleet.BOARD_SIZE, i % Fleet.BOARD_SIZE)
+                    : IPosition.toCell(-1, i);
+        for (int i = cells.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = cells[i];
+            cells[i] = cells[j];
+            cells[j] = t;
+        }
+        return cells;
+    }
+
+    @Nested
+    @DisplayName("Single Thread Tests")
+    class SingleThreadTests {
+
+        @Test
+        @DisplayName("Fires like Game on a single thread")
+        void testMatchesGame() {
+            SplittableRandom random = new SplittableRandom(1L);
+            for (int round = 0; round < 20; round++) {
+                Game game = new Game(BenchmarkFleets.standardFleet(BenchmarkFleets.FLEET));
+                ConcurrentGame concurrent = new ConcurrentGame(BenchmarkFleets.standardFleet(BenchmarkFleets.BITBOARD));
+                for (int cell : shuffledCells(random)) {
+                    IShip a = game.fire(cell);
+                    IShip b = concurrent.fire(cell);
+                    assertEquals(a == null ? null : a.toString(), b == null ? null : b.toString());
+                    assertEquals(game.getRemainingShips(), concurrent.getRemainingShips());
+                    assertEquals(game.getFloatingShips().size(), concurrent.getFloatingShips().size());
+                }
+                assertAll(
+                        () -> assertEquals(game.getShots(), concurrent.getShots()),
+                        () -> assertEquals(game.getHits(), concurrent.getHits()),
+                        () -> assertEquals(game.getSunkShips(), concurrent.getSunkShips()),
+                        () -> assertEquals(game.getInvalidShots(), concurrent.getInvalidShots()),
+                        () -> assertEquals(0, concurrent.getRepeatedShots())
+                );
+            }
+        }
+
+        @Test
+        @DisplayName("fireBatch writes the same outcome codes as Game")
+        void testBatch() {
+            int[] cells = shuffledCells(new SplittableRandom(2L));
+            int[] twice = Arrays.copyOf(cells, cells.length * 2);
+            System.arraycopy(cells, 0, twice, cells.length, cells.length);
+            byte[] expected = new byte[twice.length];
+            byte[] actual = new byte[twice.length];
+            int sunkA = new Game(BenchmarkFleets.standardFleet(BenchmarkFleets.FLEET)).fireBatch(twice, expected);
+            int sunkB = new ConcurrentGame(BenchmarkFleets.standardFleet(BenchmarkFleets.FLEET)).fireBatch(twice, actual);
+            assertArrayEquals(expected, actual);
+            assertEquals(11, sunkA);
+            assertEquals(sunkA, sunkB);
+        }
+
+        @Test
+        @DisplayName("fireBatch refuses a salvo with no room for its outcomes")
+        void testShortOutcomes() {
+            ConcurrentGame game = new ConcurrentGame(BenchmarkFleets.standardFleet(BenchmarkFleets.FLEET));
+            assertThrows(IllegalArgumentException.class,
+                    () -> game.fireBatch(new int[]{IPosition.toCell(0, 0)}, new byte[0]));
+            assertTrue(game.getShots().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Views are read-only snapshots")
+        void testSnapshots() {
+            ConcurrentGame game = new ConcurrentGame(BenchmarkFleets.standardFleet(BenchmarkFleets.FLEET));
+            List<IPosition> shots = game.getShots();
+            game.fire(IPosition.toCell(0, 0));
+            assertAll(
+                    () -> assertTrue(shots.isEmpty()),
+                    () -> assertEquals(1, game.getShots().size()),
+                    () -> assertThrows(UnsupportedOperationException.class, () -> game.getShots().clear()),
+                    () -> assertThrows(UnsupportedOperationException.class, () -> game.getFloatingShips().clear())
+            );
+        }
+    }
+
+    @Nested
+    @DisplayName("Stress Tests")
+    class StressTests {
+
+        @RepeatedTest(20)
+        @DisplayName("Every cell is hit once and every ship sunk once across threads")
+        void testConcurrentFire() throws Exception {
+            ConcurrentGame game = new ConcurrentGame(BenchmarkFleets.standardFleet(BenchmarkFleets.BITBOARD));
+            Queue<IShip> sunk = new ConcurrentLinkedQueue<>();
+            AtomicInteger batchSinks = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> shooters = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int[] cells = shuffledCells(new SplittableRandom(t));
+                boolean batch = t % 2 == 1;
+                shooters.add(pool.submit(() -> {
+                    start.await();
+                    if (batch) {
+                        byte[] outcomes = new byte[cells.length];
+                        batchSinks.addAndGet(game.fireBatch(cells, outcomes));
+                    } else {
+                        for (int cell : cells) {
+                            IShip s = game.fire(cell);
+                            if (s != null)
+                                sunk.add(s);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : shooters)
+                f.get(30, TimeUnit.SECONDS);
+
+            Set<IShip> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+            distinct.addAll(sunk);
+            Set<IPosition> shots = new HashSet<>(game.getShots());
+            assertAll(
+                    () -> assertEquals(SHIP_CELLS, game.getHits()),
+                    () -> assertEquals(11, game.getSunkShips()),
+                    () -> assertEquals(11, sunk.size() + batchSinks.get()),
+                    () -> assertEquals(sunk.size(), distinct.size(), "a ship was reported sunk twice"),
+                    () -> assertEquals(0, game.getRemainingShips()),
+                    () -> assertTrue(game.getFloatingShips().isEmpty()),
+                    () -> assertTrue(game.getFleet().getFloatingShips().isEmpty(), "a sunk ship still floats"),
+                    () -> assertEquals(THREADS * 20, game.getInvalidShots()),
+                    () -> assertEquals((THREADS - 1) * CELLS, game.getRepeatedShots()),
+                    () -> assertEquals(CELLS, game.getShots().size()),
+                    () -> assertEquals(CELLS, shots.size())
+            );
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Coordinates Class – Test Suite")
+public class CoordinatesTest {
+
+    private static final int GAMES = 10_000;
+
+    @Nested
+    @DisplayName("Flyweight Tests")
+    class FlyweightTests {
+
+        @Test
+        @DisplayName("Coordinates inside the board are interned")
+        void testInterned() {
+            for (int r = 0; r < Fleet.BOARD_SIZE; r++)
+                for (int c = 0; c < Fleet.BOARD_SIZE; c++)
+                    assertSame(Coordinates.of(r, c), Coordinates.of(r, c));
+        }
+
+        @Test
+        @DisplayName("Each board size has its own table")
+        void testPerBoardSize() {
+            assertSame(Coordinates.of(3, 4), Coordinates.of(Fleet.BOARD_SIZE, 3, 4));
+            assertSame(Coordinates.of(20, 15, 15), Coordinates.of(20, 15, 15));
+            assertEquals(Coordinates.of(3, 4), Coordinates.of(20, 3, 4));
+        }
+
+        @Test
+        @DisplayName("Rectangular boards are interned by rows and columns")
+        void testRectangular() {
+            BoardSpec wide = new BoardSpec(2, 300);
+            assertAll(
+                    () -> assertSame(Coordinates.of(wide, 1, 299), Coordinates.of(2, 300, 1, 299)),
+                    () -> assertNotSame(Coordinates.of(2, 300, 1, 5), Coordinates.of(300, 2, 1, 5)),
+                    () -> assertEquals(Coordinates.of(2, 300, 1, 5), Coordinates.of(300, 2, 1, 5)),
+                    () -> assertEquals(new Position(1, 250), Coordinates.of(wide, 1, 250)),
+                    () -> assertNotSame(Coordinates.of(wide, 2, 0), Coordinates.of(wide, 2, 0))
+            );
+        }
+
+        @Test
+        @DisplayName("Shots of other boards are listed from the table of their board")
+        void testShotsPerBoard() {
+            BoardSpec wide = new BoardSpec(20, 30);
+            Game game = new Game(new Fleet(wide));
+            game.fire(IPosition.toCell(15, 25));
+            game.fire(IPosition.toCell(20, 0));
+            assertAll(
+                    () -> assertSame(Coordinates.of(wide, 15, 25), game.getShots().get(0)),
+                    () -> assertSame(game.getShots().get(0), game.getShots().get(0)),
+                    () -> assertEquals(1, game.getShots().size())
+            );
+        }
+
+        @ParameterizedTest
+        @CsvSource({"-1,0", "0,-1", "10,3", "3,10"})
+        @DisplayName("Coordinates outside the board are still available")
+        void testOutside(int row, int col) {
+            Coordinates c = Coordinates.of(row, col);
+            assertAll(
+                    () -> assertEquals(row, c.getRow()),
+                    () -> assertEquals(col, c.getColumn())
+            );
+        }
+    }
+
+    @Nested
+    @DisplayName("Value Tests")
+    class ValueTests {
+
+        @Test
+        @DisplayName("Coordinates are equal to positions with the same row and column")
+        void testEqualsPosition() {
+            Position p = new Position(2, 7);
+            Coordinates c = Coordinates.of(2, 7);
+            assertAll(
+                    () -> assertEquals(p, c),
+                    () -> assertEquals(c, p),
+                    () -> assertEquals(p.hashCode(), c.hashCode()),
+                    () -> assertEquals(p.toString(), c.toString()),
+                    () -> assertNotEquals(c, Coordinates.of(7, 2))
+            );
+        }
+
+        @Test
+        @DisplayName("Coordinates carry no cell state")
+        void testImmutable() {
+            Coordinates c = Coordinates.of(1, 1);
+            assertAll(
+                    () -> assertThrows(UnsupportedOperationException.class, c::occupy),
+                    () -> assertThrows(UnsupportedOperationException.class, c::shoot),
+                    () -> assertFalse(c.isOccupied()),
+                    () -> assertFalse(c.isHit())
+            );
+        }
+
+        @Test
+        @DisplayName("Adjacency matches Position")
+        void testAdjacent() {
+            assertTrue(Coordinates.of(4, 4).isAdjacentTo(new Position(5, 3)));
+            assertFalse(Coordinates.of(4, 4).isAdjacentTo(new Position(6, 4)));
+        }
+
+        @Test
+        @DisplayName("Ships can be queried and shot with coordinates")
+        void testShipQueries() {
+            IShip ship = new Caravel(Compass.NORTH, new Position(3, 3));
+            assertTrue(ship.occupies(Coordinates.of(4, 3)));
+            ship.shoot(Coordinates.of(3, 3));
+            ship.shoot(Coordinates.of(4, 3));
+            assertFalse(ship.stillFloating());
+        }
+    }
+
+    @Test
+    @DisplayName("Ships read from commands are anchored at their own positions")
+    void testShipAnchors() {
+        CommandTokenizer in = new CommandTokenizer(
+                new ByteArrayInputStream("barca 3 3 n 3 3".getBytes(StandardCharsets.UTF_8)));
+        IPosition anchor = Tasks.readShip(in).getPosition();
+        assertAll(
+                () -> assertInstanceOf(Position.class, anchor),
+                () -> assertDoesNotThrow(anchor::occupy),
+                () -> assertSame(Coordinates.of(3, 3), Tasks.readCoordinates(in))
+        );
+    }
+
+    @Test
+    @DisplayName("Game.fire with coordinates does not allocate")
+    void testFireAllocatesNothing() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        // warm up, so that the measure does not include class loading and compilation
+        for (int i = 0; i < GAMES / 10; i++)
+            fireAll(newGame());
+
+        // fresh games, built beforehand, so that every shot is a hit, a miss or a sink
+        IGame[] games = new IGame[GAMES];
+        for (int i = 0; i < GAMES; i++)
+            games[i] = newGame();
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (IGame game : games)
+            fireAll(game);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        long fires = (long) GAMES * Fleet.BOARD_SIZE * Fleet.BOARD_SIZE;
+        assertAll(
+                () -> assertEquals(0, games[GAMES - 1].getRemainingShips()),
+                () -> assertEquals(Fleet.BOARD_SIZE * Fleet.BOARD_SIZE, games[GAMES - 1].getShots().size()),
+                () -> assertTrue(allocated < fires / 1000, allocated + " bytes across " + fires + " fires")
+        );
+    }
+
+    private static IGame newGame() {
+        Fleet fleet = new Fleet();
+        fleet.addShip(new Galleon(Compass.NORTH, new Position(0, 0)));
+        fleet.addShip(new Frigate(Compass.EAST, new Position(9, 6)));
+        fleet.addShip(new Carrack(Compass.SOUTH, new Position(4, 9)));
+        fleet.addShip(new Caravel(Compass.WEST, new Position(5, 2)));
+        fleet.addShip(new Barge(Compass.NORTH, new Position(7, 0)));
+        return new Game(fleet);
+    }
+
+    private static void fireAll(IGame game) {
+        for (int cell = 0; cell < Fleet.BOARD_SIZE * Fleet.BOARD_SIZE; cell++) {
+            game.fire(Coordinates.of(cell / Fleet.BOARD_SIZE, cell % Fleet.BOARD_SIZE));
+        }
+    }
+}
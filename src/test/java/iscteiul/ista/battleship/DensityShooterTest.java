@@ -0,0 +1,193 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("DensityShooter Class – Test Suite")
+public class DensityShooterTest {
+
+    private static final Compass[] BEARINGS = {Compass.NORTH, Compass.SOUTH, Compass.EAST, Compass.WEST};
+
+    private BoardSpec spec;
+    private SplittableRandom random;
+
+    @BeforeEach
+    void setup() {
+        spec = BoardSpec.STANDARD;
+        random = new SplittableRandom(17L);
+    }
+
+    /**
+     * Every distinct ship inside the board, of every type of the fleet
+     */
+    private List<IShip> allShips() {
+        List<IShip> ships = new ArrayList<>();
+        for (ShipType type : spec.getComposition().keySet()) {
+            Set<Set<Integer>> seen = new HashSet<>();
+            for (Compass bearing : BEARINGS)
+                for (int r = 0; r < spec.getRows(); r++)
+                    for (int c = 0; c < spec.getColumns(); c++) {
+                        IShip s = type.build(bearing, new Position(r, c));
+                        if (s.getBoundingBox().isInside(spec) && seen.add(cellsOf(s)))
+                            ships.add(s);
+                    }
+        }
+        return ships;
+    }
+
+    private Set<Integer> cellsOf(IShip s) {
+        Set<Integer> cells = new HashSet<>();
+        for (IPosition p : s.getPositions())
+            cells.add(spec.indexOf(p.getRow(), p.getColumn()));
+        return cells;
+    }
+
+    /**
+     * Recomputes both density maps from scratch and compares them with the
+     * maps kept by the shooter
+     */
+    private void checkDensity(DensityShooter shooter, List<IShip> placements, Set<Integer> misses,
+                              Set<Integer> wounded, List<IShip> sunk) {
+        Map<String, Integer> remaining = new HashMap<>();
+        for (ShipType type : spec.getComposition().keySet())
+            remaining.put(type.getCategory(), spec.count(type));
+        Set<Integer> blocked = new HashSet<>(misses);
+        for (IShip s : sunk) {
+            remaining.merge(s.getCategory(), -1, Integer::sum);
+            for (IPosition p : s.getPositions())
+                for (int r = p.getRow() - 1; r <= p.getRow() + 1; r++)
+                    for (int c = p.getColumn() - 1; c <= p.getColumn() + 1; c++)
+                        if (spec.isInside(r, c))
+                            blocked.add(spec.indexOf(r, c));
+        }
+
+        long[] density = new long[spec.getCells()];
+        long[] target = new long[spec.getCells()];
+        for (IShip s : placements) {
+            Set<Integer> cells = cellsOf(s);
+            if (!Collections.disjoint(cells, blocked))
+                continue;
+            int weight = remaining.get(s.getCategory());
+            int hits = 0;
+            for (int cell : cells)
+                if (wounded.contains(cell))
+                    hits++;
+            for (int cell : cells) {
+                density[cell] += weight;
+                target[cell] += (long) weight * hits;
+            }
+        }
+        for (int r = 0; r < spec.getRows(); r++)
+            for (int c = 0; c < spec.getColumns(); c++) {
+                assertEquals(density[spec.indexOf(r, c)], shooter.getDensity(r, c), "density at " + r + "," + c);
+                assertEquals(target[spec.indexOf(r, c)], shooter.getTargetDensity(r, c), "target at " + r + "," + c);
+            }
+    }
+
+    @Test
+    @DisplayName("Incremental density maps match a recomputation after every shot")
+    void testIncrementalMatchesScratch() {
+        playChecked(5);
+    }
+
+    @Test
+    @DisplayName("Boards too wide for one-word ship masks keep exact maps")
+    void testWideBoard() {
+        spec = new BoardSpec(12, 23, BoardSpec.STANDARD.getComposition());
+        assertFalse(ShipShape.of(ShipType.FRIGATE, Compass.SOUTH).hasMask(spec.getColumns()));
+        playChecked(2);
+    }
+
+    /**
+     * Plays games, checking the density maps after every shot
+     */
+    private void playChecked(int games) {
+        List<IShip> placements = allShips();
+        for (int g = 0; g < games; g++) {
+            IGame game = new Game(new RandomPlacer().place(spec, random));
+            DensityShooter shooter = new DensityShooter(spec, random);
+            Set<Integer> misses = new HashSet<>();
+            Set<Integer> wounded = new HashSet<>();
+            List<IShip> sunk = new ArrayList<>();
+            checkDensity(shooter, placements, misses, wounded, sunk);
+            while (game.getRemainingShips() > 0) {
+                int cell = shooter.nextShot();
+                int index = spec.indexOf(IPosition.rowOf(cell), IPosition.columnOf(cell));
+                int hits = game.getHits();
+                IShip s = game.fire(cell);
+                boolean hit = game.getHits() > hits;
+                shooter.shotResult(cell, hit, s);
+                if (!hit)
+                    misses.add(index);
+                else if (s == null)
+                    wounded.add(index);
+                else {
+                    sunk.add(s);
+                    wounded.removeAll(cellsOf(s));
+                }
+                checkDensity(shooter, placements, misses, wounded, sunk);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Never fires twice at a cell, nor next to a sunk ship")
+    void testNoWastedShots() {
+        for (int g = 0; g < 20; g++) {
+            IGame game = new Game(new RandomPlacer().place(spec, random));
+            DensityShooter shooter = new DensityShooter(spec, random);
+            Set<Integer> fired = new HashSet<>();
+            List<IShip> sunk = new ArrayList<>();
+            while (game.getRemainingShips() > 0) {
+                int cell = shooter.nextShot();
+                assertTrue(fired.add(cell), "repeated " + cell);
+                for (IShip s : sunk)
+                    assertFalse(s.tooCloseTo(new Position(IPosition.rowOf(cell), IPosition.columnOf(cell))),
+                            "fired next to " + s);
+                int hits = game.getHits();
+                IShip s = game.fire(cell);
+                shooter.shotResult(cell, game.getHits() > hits, s);
+                if (s != null)
+                    sunk.add(s);
+            }
+            assertEquals(0, game.getRepeatedShots());
+            assertEquals(0, game.getInvalidShots());
+        }
+    }
+
+    @Test
+    @DisplayName("Opens away from the edges of the board")
+    void testFirstShot() {
+        int cell = new DensityShooter(spec, random).nextShot();
+        int row = IPosition.rowOf(cell);
+        int column = IPosition.columnOf(cell);
+        assertTrue(row > 0 && row < spec.getRows() - 1 && column > 0 && column < spec.getColumns() - 1,
+                row + "," + column);
+    }
+
+    @Test
+    @DisplayName("Follows up a hit next to it")
+    void testTargetMode() {
+        DensityShooter shooter = new DensityShooter(spec, random);
+        shooter.shotResult(IPosition.toCell(5, 5), true, null);
+        int cell = shooter.nextShot();
+        assertTrue(Math.abs(IPosition.rowOf(cell) - 5) + Math.abs(IPosition.columnOf(cell) - 5) == 1,
+                IPosition.rowOf(cell) + "," + IPosition.columnOf(cell));
+    }
+
+    @Test
+    @DisplayName("Sinks fleets in far fewer shots than a random shooter")
+    void testBeatsRandom() {
+        SimulationResult density = new Simulator(spec, new RandomPlacer(), DensityShooter::new).run(200, 5L, 2);
+        SimulationResult random = new Simulator(spec, new RandomPlacer(), RandomShooter::new).run(200, 5L, 2);
+        assertAll(
+                () -> assertEquals(0, density.getUnfinished()),
+                () -> assertTrue(density.getMean() < random.getMean() - 15,
+                        density.getMean() + " vs " + random.getMean())
+        );
+    }
+}
@@ -0,0 +1,168 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EngineMetrics Class – Test Suite")
+public class EngineMetricsTest {
+
+    @BeforeEach
+    void setup() {
+        EngineMetrics.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        EngineMetrics.unregister();
+    }
+
+    @Test
+    @DisplayName("addShip counts fleets, ships added and each reason of rejection")
+    void testFleetCounters() {
+        Fleet fleet = new Fleet(new BoardSpec(10, 10, Map.of(ShipType.BARGE, 2)));
+        assertTrue(fleet.addShip(new Barge(Compass.NORTH, new Position(0, 0))));
+        assertFalse(fleet.addShip(new Barge(Compass.NORTH, new Position(0, 1))));
+        assertFalse(fleet.addShip(new Barge(Compass.NORTH, new Position(-1, 5))));
+        assertTrue(fleet.addShip(new Barge(Compass.NORTH, new Position(5, 5))));
+        assertFalse(fleet.addShip(new Barge(Compass.NORTH, new Position(9, 9))));
+
+        EngineMetrics.Snapshot snapshot = EngineMetrics.snapshot();
+        assertAll(
+                () -> assertEquals(1, snapshot.getFleetBuilds()),
+                () -> assertEquals(2, snapshot.getShipsAdded()),
+                () -> assertEquals(1, snapshot.getShipsRejectedCollision()),
+                () -> assertEquals(1, snapshot.getShipsRejectedOutOfBoard()),
+                () -> assertEquals(1, snapshot.getShipsRejectedFleetFull()),
+                () -> assertEquals(1, snapshot.getAddShipLatency().getCount())
+        );
+    }
+
+    @Test
+    @DisplayName("Shots are counted by outcome, with ratios over the shots that count")
+    void testShotCounters() {
+        Fleet fleet = new Fleet();
+        fleet.addShip(new Barge(Compass.NORTH, new Position(0, 0)));
+        fleet.addShip(new Caravel(Compass.EAST, new Position(5, 5)));
+        Game game = new Game(fleet);
+        game.fire(new Position(0, 0));
+        game.fire(new Position(0, 0));
+        game.fire(new Position(-1, 0));
+        game.fire(new Position(5, 5));
+        game.fire(new Position(9, 9));
+        game.fire(new Position(8, 8));
+
+        EngineMetrics.Snapshot snapshot = EngineMetrics.snapshot();
+        assertAll(
+                () -> assertEquals(6, snapshot.getFires()),
+                () -> assertEquals(2, snapshot.getHits()),
+                () -> assertEquals(1, snapshot.getSinks()),
+                () -> assertEquals(1, snapshot.getInvalidShots()),
+                () -> assertEquals(1, snapshot.getRepeatedShots()),
+                () -> assertEquals(2, snapshot.getShots(IGame.MISS)),
+                () -> assertEquals(0.5, snapshot.getHitRatio(), 1e-9),
+                () -> assertEquals(1 / 6.0, snapshot.getInvalidShotRate(), 1e-9),
+                () -> assertEquals(1 / 6.0, snapshot.getRepeatedShotRate(), 1e-9),
+                () -> assertTrue(snapshot.getFiresPerSecond() > 0),
+                () -> assertEquals(1, snapshot.getFireLatency().getCount())
+        );
+    }
+
+    @Test
+    @DisplayName("Restoring, replaying and placing fleets off the game leave the counters alone")
+    void testOffline() {
+        Fleet fleet = new Fleet();
+        fleet.addShip(new Barge(Compass.NORTH, new Position(0, 0)));
+        fleet.addShip(new Caravel(Compass.EAST, new Position(5, 5)));
+        Game game = new Game(fleet);
+        game.fire(new Position(0, 0));
+        game.fire(new Position(-1, 0));
+        ByteBuffer buffer = ByteBuffer.allocate(GameCodec.gameSize(game));
+        GameCodec.writeGame(game, buffer);
+        buffer.flip();
+        EngineMetrics.Snapshot before = EngineMetrics.snapshot();
+
+        Game restored = GameCodec.readGame(buffer);
+        new RandomPlacer().place(BoardSpec.STANDARD, new SplittableRandom(1L));
+        new FleetGenerator(new BoardSpec(6, 6, Map.of(ShipType.BARGE, 3))).generate(new SplittableRandom(1L));
+        EngineMetrics.Snapshot after = EngineMetrics.snapshot();
+        assertAll(
+                () -> assertEquals(before.getFires(), after.getFires()),
+                () -> assertEquals(before.getHits(), after.getHits()),
+                () -> assertEquals(before.getFleetBuilds(), after.getFleetBuilds()),
+                () -> assertEquals(before.getShipsAdded(), after.getShipsAdded()),
+                () -> assertEquals(before.getShipsRejectedCollision(), after.getShipsRejectedCollision()),
+                () -> assertEquals(before.getShipsRejectedOutOfBoard(), after.getShipsRejectedOutOfBoard()),
+                () -> assertEquals(before.getShipsRejectedFleetFull(), after.getShipsRejectedFleetFull()),
+                () -> assertEquals(before.getFireLatency().getCount(), after.getFireLatency().getCount()),
+                () -> assertEquals(before.getAddShipLatency().getCount(), after.getAddShipLatency().getCount())
+        );
+
+        restored.fire(new Position(5, 5));
+        assertEquals(before.getFires() + 1, EngineMetrics.snapshot().getFires());
+    }
+
+    @Test
+    @DisplayName("One shot in SAMPLE_EVERY is timed, batches and concurrent games included in the counts")
+    void testSampling() {
+        Game game = new Game(new Fleet());
+        int[] cells = new int[EngineMetrics.SAMPLE_EVERY * 2 + 1];
+        for (int i = 0; i < cells.length; i++)
+            cells[i] = IPosition.toCell(i / 10 % 10, i % 10);
+        game.fireBatch(cells, new byte[cells.length]);
+        new ConcurrentGame(new Fleet()).fire(new Position(0, 0));
+
+        EngineMetrics.Snapshot snapshot = EngineMetrics.snapshot();
+        assertAll(
+                () -> assertEquals(cells.length + 1, snapshot.getFires()),
+                () -> assertEquals(3, snapshot.getFireLatency().getCount())
+        );
+    }
+
+    @Test
+    @DisplayName("A snapshot does not change afterwards, and reset clears the counters")
+    void testSnapshotAndReset() {
+        new Game(new Fleet()).fire(new Position(0, 0));
+        EngineMetrics.Snapshot before = EngineMetrics.snapshot();
+        EngineMetrics.reset();
+        EngineMetrics.Snapshot after = EngineMetrics.snapshot();
+        assertAll(
+                () -> assertEquals(1, before.getFires()),
+                () -> assertEquals(1, before.getFireLatency().getCount()),
+                () -> assertEquals(0, after.getFires()),
+                () -> assertEquals(0, after.getFireLatency().getCount()),
+                () -> assertTrue(Double.isNaN(after.getHitRatio())),
+                () -> assertNotNull(after.toString())
+        );
+    }
+
+    @Test
+    @DisplayName("The counters can be read and reset over JMX")
+    void testMBean() throws Exception {
+        EngineMetrics.register();
+        EngineMetrics.register();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(EngineMetrics.OBJECT_NAME);
+        new Game(new Fleet()).fire(new Position(-1, 0));
+
+        assertAll(
+                () -> assertEquals(1L, server.getAttribute(name, "Fires")),
+                () -> assertEquals(1L, server.getAttribute(name, "InvalidShots")),
+                () -> assertEquals(1.0, (Double) server.getAttribute(name, "InvalidShotRate"), 1e-9),
+                () -> assertEquals(1L, server.getAttribute(name, "FireLatencySamples")),
+                () -> assertEquals(1L, server.getAttribute(name, "FleetBuilds"))
+        );
+        server.invoke(name, "reset", null, null);
+        assertEquals(0L, server.getAttribute(name, "Fires"));
+
+        EngineMetrics.unregister();
+        assertFalse(server.isRegistered(name));
+    }
+}
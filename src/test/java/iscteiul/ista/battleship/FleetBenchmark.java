@@ -0,0 +1,116 @@
+package iscteiul.ista.battleship;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of fleet building and lookups. Run with
+ * {@code mvn test -Pjmh -Djmh.args="FleetBenchmark -prof gc"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FleetBenchmark {
+    private static final int CELLS = 10 * 10; // IFleet.BOARD_SIZE is not a constant expression
+
+    @Param({BenchmarkFleets.FLEET, BenchmarkFleets.BITBOARD})
+    public String fleetType;
+
+    private List<IShip> ships;
+    private IFleet fleet;
+    private IPosition[] positions;
+    private int[] cells;
+
+    private IShip galleon;
+    private IShip nearFrigate;
+    private IShip farFrigate;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ships = BenchmarkFleets.standardShips();
+        fleet = BenchmarkFleets.standardFleet(fleetType);
+
+        positions = new IPosition[CELLS];
+        cells = new int[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            positions[i] = new Position(i / Fleet.BOARD_SIZE, i % Fleet.BOARD_SIZE);
+            cells[i] = positions[i].getCell();
+        }
+
+        galleon = new Galleon(Compass.NORTH, new Position(0, 0));
+        nearFrigate = new Frigate(Compass.SOUTH, new Position(3, 2));
+        farFrigate = new Frigate(Compass.SOUTH, new Position(5, 8));
+    }
+
+    /**
+     * Builds a complete standard fleet: eleven accepted ships
+     */
+    @Benchmark
+    public IFleet addShip() {
+        Fleet f = BenchmarkFleets.newFleet(fleetType);
+        for (int i = 0; i < ships.size(); i++)
+            f.addShip(ships.get(i));
+        return f;
+    }
+
+    /**
+     * Builds the ships of a standard fleet, without adding them to a fleet
+     */
+    @Benchmark
+    @OperationsPerInvocation(11)
+    public void buildShips(Blackhole bh) {
+        for (int i = 0; i < ships.size(); i++) {
+            IShip s = ships.get(i);
+            bh.consume(s.getType().build(s.getBearing(), s.getPosition()));
+        }
+    }
+
+    /**
+     * Looks up every cell of the board
+     */
+    @Benchmark
+    @OperationsPerInvocation(CELLS)
+    public void shipAt(Blackhole bh) {
+        for (IPosition pos : positions)
+            bh.consume(fleet.shipAt(pos));
+    }
+
+    /**
+     * Looks up every cell of the board, as packed cells
+     */
+    @Benchmark
+    @OperationsPerInvocation(CELLS)
+    public void shipAtCell(Blackhole bh) {
+        for (int cell : cells)
+            bh.consume(fleet.shipAt(cell));
+    }
+
+    /**
+     * Looks up the ships of every category, as the fleet status does
+     */
+    @Benchmark
+    @OperationsPerInvocation(5)
+    public void shipsLike(Blackhole bh) {
+        bh.consume(fleet.getShipsLike("Galeao"));
+        bh.consume(fleet.getShipsLike("Fragata"));
+        bh.consume(fleet.getShipsLike("Nau"));
+        bh.consume(fleet.getShipsLike("Caravela"));
+        bh.consume(fleet.getShipsLike("Barca"));
+    }
+
+    @Benchmark
+    public boolean tooCloseToNear() {
+        return galleon.tooCloseTo(nearFrigate);
+    }
+
+    @Benchmark
+    public boolean tooCloseToFar() {
+        return galleon.tooCloseTo(farFrigate);
+    }
+}
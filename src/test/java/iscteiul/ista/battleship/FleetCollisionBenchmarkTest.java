@@ -0,0 +1,114 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Builds a 10,000-ship fleet with the halo grid of {@link Fleet} and with the
+ * original pairwise {@link IShip#tooCloseTo(IShip)} scan. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Fleet Collision Benchmark")
+public class FleetCollisionBenchmarkTest {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+
+    private static final int SHIPS = 10_000;
+    private static final int SHIPS_PER_ROW = 60;
+    private static final int ROWS = (SHIPS / SHIPS_PER_ROW + 1) * 6 + 4;
+    private static final int COLUMNS = SHIPS_PER_ROW * 7 + 4;
+
+    private BoardSpec spec;
+    private List<IShip> candidates;
+
+    /**
+     * The original Fleet.addShip, which checks the new ship against every ship
+     * already in the fleet
+     */
+    private static final class PairwiseFleet {
+        private final BoardSpec spec;
+        private final List<IShip> ships = new ArrayList<>();
+
+        PairwiseFleet(BoardSpec spec) {
+            this.spec = spec;
+        }
+
+        boolean addShip(IShip s) {
+            if (ships.size() < spec.getFleetSize() && isInsideBoard(s) && !colisionRisk(s)) {
+                ships.add(s);
+                return true;
+            }
+            return false;
+        }
+
+        private boolean isInsideBoard(IShip s) {
+            return s.getLeftMostPos() >= 0 && s.getRightMostPos() < spec.getColumns() && s.getTopMostPos() >= 0
+                    && s.getBottomMostPos() < spec.getRows();
+        }
+
+        private boolean colisionRisk(IShip s) {
+            for (IShip other : ships)
+                if (other.tooCloseTo(s))
+                    return true;
+            return false;
+        }
+    }
+
+    @BeforeAll
+    @DisplayName("Lay out the candidate ships")
+    void setup() {
+        Map<ShipType, Integer> composition = new EnumMap<>(ShipType.class);
+        for (ShipType type : ShipType.values())
+            composition.put(type, SHIPS);
+        spec = new BoardSpec(ROWS, COLUMNS, composition);
+
+        // every ship on a lattice with room to spare, each one followed by a
+        // barge that touches it and must be rejected
+        Compass[] bearings = {Compass.NORTH, Compass.EAST, Compass.SOUTH, Compass.WEST};
+        candidates = new ArrayList<>();
+        for (int k = 0; k < SHIPS; k++) {
+            int row = (k / SHIPS_PER_ROW) * 6 + 2;
+            int col = (k % SHIPS_PER_ROW) * 7 + 2;
+            ShipType type = ShipType.values()[k % ShipType.values().length];
+            candidates.add(type.build(bearings[(k / 5) % 4], new Position(row, col)));
+            candidates.add(ShipType.BARGE.build(Compass.NORTH, new Position(row - 1, col)));
+        }
+    }
+
+    @Test
+    @DisplayName("Halo grid accepts the same ships as the pairwise scan, faster")
+    void testBuildLargeFleet() {
+        PairwiseFleet pairwise = new PairwiseFleet(spec);
+        long start = System.nanoTime();
+        boolean[] expected = new boolean[candidates.size()];
+        for (int i = 0; i < candidates.size(); i++)
+            expected[i] = pairwise.addShip(candidates.get(i));
+        long pairwiseNanos = System.nanoTime() - start;
+
+        Fleet fleet = new Fleet(spec);
+        start = System.nanoTime();
+        boolean[] actual = new boolean[candidates.size()];
+        for (int i = 0; i < candidates.size(); i++)
+            actual[i] = fleet.addShip(candidates.get(i));
+        long haloNanos = System.nanoTime() - start;
+
+        LOGGER.printf(Level.INFO, "%d candidates on a %dx%d board: pairwise %.1f ms, halo grid %.1f ms (%.0fx)",
+                candidates.size(), ROWS, COLUMNS, pairwiseNanos / 1e6, haloNanos / 1e6,
+                (double) pairwiseNanos / haloNanos);
+
+        assertArrayEquals(expected, actual);
+        assertEquals(SHIPS, fleet.getShips().size());
+        assertTrue(haloNanos < pairwiseNanos);
+    }
+}
@@ -0,0 +1,67 @@
+package iscteiul.ista.battleship;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of random fleet placement on the standard board, in fleets
+ * per second. Run with
+ * {@code mvn test -Pjmh -Djmh.args="FleetGeneratorBenchmark"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FleetGeneratorBenchmark {
+    private FleetGenerator generator;
+    private FleetGenerator rejection;
+    private RandomPlacer placer;
+    private SplittableRandom random;
+    private int[] layout;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        generator = new FleetGenerator(BoardSpec.STANDARD);
+        rejection = new FleetGenerator(BoardSpec.STANDARD, Long.MAX_VALUE, 0, 0);
+        placer = new RandomPlacer();
+        random = new SplittableRandom(42);
+        layout = new int[BoardSpec.STANDARD.getFleetSize()];
+    }
+
+    /**
+     * Draws a uniform layout without building the ships
+     */
+    @Benchmark
+    public long nextLayout() {
+        return generator.nextLayout(random, layout);
+    }
+
+    /**
+     * Draws a uniform layout and builds its fleet
+     */
+    @Benchmark
+    public IFleet generate() {
+        return generator.generate(random);
+    }
+
+    /**
+     * Draws a uniform layout by drawing the placements of the ships on their
+     * own and starting over whenever two collide, for comparison
+     */
+    @Benchmark
+    public long rejectionLayout() {
+        return rejection.nextLayout(random, layout);
+    }
+
+    /**
+     * The sequential, non-uniform placer, for comparison
+     */
+    @Benchmark
+    public IFleet randomPlacer() {
+        return placer.place(BoardSpec.STANDARD, random);
+    }
+}
@@ -0,0 +1,201 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("FleetGenerator Class – Test Suite")
+public class FleetGeneratorTest {
+
+    private static final Compass[] BEARINGS = {Compass.NORTH, Compass.SOUTH, Compass.EAST, Compass.WEST};
+
+    /**
+     * @return a key identifying the cells of each ship of the fleet, in any order
+     */
+    private static String keyOf(Collection<IShip> ships, BoardSpec spec) {
+        List<String> keys = new ArrayList<>();
+        for (IShip s : ships) {
+            int[] cells = s.getPositions().stream()
+                    .mapToInt(p -> spec.indexOf(p.getRow(), p.getColumn())).sorted().toArray();
+            keys.add(s.getCategory() + Arrays.toString(cells));
+        }
+        Collections.sort(keys);
+        return keys.toString();
+    }
+
+    /**
+     * @return every distinct ship of the type inside the board
+     */
+    private static List<IShip> allShips(ShipType type, BoardSpec spec) {
+        Map<String, IShip> ships = new LinkedHashMap<>();
+        for (Compass bearing : BEARINGS)
+            for (int r = 0; r < spec.getRows(); r++)
+                for (int c = 0; c < spec.getColumns(); c++) {
+                    IShip s = type.build(bearing, new Position(r, c));
+                    if (s.getBoundingBox().isInside(spec))
+                        ships.putIfAbsent(keyOf(List.of(s), spec), s);
+                }
+        return new ArrayList<>(ships.values());
+    }
+
+    /**
+     * Enumerates every legal fleet by brute force, letting {@link Fleet#addShip(IShip)}
+     * judge each combination
+     */
+    static Set<String> allFleets(BoardSpec spec) {
+        List<List<IShip>> slots = new ArrayList<>();
+        for (Map.Entry<ShipType, Integer> entry : spec.getComposition().entrySet())
+            for (int n = 0; n < entry.getValue(); n++)
+                slots.add(allShips(entry.getKey(), spec));
+        Set<String> fleets = new HashSet<>();
+        enumerate(spec, slots, 0, new ArrayList<>(), fleets);
+        return fleets;
+    }
+
+    private static void enumerate(BoardSpec spec, List<List<IShip>> slots, int slot, List<IShip> chosen,
+                                  Set<String> fleets) {
+        if (slot == slots.size()) {
+            Fleet fleet = new Fleet(spec);
+            for (IShip s : chosen)
+                if (!fleet.addShip(s))
+                    return;
+            fleets.add(keyOf(chosen, spec));
+            return;
+        }
+        for (IShip s : slots.get(slot)) {
+            chosen.add(s);
+            enumerate(spec, slots, slot + 1, chosen, fleets);
+            chosen.remove(chosen.size() - 1);
+        }
+    }
+
+    static BoardSpec spec(int rows, int columns, int galleons, int carracks, int caravels, int barges) {
+        Map<ShipType, Integer> composition = new EnumMap<>(ShipType.class);
+        composition.put(ShipType.GALLEON, galleons);
+        composition.put(ShipType.CARRACK, carracks);
+        composition.put(ShipType.CARAVEL, caravels);
+        composition.put(ShipType.BARGE, barges);
+        return new BoardSpec(rows, columns, composition);
+    }
+
+    @Test
+    @DisplayName("Counts the distinct placements of each type on the standard board")
+    void testCountPlacements() {
+        FleetGenerator generator = new FleetGenerator(BoardSpec.STANDARD);
+        assertAll(
+                () -> assertEquals(4 * 8 * 8, generator.countPlacements(ShipType.GALLEON)),
+                () -> assertEquals(2 * 10 * 7, generator.countPlacements(ShipType.FRIGATE)),
+                () -> assertEquals(2 * 10 * 8, generator.countPlacements(ShipType.CARRACK)),
+                () -> assertEquals(2 * 10 * 9, generator.countPlacements(ShipType.CARAVEL)),
+                () -> assertEquals(100, generator.countPlacements(ShipType.BARGE))
+        );
+    }
+
+    @Test
+    @DisplayName("Generates complete legal standard fleets")
+    void testStandardFleet() {
+        FleetGenerator generator = new FleetGenerator(BoardSpec.STANDARD);
+        SplittableRandom random = new SplittableRandom(3L);
+        for (int i = 0; i < 3; i++) {
+            IFleet fleet = generator.place(BoardSpec.STANDARD, random);
+            assertEquals(BoardSpec.STANDARD.getFleetSize(), fleet.getShips().size());
+            Fleet check = new Fleet();
+            for (IShip s : fleet.getShips())
+                assertTrue(check.addShip(s), s.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("The same seed gives the same fleet")
+    void testDeterministic() {
+        BoardSpec spec = spec(6, 6, 1, 1, 1, 2);
+        FleetGenerator generator = new FleetGenerator(spec);
+        for (long seed = 0; seed < 20; seed++)
+            assertEquals(keyOf(generator.generate(new SplittableRandom(seed)).getShips(), spec),
+                    keyOf(generator.generate(new SplittableRandom(seed)).getShips(), spec));
+    }
+
+    /**
+     * Draws a hundred fleets per legal fleet and checks them with a chi-square
+     * test against brute-force enumeration
+     */
+    private static void assertUniform(BoardSpec spec, FleetGenerator generator) {
+        Set<String> fleets = allFleets(spec);
+        int samples = fleets.size() * 100;
+
+        SplittableRandom random = new SplittableRandom(2024L);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < samples; i++) {
+            String key = keyOf(generator.generate(random).getShips(), spec);
+            assertTrue(fleets.contains(key), "illegal fleet " + key);
+            counts.merge(key, 1, Integer::sum);
+        }
+        assertEquals(fleets.size(), counts.size(), "some legal fleets were never generated");
+
+        double expected = (double) samples / fleets.size();
+        double chi2 = 0;
+        for (int n : counts.values())
+            chi2 += (n - expected) * (n - expected) / expected;
+        // Wilson-Hilferty approximation of the 99.9% quantile of chi-square
+        int df = fleets.size() - 1;
+        double h = 2.0 / (9 * df);
+        double critical = df * Math.pow(1 - h + 3.09 * Math.sqrt(h), 3);
+        assertTrue(chi2 < critical, "chi-square " + chi2 + " over " + critical + " for " + df + " df");
+    }
+
+    @ParameterizedTest(name = "{0}x{1}: {2} galleons, {3} carracks, {4} caravels, {5} barges")
+    @CsvSource({"4,5,0,0,1,2", "5,5,1,0,0,2", "5,4,0,1,1,1"})
+    @DisplayName("Every legal fleet is equally likely (chi-square against brute force)")
+    void testUniform(int rows, int columns, int galleons, int carracks, int caravels, int barges) {
+        BoardSpec spec = spec(rows, columns, galleons, carracks, caravels, barges);
+        assertUniform(spec, new FleetGenerator(spec));
+    }
+
+    @ParameterizedTest(name = "{0}x{1}: {2} galleons, {3} carracks, {4} caravels, {5} barges")
+    @CsvSource({"4,5,0,0,1,2", "5,5,1,0,0,2", "5,4,0,1,1,1"})
+    @DisplayName("Relaxed counts keep every legal fleet equally likely")
+    void testUniformRelaxed(int rows, int columns, int galleons, int carracks, int caravels, int barges) {
+        BoardSpec spec = spec(rows, columns, galleons, carracks, caravels, barges);
+        assertUniform(spec, new FleetGenerator(spec, 100_000_000L, 0, FleetGenerator.MAX_STATES));
+    }
+
+    @Test
+    @DisplayName("Independent draws keep every legal fleet equally likely")
+    void testUniformIndependent() {
+        BoardSpec spec = spec(5, 5, 1, 0, 0, 2);
+        assertUniform(spec, new FleetGenerator(spec, 100_000_000L, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Exact counts never start a draw over")
+    void testExactSingleDraw() {
+        FleetGenerator generator = new FleetGenerator(spec(6, 6, 1, 1, 1, 2));
+        SplittableRandom random = new SplittableRandom(5L);
+        int[] layout = new int[5];
+        for (int i = 0; i < 1000; i++)
+            assertEquals(1, generator.nextLayout(random, layout));
+    }
+
+    @Test
+    @DisplayName("A fleet for another board is refused")
+    void testWrongSpec() {
+        FleetGenerator generator = new FleetGenerator(BoardSpec.STANDARD);
+        assertThrows(IllegalArgumentException.class,
+                () -> generator.place(new BoardSpec(8, 8), new SplittableRandom(1L)));
+    }
+
+    @Test
+    @DisplayName("Ships that do not fit are reported")
+    void testImpossible() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> new FleetGenerator(spec(2, 2, 1, 0, 0, 0))),
+                () -> assertThrows(IllegalStateException.class,
+                        () -> new FleetGenerator(spec(3, 3, 0, 0, 0, 5), 1000).generate(new SplittableRandom(1L)))
+        );
+    }
+}
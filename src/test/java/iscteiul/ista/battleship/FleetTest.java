@@ -2,7 +2,9 @@ package iscteiul.ista.battleship;
 
 import org.junit.jupiter.api.*;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -92,6 +94,22 @@ public class FleetTest {
         assertFalse(added);
     }
 
+    @Test
+    @DisplayName("Cannot add ship touching another one diagonally")
+    void testAddShipDiagonalContact() {
+        fleet.addShip(testShip1);
+        IShip diagonal = new DummyShip("Barca", Compass.NORTH, new Position(3, 1), 1);
+        assertFalse(fleet.addShip(diagonal));
+    }
+
+    @Test
+    @DisplayName("Can add ship one cell apart from another one")
+    void testAddShipOneCellApart() {
+        fleet.addShip(testShip1);
+        assertTrue(fleet.addShip(new DummyShip("Barca", Compass.NORTH, new Position(4, 0), 1)));
+        assertTrue(fleet.addShip(new DummyShip("Barca", Compass.NORTH, new Position(0, 2), 1)));
+    }
+
     @Test
     @DisplayName("Cannot add ship outside board")
     void testAddShipOutsideBoard() {
@@ -109,6 +127,50 @@ public class FleetTest {
         assertFalse(fleet.addShip(extraShip));
     }
 
+    // ------------------------------
+    @Nested
+    @DisplayName("Board Spec Tests")
+    class BoardSpecTests {
+
+        @Test
+        @DisplayName("Ships are checked against the board of the spec")
+        void testRectangularBoard() {
+            Fleet wide = new Fleet(new BoardSpec(4, 30));
+            assertAll(
+                    () -> assertTrue(wide.addShip(new DummyShip("Barca", Compass.NORTH, new Position(0, 29), 1))),
+                    () -> assertFalse(wide.addShip(new DummyShip("Nau", Compass.NORTH, new Position(2, 10), 3))),
+                    () -> assertTrue(wide.addShip(new DummyShip("Nau", Compass.NORTH, new Position(1, 10), 3)))
+            );
+        }
+
+        @Test
+        @DisplayName("Fleet size comes from the spec composition")
+        void testFleetSizeFromSpec() {
+            Map<ShipType, Integer> composition = new EnumMap<>(ShipType.class);
+            composition.put(ShipType.BARGE, 2);
+            Fleet small = new Fleet(new BoardSpec(10, 10, composition));
+            small.addShip(new DummyShip("Barca", Compass.NORTH, new Position(0, 0), 1));
+            small.addShip(new DummyShip("Barca", Compass.NORTH, new Position(0, 2), 1));
+            assertFalse(small.addShip(new DummyShip("Barca", Compass.NORTH, new Position(0, 4), 1)));
+            assertEquals(2, small.getShips().size());
+        }
+
+        @Test
+        @DisplayName("Each type is capped by the spec composition")
+        void testCompositionPerType() {
+            Map<ShipType, Integer> composition = new EnumMap<>(ShipType.class);
+            composition.put(ShipType.BARGE, 1);
+            composition.put(ShipType.CARAVEL, 1);
+            Fleet small = new Fleet(new BoardSpec(10, 10, composition));
+            assertAll(
+                    () -> assertTrue(small.addShip(new Barge(Compass.NORTH, new Position(0, 0)))),
+                    () -> assertFalse(small.addShip(new Barge(Compass.NORTH, new Position(5, 5)))),
+                    () -> assertTrue(small.addShip(new Caravel(Compass.EAST, new Position(9, 0)))),
+                    () -> assertEquals(2, small.getShips().size())
+            );
+        }
+    }
+
     // ------------------------------
     @Nested
     @DisplayName("Get Ships Like Category")
@@ -138,6 +200,34 @@ public class FleetTest {
             List<IShip> result = fleet.getShipsLike("Caravela");
             assertTrue(result.isEmpty());
         }
+
+        @Test
+        @DisplayName("Ships by type are kept in order as they are added")
+        void testGetShipsLikeType() {
+            Fleet standard = BenchmarkFleets.standardFleet(BenchmarkFleets.FLEET);
+            List<IShip> barges = standard.getShipsLike(ShipType.BARGE);
+            assertAll(
+                    () -> assertEquals(4, barges.size()),
+                    () -> assertEquals(standard.getShips().subList(7, 11), barges),
+                    () -> assertSame(barges, standard.getShipsLike("Barca")),
+                    () -> assertThrows(UnsupportedOperationException.class, () -> barges.remove(0))
+            );
+            for (ShipType type : ShipType.ALL)
+                assertEquals(BoardSpec.STANDARD.count(type), standard.getShipsLike(type).size());
+        }
+
+        @Test
+        @DisplayName("Ships of other categories are found by category only")
+        void testGetShipsLikeOther() {
+            IShip other = new DummyShip("Jangada", Compass.NORTH, new Position(8, 8), 1);
+            fleet.addShip(testShip1);
+            fleet.addShip(other);
+            assertAll(
+                    () -> assertEquals(List.of(other), fleet.getShipsLike("Jangada")),
+                    () -> assertEquals(List.of(testShip1), fleet.getShipsLike(ShipType.GALLEON)),
+                    () -> assertNull(other.getType())
+            );
+        }
     }
 
     // ------------------------------
@@ -178,6 +268,19 @@ public class FleetTest {
             assertEquals(testShip1, found);
         }
 
+        @Test
+        @DisplayName("Return ship at given packed cell")
+        void testShipAtCell() {
+            fleet.addShip(testShip1);
+            fleet.addShip(testShip2);
+            assertAll(
+                    () -> assertEquals(testShip1, fleet.shipAt(IPosition.toCell(2, 0))),
+                    () -> assertEquals(testShip2, fleet.shipAt(IPosition.toCell(6, 5))),
+                    () -> assertNull(fleet.shipAt(IPosition.toCell(3, 0))),
+                    () -> assertNull(fleet.shipAt(IPosition.toCell(-1, 0)))
+            );
+        }
+
         @Test
         @DisplayName("Return null if no ship at position")
         void testShipAtNull() {
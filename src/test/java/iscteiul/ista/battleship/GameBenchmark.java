@@ -0,0 +1,212 @@
+package iscteiul.ista.battleship;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of firing and rendering. Run with
+ * {@code mvn test -Pjmh -Djmh.args="GameBenchmark -prof gc"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+    private static final int CELLS = 10 * 10; // IFleet.BOARD_SIZE is not a constant expression
+    private static final int SHIP_CELLS = 5 + 4 + 2 * 3 + 3 * 2 + 4;
+
+    /**
+     * Games fired at in each measured batch of the benchmarks of fresh games
+     */
+    private static final int GAMES = 1000;
+
+    /**
+     * Cells of the benchmark fleet, and the remaining cells of the board
+     */
+    private static final int[] HITS = new int[SHIP_CELLS];
+    private static final int[] MISSES = new int[CELLS - SHIP_CELLS];
+    private static final int[] ALL = new int[CELLS];
+
+    static {
+        Fleet fleet = BenchmarkFleets.standardFleet(BenchmarkFleets.FLEET);
+        int h = 0;
+        int m = 0;
+        for (int i = 0; i < CELLS; i++) {
+            int cell = IPosition.toCell(i / Fleet.BOARD_SIZE, i % Fleet.BOARD_SIZE);
+            ALL[i] = cell;
+            if (fleet.shipAt(cell) != null)
+                HITS[h++] = cell;
+            else
+                MISSES[m++] = cell;
+        }
+    }
+
+    /**
+     * Games that have not been fired at yet, built before each iteration, one
+     * for each call of the batch. Building them is neither timed nor part of
+     * the gc profiler figures, and leaves no per-call setup to skew the
+     * nanosecond timings.
+     */
+    @State(Scope.Thread)
+    public static class FreshGames {
+        @Param({BenchmarkFleets.FLEET, BenchmarkFleets.BITBOARD})
+        public String fleetType;
+
+        final IGame[] games = new IGame[GAMES];
+        int next;
+        final byte[] outcomes = new byte[CELLS];
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            for (int i = 0; i < GAMES; i++)
+                games[i] = new Game(BenchmarkFleets.standardFleet(fleetType));
+            next = 0;
+        }
+
+        IGame next() {
+            return games[next++];
+        }
+    }
+
+    /**
+     * A game where every cell of the board has been fired at
+     */
+    @State(Scope.Thread)
+    public static class PlayedGame {
+        @Param({BenchmarkFleets.FLEET, BenchmarkFleets.BITBOARD})
+        public String fleetType;
+
+        Game game;
+        int next;
+        PrintStream out;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            game = new Game(BenchmarkFleets.standardFleet(fleetType));
+            for (int i = 0; i < CELLS; i++)
+                game.fire(IPosition.toCell(i / Fleet.BOARD_SIZE, i % Fleet.BOARD_SIZE));
+            next = 0;
+            out = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            System.setOut(out);
+        }
+    }
+
+    /**
+     * A random order of the cells of the board, for full games
+     */
+    @State(Scope.Thread)
+    public static class Playthrough {
+        @Param({BenchmarkFleets.FLEET, BenchmarkFleets.BITBOARD})
+        public String fleetType;
+
+        int[] order;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            order = new int[CELLS];
+            for (int i = 0; i < CELLS; i++)
+                order[i] = IPosition.toCell(i / Fleet.BOARD_SIZE, i % Fleet.BOARD_SIZE);
+            SplittableRandom random = new SplittableRandom(42);
+            for (int i = CELLS - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int t = order[i];
+                order[i] = order[j];
+                order[j] = t;
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 20, batchSize = GAMES)
+    @Measurement(iterations = 20, batchSize = GAMES)
+    @OperationsPerInvocation(GAMES * SHIP_CELLS)
+    public void fireHit(FreshGames state, Blackhole bh) {
+        IGame game = state.next();
+        for (int cell : HITS)
+            bh.consume(game.fire(cell));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 20, batchSize = GAMES)
+    @Measurement(iterations = 20, batchSize = GAMES)
+    @OperationsPerInvocation(GAMES * (CELLS - SHIP_CELLS))
+    public void fireMiss(FreshGames state, Blackhole bh) {
+        IGame game = state.next();
+        for (int cell : MISSES)
+            bh.consume(game.fire(cell));
+    }
+
+    /**
+     * Fires at every cell of the board, one shot per call
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 20, batchSize = GAMES)
+    @Measurement(iterations = 20, batchSize = GAMES)
+    @OperationsPerInvocation(GAMES * CELLS)
+    public void fireAll(FreshGames state, Blackhole bh) {
+        IGame game = state.next();
+        for (int cell : ALL)
+            bh.consume(game.fire(cell));
+    }
+
+    /**
+     * Fires at every cell of the board in a single salvo
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 20, batchSize = GAMES)
+    @Measurement(iterations = 20, batchSize = GAMES)
+    @OperationsPerInvocation(GAMES * CELLS)
+    public byte[] fireBatch(FreshGames state) {
+        state.next().fireBatch(ALL, state.outcomes);
+        return state.outcomes;
+    }
+
+    @Benchmark
+    public IShip fireRepeated(PlayedGame state) {
+        int cell = state.next;
+        state.next = (cell + 1) % CELLS;
+        return state.game.fire(IPosition.toCell(cell / Fleet.BOARD_SIZE, cell % Fleet.BOARD_SIZE));
+    }
+
+    @Benchmark
+    public IShip fireInvalid(PlayedGame state) {
+        return state.game.fire(IPosition.toCell(-1, Fleet.BOARD_SIZE));
+    }
+
+    /**
+     * Builds a standard fleet and fires in random order until it is sunk
+     */
+    @Benchmark
+    public int fullGame(Playthrough state) {
+        IGame game = new Game(BenchmarkFleets.standardFleet(state.fleetType));
+        int shots = 0;
+        while (game.getRemainingShips() > 0)
+            game.fire(state.order[shots++]);
+        return shots;
+    }
+
+    @Benchmark
+    public void printValidShots(PlayedGame state) {
+        state.game.printValidShots();
+    }
+
+    @Benchmark
+    public void printFleet(PlayedGame state) {
+        state.game.printFleet();
+    }
+}
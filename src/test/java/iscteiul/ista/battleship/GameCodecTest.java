@@ -0,0 +1,250 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("GameCodec Class – Test Suite")
+public class GameCodecTest {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+
+    private static void assertSameFleet(IFleet expected, IFleet actual) {
+        assertEquals(expected.getBoardSpec(), actual.getBoardSpec());
+        assertEquals(expected.getShips().size(), actual.getShips().size());
+        for (int i = 0; i < expected.getShips().size(); i++) {
+            IShip e = expected.getShips().get(i);
+            IShip a = actual.getShips().get(i);
+            assertEquals(e.getCategory(), a.getCategory());
+            assertEquals(e.getBearing(), a.getBearing());
+            assertEquals(e.getPositions(), a.getPositions());
+            assertEquals(e.stillFloating(), a.stillFloating());
+        }
+    }
+
+    private static void assertSameGame(Game expected, Game actual) {
+        assertSameFleet(expected.getFleet(), actual.getFleet());
+        assertAll(
+                () -> assertEquals(expected.getInvalidShots(), actual.getInvalidShots()),
+                () -> assertEquals(expected.getRepeatedShots(), actual.getRepeatedShots()),
+                () -> assertEquals(expected.getHits(), actual.getHits()),
+                () -> assertEquals(expected.getSunkShips(), actual.getSunkShips()),
+                () -> assertEquals(expected.getRemainingShips(), actual.getRemainingShips()),
+                () -> assertEquals(expected.getShotIndexes(), actual.getShotIndexes())
+        );
+    }
+
+    /**
+     * @return a game with a random fleet after the given number of random shots,
+     * some of them invalid or repeated
+     */
+    private static Game randomGame(SplittableRandom random, int shots) {
+        Game game = new Game(new RandomPlacer().place(BoardSpec.STANDARD, random));
+        for (int i = 0; i < shots; i++)
+            game.fire(IPosition.toCell(random.nextInt(-1, Fleet.BOARD_SIZE + 1),
+                    random.nextInt(-1, Fleet.BOARD_SIZE + 1)));
+        return game;
+    }
+
+    @Test
+    @DisplayName("A fleet is read back as written")
+    void testFleet() {
+        IFleet fleet = BenchmarkFleets.standardFleet(BenchmarkFleets.FLEET);
+        ByteBuffer buffer = ByteBuffer.allocate(GameCodec.fleetSize(fleet));
+        GameCodec.writeFleet(fleet, buffer);
+        assertAll(
+                () -> assertEquals(87, buffer.position()),
+                () -> assertFalse(buffer.hasRemaining())
+        );
+        buffer.flip();
+        assertSameFleet(fleet, GameCodec.readFleet(buffer));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("The board spec and its composition are kept")
+    void testSpec() {
+        Map<ShipType, Integer> composition = new EnumMap<>(ShipType.class);
+        composition.put(ShipType.CARAVEL, 2);
+        composition.put(ShipType.BARGE, 300);
+        BoardSpec spec = new BoardSpec(300, 7, composition);
+        BitboardFleet fleet = new BitboardFleet(spec);
+        fleet.addShip(new Caravel(Compass.EAST, new Position(299, 0)));
+        fleet.addShip(new Barge(Compass.NORTH, new Position(297, 6)));
+        ByteBuffer buffer = ByteBuffer.allocate(100);
+        GameCodec.writeFleet(fleet, buffer);
+        assertSameFleet(fleet, GameCodec.readFleet(buffer.flip()));
+    }
+
+    @Test
+    @DisplayName("Games in any state are read back as written")
+    void testGames() {
+        SplittableRandom random = new SplittableRandom(1);
+        List<Game> games = new ArrayList<>();
+        for (int shots = 0; shots <= 400; shots += 20)
+            games.add(randomGame(random, shots));
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(games.size() * 111);
+        for (Game game : games) {
+            assertEquals(111, GameCodec.gameSize(game));
+            GameCodec.writeGame(game, buffer);
+        }
+        assertFalse(buffer.hasRemaining());
+        buffer.flip();
+        for (Game game : games)
+            assertSameGame(game, GameCodec.readGame(buffer));
+    }
+
+    @Test
+    @DisplayName("A restored game plays on like the original")
+    void testPlayOn() {
+        Game game = randomGame(new SplittableRandom(2), 60);
+        ByteBuffer buffer = ByteBuffer.allocate(GameCodec.gameSize(game));
+        GameCodec.writeGame(game, buffer);
+        Game restored = GameCodec.readGame(buffer.flip());
+        for (int i = 0; i < Fleet.BOARD_SIZE * Fleet.BOARD_SIZE; i++) {
+            int cell = IPosition.toCell(i % Fleet.BOARD_SIZE, i / Fleet.BOARD_SIZE);
+            IShip a = game.fire(cell);
+            IShip b = restored.fire(cell);
+            assertEquals(a == null, b == null);
+        }
+        assertSameGame(game, restored);
+        assertEquals(0, restored.getRemainingShips());
+    }
+
+    @Test
+    @DisplayName("Concurrent and journaled games are written like plain ones")
+    void testEncodableGames(@TempDir Path directory) throws Exception {
+        SplittableRandom random = new SplittableRandom(4);
+        try (GameJournal journal = new GameJournal(directory, 1 << 20)) {
+            IEncodableGame[] games = {
+                    new Game(BenchmarkFleets.standardFleet(BenchmarkFleets.FLEET)),
+                    new ConcurrentGame(BenchmarkFleets.standardFleet(BenchmarkFleets.FLEET)),
+                    new JournaledGame(BenchmarkFleets.standardFleet(BenchmarkFleets.FLEET), journal)
+            };
+            for (int i = 0; i < 70; i++) {
+                int cell = IPosition.toCell(random.nextInt(-1, Fleet.BOARD_SIZE + 1),
+                        random.nextInt(-1, Fleet.BOARD_SIZE + 1));
+                for (IEncodableGame game : games)
+                    game.fire(cell);
+            }
+            ByteBuffer expected = ByteBuffer.allocate(GameCodec.gameSize(games[0]));
+            GameCodec.writeGame(games[0], expected);
+            expected.flip();
+            for (IEncodableGame game : games) {
+                ByteBuffer buffer = ByteBuffer.allocate(GameCodec.gameSize(game));
+                GameCodec.writeGame(game, buffer);
+                assertEquals(expected, buffer.flip());
+                assertSameGame(GameCodec.readGame(expected.duplicate()), GameCodec.readGame(buffer));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Ships of no type are refused before anything is written")
+    void testUntypedShip() {
+        Fleet fleet = new Fleet();
+        fleet.addShip(new Barge(Compass.NORTH, new Position(0, 0)));
+        assertTrue(fleet.addShip(new Ship("Jangada", Compass.NORTH, new Position(5, 5)) {
+            {
+                positions.add(new Position(5, 5));
+            }
+
+            @Override
+            public Integer getSize() {
+                return 1;
+            }
+        }));
+        ByteBuffer buffer = ByteBuffer.allocate(GameCodec.fleetSize(fleet));
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.writeFleet(fleet, buffer));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    @DisplayName("A short buffer is refused before anything is written")
+    void testOverflow() {
+        Game game = randomGame(new SplittableRandom(3), 10);
+        ByteBuffer buffer = ByteBuffer.allocate(GameCodec.gameSize(game) - 1);
+        assertThrows(BufferOverflowException.class, () -> GameCodec.writeGame(game, buffer));
+        assertEquals(0, buffer.position());
+        assertThrows(BufferOverflowException.class, () -> GameCodec.writeFleet(game.getFleet(), ByteBuffer.allocate(10)));
+    }
+
+    @Test
+    @DisplayName("Truncated or corrupt data is refused")
+    void testCorrupt() {
+        Game game = randomGame(new SplittableRandom(4), 10);
+        ByteBuffer buffer = ByteBuffer.allocate(GameCodec.gameSize(game));
+        GameCodec.writeGame(game, buffer);
+        byte[] data = buffer.array();
+
+        assertThrows(BufferUnderflowException.class,
+                () -> GameCodec.readGame(ByteBuffer.wrap(data, 0, data.length - 1)));
+
+        byte[] badType = data.clone();
+        badType[32] = (byte) (7 << 3);
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.readGame(ByteBuffer.wrap(badType)));
+
+        byte[] badBearing = data.clone();
+        badBearing[32] = (byte) (badBearing[32] | 7);
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.readGame(ByteBuffer.wrap(badBearing)));
+
+        byte[] collision = data.clone();
+        System.arraycopy(collision, 32, collision, 37, 5);
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.readGame(ByteBuffer.wrap(collision)));
+
+        byte[] offBoard = data.clone();
+        offBoard[offBoard.length - Long.BYTES] = (byte) 0x80;
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.readGame(ByteBuffer.wrap(offBoard)));
+
+        byte[] noRows = data.clone();
+        noRows[0] = 0;
+        noRows[1] = 0;
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.readGame(ByteBuffer.wrap(noRows)));
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Checkpoints and restores hundreds of thousands of games")
+    void testThroughput() {
+        int count = 200_000;
+        SplittableRandom random = new SplittableRandom(5);
+        Game[] games = new Game[count];
+        for (int i = 0; i < count; i++)
+            games[i] = randomGame(random, random.nextInt(100));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(count * 111);
+
+        for (int round = 0; round < 3; round++) {
+            buffer.clear();
+            long start = System.nanoTime();
+            for (Game game : games)
+                GameCodec.writeGame(game, buffer);
+            long written = System.nanoTime();
+            buffer.flip();
+            int hits = 0;
+            for (int i = 0; i < count; i++)
+                hits += GameCodec.readGame(buffer).getHits();
+            long read = System.nanoTime();
+            LOGGER.printf(Level.INFO,
+                    "%d games, %d bytes: written in %.0f ms (%.2fM/s), restored in %.0f ms (%.2fM/s)",
+                    count, buffer.limit(), (written - start) / 1e6, count * 1e3 / (written - start),
+                    (read - written) / 1e6, count * 1e3 / (read - written));
+            assertTrue(hits > 0);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("GameJournal Class – Test Suite")
+public class GameJournalTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Plays a whole game, in random order and with some invalid and repeated
+     * shots, through a journaled game
+     */
+    static void play(GameJournal journal, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        JournaledGame game = new JournaledGame(new RandomPlacer().place(BoardSpec.STANDARD, random), journal);
+        while (game.getRemainingShips() > 0) {
+            int row = random.nextInt(-1, Fleet.BOARD_SIZE + 1);
+            int column = random.nextInt(-1, Fleet.BOARD_SIZE + 1);
+            if (random.nextBoolean())
+                game.fire(new Position(row, column));
+            else
+                game.fireBatch(new int[]{IPosition.toCell(row, column)}, new byte[1]);
+        }
+        game.end();
+    }
+
+    @Test
+    @DisplayName("Journaled games replay as recorded")
+    void testReplay() throws IOException {
+        try (GameJournal journal = new GameJournal(directory, 1 << 20)) {
+            for (long seed = 0; seed < 20; seed++)
+                play(journal, seed);
+        }
+        JournalReader.Result result = new JournalReader(directory).replay();
+        assertAll(
+                () -> assertTrue(result.isConsistent(), result.getProblems().toString()),
+                () -> assertEquals(20, result.getGames()),
+                () -> assertTrue(result.getShots() >= 20 * (5 + 4 + 2 * 3 + 3 * 2 + 4))
+        );
+    }
+
+    @Test
+    @DisplayName("Records the outcome of every shot")
+    void testRecords() throws IOException {
+        IFleet fleet = BenchmarkFleets.standardFleet(BenchmarkFleets.FLEET);
+        try (GameJournal journal = new GameJournal(directory, 1 << 20)) {
+            JournaledGame game = new JournaledGame(fleet, journal);
+            assertEquals(0, game.getId());
+            game.fire(IPosition.toCell(0, 0));
+            game.fire(IPosition.toCell(0, 0));
+            game.fire(new Position(Integer.MAX_VALUE, 3));
+            game.fire(IPosition.toCell(3, 4));
+            game.fire(IPosition.toCell(5, 5));
+        }
+        List<Path> files = GameJournal.files(directory);
+        byte[] data = Files.readAllBytes(files.get(0));
+        int shots = 1 + 11;
+        assertAll(
+                () -> assertEquals(1, files.size()),
+                () -> assertEquals((shots + 5) * GameJournal.RECORD, data.length),
+                () -> assertEquals(GameJournal.GAME, data[4]),
+                () -> assertEquals(IGame.HIT, data[shots * GameJournal.RECORD + 5]),
+                () -> assertEquals(IGame.REPEATED, data[(shots + 1) * GameJournal.RECORD + 5]),
+                () -> assertEquals(IGame.INVALID, data[(shots + 2) * GameJournal.RECORD + 5]),
+                () -> assertEquals(IGame.SUNK, data[(shots + 3) * GameJournal.RECORD + 5]),
+                () -> assertEquals(IGame.MISS, data[(shots + 4) * GameJournal.RECORD + 5])
+        );
+    }
+
+    @Test
+    @DisplayName("Files are rotated by size and a reopened journal continues after them")
+    void testRotation() throws IOException {
+        try (GameJournal journal = new GameJournal(directory, 50 * GameJournal.RECORD + 5)) {
+            for (long seed = 0; seed < 5; seed++)
+                play(journal, seed);
+            assertTrue(journal.getFileIndex() > 2);
+        }
+        List<Path> files = GameJournal.files(directory);
+        for (Path file : files)
+            assertTrue(Files.size(file) <= 50 * GameJournal.RECORD, file + " " + Files.size(file));
+
+        try (GameJournal journal = new GameJournal(directory, 1 << 20)) {
+            assertEquals(files.size(), journal.getFileIndex());
+            play(journal, 99);
+        }
+        JournalReader.Result result = new JournalReader(directory).replay();
+        assertTrue(result.isConsistent(), result.getProblems().toString());
+        assertEquals(6, result.getGames());
+    }
+
+    @Test
+    @DisplayName("A reopened journal carries on from the last game id")
+    void testIdsResume() throws IOException {
+        try (GameJournal journal = new GameJournal(directory, 50 * GameJournal.RECORD)) {
+            for (long seed = 0; seed < 3; seed++)
+                play(journal, seed);
+        }
+        try (GameJournal journal = new GameJournal(directory, 1 << 20)) {
+            assertEquals(3, new JournaledGame(BenchmarkFleets.standardFleet(BenchmarkFleets.FLEET), journal).getId());
+        }
+        // the last file holds no game
+        new GameJournal(directory, 1 << 20).close();
+        try (GameJournal journal = new GameJournal(directory, 1 << 20)) {
+            assertEquals(4, new JournaledGame(BenchmarkFleets.standardFleet(BenchmarkFleets.FLEET), journal).getId());
+        }
+        JournalReader.Result result = new JournalReader(directory).replay();
+        assertTrue(result.isConsistent(), result.getProblems().toString());
+        assertEquals(5, result.getGames());
+    }
+
+    @Test
+    @DisplayName("Games may be interleaved")
+    void testInterleaved() throws IOException {
+        try (GameJournal journal = new GameJournal(directory, 1 << 20)) {
+            JournaledGame a = new JournaledGame(BenchmarkFleets.standardFleet(BenchmarkFleets.FLEET), journal);
+            JournaledGame b = new JournaledGame(BenchmarkFleets.standardFleet(BenchmarkFleets.BITBOARD), journal);
+            for (int i = 0; i < Fleet.BOARD_SIZE * Fleet.BOARD_SIZE; i++) {
+                a.fire(IPosition.toCell(i / Fleet.BOARD_SIZE, i % Fleet.BOARD_SIZE));
+                b.fire(IPosition.toCell(i % Fleet.BOARD_SIZE, i / Fleet.BOARD_SIZE));
+            }
+            assertEquals(1, b.getId());
+        }
+        JournalReader.Result result = new JournalReader(directory).replay();
+        assertTrue(result.isConsistent(), result.getProblems().toString());
+        assertEquals(200, result.getShots());
+    }
+
+    @Test
+    @DisplayName("A closed journal and a bad file size are refused")
+    void testErrors() throws IOException {
+        GameJournal journal = new GameJournal(directory, 1 << 10);
+        journal.close();
+        journal.close();
+        assertThrows(IllegalStateException.class, () -> journal.shot(0, 0, IGame.MISS));
+        assertThrows(IllegalArgumentException.class, () -> new GameJournal(directory, GameJournal.RECORD - 1));
+    }
+}
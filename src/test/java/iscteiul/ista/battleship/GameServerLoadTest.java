@@ -0,0 +1,150 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Opens 5,000 sessions on a {@link GameServer}, plays a short script on each
+ * of them at the same time and reports the latency of the commands. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("GameServer Load Test")
+public class GameServerLoadTest {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+
+    private static final int SESSIONS = 5_000;
+    private static final int THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static final String[] SCRIPT = {
+            GameSessionTest.NEW_FLEET,
+            "rajada 3 4 0 0 10 10",
+            "ver",
+            "rajada 5 5 6 6 7 7",
+            "estado",
+            "mapa",
+            "rajada 0 1 0 2 1 1",
+            "desisto"
+    };
+
+    /**
+     * The client side of a session: the next command of the script and the
+     * response being read
+     */
+    private static final class Session {
+        final SocketChannel channel;
+        final StringBuilder response = new StringBuilder();
+        ByteBuffer request;
+        int command;
+        long sentAt;
+
+        Session(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * @return true if the response read so far is complete
+         */
+        boolean responseComplete() {
+            int n = response.length();
+            return n == 1 && response.charAt(0) == '\n'
+                    || n >= 2 && response.charAt(n - 1) == '\n' && response.charAt(n - 2) == '\n';
+        }
+    }
+
+    @Test
+    @DisplayName("5,000 concurrent sessions")
+    void testLoad() throws IOException {
+        long[] latencies = new long[SESSIONS * SCRIPT.length];
+        int measured = 0;
+        int completed = 0;
+
+        try (GameServer server = new GameServer(0, THREADS, SESSIONS); Selector selector = Selector.open()) {
+            InetSocketAddress address = new InetSocketAddress("localhost", server.getPort());
+            Session[] sessions = new Session[SESSIONS];
+            for (int i = 0; i < SESSIONS; i++) {
+                SocketChannel channel = SocketChannel.open(address);
+                channel.configureBlocking(false);
+                sessions[i] = new Session(channel);
+                channel.register(selector, SelectionKey.OP_READ, sessions[i]);
+            }
+
+            long start = System.nanoTime();
+            for (Session s : sessions)
+                send(s, selector);
+
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            while (completed < SESSIONS) {
+                if (selector.select(30_000) == 0)
+                    fail("no response for 30 s, " + completed + " sessions completed");
+                for (SelectionKey key : selector.selectedKeys()) {
+                    Session s = (Session) key.attachment();
+                    if (key.isWritable())
+                        send(s, selector);
+                    if (!key.isValid() || !key.isReadable())
+                        continue;
+                    buffer.clear();
+                    int n = s.channel.read(buffer);
+                    if (n < 0) {
+                        key.cancel();
+                        s.channel.close();
+                        assertEquals(SCRIPT.length, s.command, "session closed early");
+                        completed++;
+                        continue;
+                    }
+                    s.response.append(new String(buffer.array(), 0, n, StandardCharsets.UTF_8));
+                    if (s.responseComplete()) {
+                        latencies[measured++] = System.nanoTime() - s.sentAt;
+                        s.response.setLength(0);
+                        if (++s.command < SCRIPT.length)
+                            send(s, selector);
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+            long elapsed = System.nanoTime() - start;
+
+            Arrays.sort(latencies, 0, measured);
+            LOGGER.printf(Level.INFO, "%d sessions, %d commands in %.0f ms (%.0f commands/s) on %d workers: "
+                            + "p50 %.2f ms, p99 %.2f ms, max %.2f ms",
+                    SESSIONS, measured, elapsed / 1e6, measured * 1e9 / elapsed, THREADS,
+                    latencies[measured / 2] / 1e6, latencies[(int) (measured * 0.99)] / 1e6,
+                    latencies[measured - 1] / 1e6);
+        }
+        assertEquals(SESSIONS * SCRIPT.length, measured);
+    }
+
+    /**
+     * Sends the current command of the session, or the rest of it if the
+     * socket was full
+     */
+    private static void send(Session s, Selector selector) throws IOException {
+        if (s.request == null) {
+            s.request = ByteBuffer.wrap((SCRIPT[s.command] + "\n").getBytes(StandardCharsets.UTF_8));
+            s.sentAt = System.nanoTime();
+        }
+        s.channel.write(s.request);
+        SelectionKey key = s.channel.keyFor(selector);
+        if (s.request.hasRemaining()) {
+            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        } else {
+            s.request = null;
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+}
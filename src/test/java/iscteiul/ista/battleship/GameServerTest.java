@@ -0,0 +1,214 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("GameServer Class – Test Suite")
+public class GameServerTest {
+
+    private GameServer server;
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = new GameServer(0, 2, 64);
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        server.close();
+    }
+
+    /**
+     * A blocking client of the server
+     */
+    private final class Client implements AutoCloseable {
+        final Socket socket;
+        final OutputStream out;
+        final BufferedReader in;
+
+        Client() throws IOException {
+            socket = new Socket("localhost", server.getPort());
+            socket.setSoTimeout(10_000);
+            out = socket.getOutputStream();
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        void write(String text) throws IOException {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+
+        /**
+         * @return the next response, without the blank line that ends it
+         */
+        String read() throws IOException {
+            StringBuilder response = new StringBuilder();
+            String line;
+            while ((line = in.readLine()) != null && !line.isEmpty())
+                response.append(line).append('\n');
+            return response.toString();
+        }
+
+        String send(String command) throws IOException {
+            write(command + "\n");
+            return read();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Plays a game over a connection")
+    void testGame() throws IOException {
+        try (Client client = new Client()) {
+            assertEquals("11 navios adicionados com sucesso!\n", client.send(GameSessionTest.NEW_FLEET));
+            assertEquals("Mas... mas... Barcas nao sao a prova de bala? :-(\n"
+                    + "Hits: 2 Inv: 1 Rep: 0 Restam 10 navios.\n", client.send("rajada 3 4 0 0 10 10"));
+            assertTrue(client.send("ver").startsWith("X.........\n"));
+            assertEquals("Que comando é esse??? Repete ...\n", client.send("fogo"));
+            assertEquals("Bons ventos!\n", client.send("desisto"));
+            assertNull(client.in.readLine(), "the server closes the session");
+        }
+    }
+
+    @Test
+    @DisplayName("A bad bearing is answered and the session goes on")
+    void testBadBearing() throws IOException {
+        try (Client client = new Client()) {
+            client.write("nova caravela 0 0 x\n");
+            assertEquals("Navio desconhecido!\n11 navios adicionados com sucesso!\n",
+                    client.send(GameSessionTest.NEW_FLEET.substring("nova ".length())));
+            assertEquals("Bons ventos!\n", client.send("desisto"));
+        }
+    }
+
+    @Test
+    @DisplayName("Tokens split across packets and several commands per packet")
+    void testFraming() throws IOException, InterruptedException {
+        try (Client client = new Client()) {
+            String fleet = GameSessionTest.NEW_FLEET;
+            client.write(fleet.substring(0, 7));
+            Thread.sleep(20);
+            client.write(fleet.substring(7) + " rajada 3 4 0 0 1");
+            Thread.sleep(20);
+            client.write("0 10\n estado\tver ");
+            assertEquals("11 navios adicionados com sucesso!\n", client.read());
+            assertTrue(client.read().endsWith("Restam 10 navios.\n"));
+            assertEquals(11 + 10 + 11, client.read().split("\n").length);
+            assertEquals(Fleet.BOARD_SIZE, client.read().split("\n").length);
+        }
+    }
+
+    @Test
+    @DisplayName("Responses to pipelined commands come back in order")
+    void testPipelinedOrder() throws IOException {
+        try (Client client = new Client()) {
+            client.send(GameSessionTest.NEW_FLEET);
+            int salvos = 200;
+            for (int i = 0; i < salvos; i++)
+                client.write("rajada -1 0 -1 0 -1 0\n");
+            for (int i = 1; i <= salvos; i++)
+                assertEquals("Hits: 0 Inv: " + 3 * i + " Rep: 0 Restam 11 navios.\n", client.read());
+        }
+    }
+
+    @Test
+    @DisplayName("An overlong token is answered as an unknown command")
+    void testOverlongToken() throws IOException {
+        try (Client client = new Client()) {
+            assertEquals("Que comando é esse??? Repete ...\n", client.send("x".repeat(10_000)));
+            assertEquals("Que comando é esse??? Repete ...\n", client.send("rajada" + "0".repeat(100)));
+            assertEquals("11 navios adicionados com sucesso!\n", client.send(GameSessionTest.NEW_FLEET));
+        }
+    }
+
+    @Test
+    @DisplayName("A half-closed connection still gets its responses")
+    void testHalfClose() throws IOException {
+        try (Client client = new Client()) {
+            client.write(GameSessionTest.NEW_FLEET + " rajada 0 0 1 1 2 2 desisto");
+            client.socket.shutdownOutput();
+            assertEquals("11 navios adicionados com sucesso!\n", client.read());
+            assertTrue(client.read().startsWith("Hits: "));
+            assertEquals("Bons ventos!\n", client.read());
+            assertNull(client.in.readLine(), "the server closes the session");
+        }
+    }
+
+    @Test
+    @DisplayName("A client that stops reading is answered once it reads again")
+    void testSlowReader() throws IOException, InterruptedException {
+        try (Client client = new Client()) {
+            client.send(GameSessionTest.NEW_FLEET);
+            int salvos = 20_000;
+            Thread writer = new Thread(() -> {
+                try {
+                    for (int i = 0; i < salvos; i++)
+                        client.write("rajada -1 0 -1 0 -1 0\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.start();
+            Thread.sleep(200);
+            for (int i = 1; i <= salvos; i++)
+                assertEquals("Hits: 0 Inv: " + 3 * i + " Rep: 0 Restam 11 navios.\n", client.read());
+            writer.join();
+        }
+    }
+
+    @Test
+    @DisplayName("Sessions are independent")
+    void testConcurrentSessions() throws Exception {
+        int clients = 32;
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                int row = i % Fleet.BOARD_SIZE;
+                results.add(pool.submit(() -> {
+                    try (Client client = new Client()) {
+                        client.send(GameSessionTest.NEW_FLEET);
+                        client.send("rajada " + row + " 0 " + row + " 1 " + row + " 2");
+                        return client.send("rajada " + row + " 0 -1 0 " + row + " 3");
+                    }
+                }));
+            }
+            for (Future<String> result : results)
+                assertTrue(result.get(30, TimeUnit.SECONDS).contains("Inv: 1 Rep: 1"), result.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Counts open sessions")
+    void testSessions() throws Exception {
+        try (Client a = new Client(); Client b = new Client()) {
+            a.send("ver");
+            b.send("ver");
+            assertEquals(2, server.getSessions());
+            a.send("desisto");
+            assertNull(a.in.readLine());
+        }
+        for (int i = 0; i < 100 && server.getSessions() > 0; i++)
+            Thread.sleep(10);
+        assertEquals(0, server.getSessions());
+    }
+}
@@ -0,0 +1,142 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("GameSession Class – Test Suite")
+public class GameSessionTest {
+
+    /**
+     * The command building the benchmark fleet
+     */
+    static final String NEW_FLEET = "nova galeao 0 0 n fragata 9 6 e nau 4 9 s nau 0 5 e caravela 5 2 o "
+            + "caravela 7 0 n caravela 2 8 e barca 3 4 n barca 7 4 n barca 9 2 n barca 7 7 n";
+
+    private GameSession session;
+
+    @BeforeEach
+    void setup() {
+        session = new GameSession();
+    }
+
+    /**
+     * Feeds the tokens of the text and joins the responses
+     */
+    private String send(String text) {
+        StringBuilder responses = new StringBuilder();
+        for (String token : text.trim().split("\\s+")) {
+            String response = session.accept(token);
+            if (response != null)
+                responses.append(response);
+        }
+        return responses.toString();
+    }
+
+    @Test
+    @DisplayName("nova answers once the whole fleet is built")
+    void testNewFleet() {
+        assertEquals("11 navios adicionados com sucesso!\n\n", send(NEW_FLEET));
+        assertNotNull(session.getGame());
+    }
+
+    @Test
+    @DisplayName("Rejected and unknown ships are reported while the fleet is built")
+    void testBadShips() {
+        String response = send("nova submarino 1 1 n galeao 0 0 n barca 1 1 n " + NEW_FLEET.substring("nova galeao 0 0 n ".length()));
+        assertAll(
+                () -> assertTrue(response.startsWith("Navio desconhecido!\nFalha na criacao de Barca"), response),
+                () -> assertTrue(response.endsWith("11 navios adicionados com sucesso!\n\n"), response)
+        );
+    }
+
+    @Test
+    @DisplayName("A bearing the ship cannot take is reported like an unknown ship")
+    void testBadBearing() {
+        String response = send("nova caravela 0 0 x " + NEW_FLEET.substring("nova ".length()));
+        assertTrue(response.startsWith("Navio desconhecido!\n11 navios"), response);
+    }
+
+    @Test
+    @DisplayName("fail drops the command in progress and keeps the session usable")
+    void testFail() {
+        send("nova galeao 0 0");
+        assertEquals("Que comando é esse??? Repete ...\n\n", session.fail());
+        assertEquals("11 navios adicionados com sucesso!\n\n", send(NEW_FLEET));
+    }
+
+    @Test
+    @DisplayName("rajada fires three shots and reports the counters")
+    void testSalvo() {
+        send(NEW_FLEET);
+        assertEquals("Mas... mas... Barcas nao sao a prova de bala? :-(\n"
+                        + "Hits: 2 Inv: 1 Rep: 0 Restam 10 navios.\n\n",
+                send("rajada 3 4 0 0 10 10"));
+        assertEquals("Hits: 2 Inv: 1 Rep: 1 Restam 10 navios.\n\n", send("rajada 0 0 5 5 6 6"));
+    }
+
+    @Test
+    @DisplayName("Sinking the whole fleet is announced")
+    void testVictory() {
+        send(NEW_FLEET);
+        String last = "";
+        for (int r = 0; r < Fleet.BOARD_SIZE; r++)
+            for (int c = 0; c < Fleet.BOARD_SIZE; c += 5)
+                last = send("rajada " + r + " " + c + " " + r + " " + (c + 1) + " " + r + " " + (c + 2))
+                        + send("rajada " + r + " " + (c + 3) + " " + r + " " + (c + 4) + " -1 -1");
+        assertTrue(last.endsWith("Restam 0 navios.\nMaldito sejas, Java Sparrow, eu voltarei, glub glub glub...\n\n"),
+                last);
+    }
+
+    @Test
+    @DisplayName("ver and mapa draw the board")
+    void testBoards() {
+        send(NEW_FLEET);
+        send("rajada 0 0 0 9 9 9");
+        String shots = send("ver");
+        String fleet = send("mapa");
+        assertAll(
+                () -> assertEquals(Fleet.BOARD_SIZE * (Fleet.BOARD_SIZE + 1) + 1, shots.length()),
+                () -> assertTrue(shots.startsWith("X........X\n"), shots),
+                () -> assertTrue(shots.endsWith(".........X\n\n"), shots),
+                () -> assertTrue(fleet.startsWith("###..###..\n"), fleet)
+        );
+    }
+
+    @Test
+    @DisplayName("estado lists the ships")
+    void testStatus() {
+        send(NEW_FLEET);
+        String status = send("estado");
+        assertEquals(11 * 3 + 1, status.split("\n", -1).length - 1);
+    }
+
+    @Test
+    @DisplayName("Commands before a fleet exists get an empty response")
+    void testNoGame() {
+        assertAll(
+                () -> assertEquals("\n", send("rajada")),
+                () -> assertEquals("\n", send("ver")),
+                () -> assertEquals("\n", send("mapa")),
+                () -> assertEquals("\n", send("estado"))
+        );
+    }
+
+    @Test
+    @DisplayName("Bad numbers drop the command in progress")
+    void testBadNumber() {
+        assertEquals("Posicao invalida!\n\n", send("nova galeao x 0 n"));
+        send(NEW_FLEET);
+        assertEquals("Posicao invalida!\n\n", send("rajada 1 1 a"));
+        assertEquals("Que comando é esse??? Repete ...\n\n", send("1"));
+    }
+
+    @Test
+    @DisplayName("desisto ends the session")
+    void testGiveUp() {
+        assertEquals("Bons ventos!\n\n", send("desisto"));
+        assertTrue(session.isClosed());
+        assertNull(session.accept("ver"));
+    }
+}
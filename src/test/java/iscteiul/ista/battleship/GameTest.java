@@ -6,6 +6,7 @@ import org.junit.jupiter.params.provider.CsvSource;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -87,6 +88,162 @@ class GameTest {
             assertNull(game.fire(miss));
             assertTrue(game.getShots().contains(miss));
         }
+
+        @ParameterizedTest
+        @CsvSource({"10,0", "0,10", "10,10"})
+        @DisplayName("Shots on the board edge + 1 are invalid")
+        void testShotJustOutsideBoard(int row, int col) {
+            assertNull(game.fire(new Position(row, col)));
+            assertEquals(1, game.getInvalidShots());
+            assertTrue(game.getShots().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Repeated shots are detected after the whole board was fired")
+        void testRepeatedAfterFullBoard() {
+            for (int r = 0; r < Fleet.BOARD_SIZE; r++)
+                for (int c = 0; c < Fleet.BOARD_SIZE; c++)
+                    game.fire(new Position(r, c));
+            for (int r = 0; r < Fleet.BOARD_SIZE; r++)
+                game.fire(new Position(r, Fleet.BOARD_SIZE - 1 - r));
+
+            assertEquals(Fleet.BOARD_SIZE, game.getRepeatedShots());
+            assertEquals(Fleet.BOARD_SIZE * Fleet.BOARD_SIZE, game.getShots().size());
+        }
+
+        @Test
+        @DisplayName("Shots are kept in firing order")
+        void testShotsOrder() {
+            IPosition a = new Position(5, 5);
+            IPosition b = new Position(3, 7);
+            game.fire(a);
+            game.fire(b);
+            game.fire(a);
+            assertEquals(List.of(a, b), game.getShots());
+        }
+    }
+
+    @Nested
+    @DisplayName("Fire Packed Cell Tests")
+    class FireCellTests {
+
+        @Test
+        @DisplayName("Firing packed cells sinks the ship")
+        void testFireCellSink() {
+            assertNull(game.fire(IPosition.toCell(0, 0)));
+            assertSame(ship, game.fire(IPosition.toCell(0, 1)));
+            assertEquals(2, game.getHits());
+            assertEquals(1, game.getSunkShips());
+        }
+
+        @Test
+        @DisplayName("Packed and object shots share the same history")
+        void testFireCellRepeated() {
+            game.fire(new Position(4, 4));
+            game.fire(IPosition.toCell(4, 4));
+            game.fire(IPosition.toCell(-1, 4));
+            assertAll(
+                    () -> assertEquals(1, game.getRepeatedShots()),
+                    () -> assertEquals(1, game.getInvalidShots()),
+                    () -> assertEquals(List.of(new Position(4, 4)), game.getShots())
+            );
+        }
+    }
+
+    @Nested
+    @DisplayName("Fire Batch Tests")
+    class FireBatchTests {
+
+        @Test
+        @DisplayName("Each shot of a salvo gets its outcome code")
+        void testOutcomes() {
+            int[] cells = {IPosition.toCell(-1, 0), IPosition.toCell(5, 5), IPosition.toCell(0, 0),
+                    IPosition.toCell(5, 5), IPosition.toCell(0, 1), IPosition.toCell(0, 1)};
+            byte[] outcomes = new byte[cells.length];
+            assertEquals(1, game.fireBatch(cells, outcomes));
+            assertArrayEquals(new byte[]{IGame.INVALID, IGame.MISS, IGame.HIT, IGame.REPEATED, IGame.SUNK,
+                    IGame.REPEATED}, outcomes);
+        }
+
+        @Test
+        @DisplayName("A salvo updates the game like single shots")
+        void testMatchesFire() {
+            Game single = new Game(fleetWithFrigate());
+            Game batch = new Game(fleetWithFrigate());
+            int[] cells = new int[Fleet.BOARD_SIZE * 3];
+            for (int i = 0; i < cells.length; i++)
+                cells[i] = IPosition.toCell(i % Fleet.BOARD_SIZE - 1, i % 7);
+            for (int cell : cells)
+                single.fire(cell);
+            batch.fireBatch(cells, new byte[cells.length]);
+            assertAll(
+                    () -> assertEquals(single.getShots(), batch.getShots()),
+                    () -> assertEquals(single.getHits(), batch.getHits()),
+                    () -> assertEquals(single.getSunkShips(), batch.getSunkShips()),
+                    () -> assertEquals(single.getRepeatedShots(), batch.getRepeatedShots()),
+                    () -> assertEquals(single.getInvalidShots(), batch.getInvalidShots()),
+                    () -> assertEquals(single.getRemainingShips(), batch.getRemainingShips())
+            );
+        }
+
+        @Test
+        @DisplayName("An empty salvo changes nothing")
+        void testEmpty() {
+            assertEquals(0, game.fireBatch(new int[0], new byte[0]));
+            assertTrue(game.getShots().isEmpty());
+        }
+
+        @Test
+        @DisplayName("A salvo with no room for its outcomes is refused before any shot")
+        void testShortOutcomes() {
+            int[] cells = {IPosition.toCell(0, 0), IPosition.toCell(5, 5)};
+            assertThrows(IllegalArgumentException.class, () -> game.fireBatch(cells, new byte[1]));
+            assertTrue(game.getShots().isEmpty());
+        }
+
+        private IFleet fleetWithFrigate() {
+            IFleet f = new Fleet();
+            f.addShip(new Frigate(Compass.SOUTH, new Position(0, 3)));
+            f.addShip(new Barge(Compass.NORTH, new Position(8, 8)));
+            return f;
+        }
+    }
+
+    @Nested
+    @DisplayName("Board Spec Tests")
+    class BoardSpecTests {
+
+        @Test
+        @DisplayName("Shots are validated against the fleet board")
+        void testLargeBoard() {
+            Fleet large = new Fleet(new BoardSpec(4096, 2048));
+            IShip far = new Caravel(Compass.EAST, new Position(4000, 2046));
+            large.addShip(far);
+            Game big = new Game(large);
+
+            assertNull(big.fire(IPosition.toCell(4000, 2046)));
+            assertSame(far, big.fire(new Position(4000, 2047)));
+            big.fire(IPosition.toCell(4000, 2048));
+            big.fire(IPosition.toCell(4096, 0));
+            big.fire(IPosition.toCell(4000, 2047));
+            assertAll(
+                    () -> assertEquals(2, big.getHits()),
+                    () -> assertEquals(2, big.getInvalidShots()),
+                    () -> assertEquals(1, big.getRepeatedShots()),
+                    () -> assertEquals(List.of(new Position(4000, 2046), new Position(4000, 2047)), big.getShots())
+            );
+        }
+
+        @Test
+        @DisplayName("Rectangular boards are printed with their own dimensions")
+        void testPrintRectangular() {
+            Fleet wide = new Fleet(new BoardSpec(2, 20));
+            wide.addShip(new Frigate(Compass.EAST, new Position(1, 16)));
+            Game g = new Game(wide);
+            g.fire(IPosition.toCell(0, 19));
+            assertDoesNotThrow(g::printFleet);
+            assertDoesNotThrow(g::printValidShots);
+        }
     }
 
     @Nested
@@ -102,6 +259,79 @@ class GameTest {
             }
             assertEquals(0, game.getRemainingShips());
         }
+
+        @Test
+        @DisplayName("Floating ships view is live and read-only")
+        void testFloatingShipsView() {
+            List<IShip> floating = game.getFloatingShips();
+            assertEquals(List.of(ship), floating);
+            game.fire(pos1);
+            game.fire(pos2);
+            assertAll(
+                    () -> assertTrue(floating.isEmpty()),
+                    () -> assertSame(floating, game.getFloatingShips()),
+                    () -> assertThrows(UnsupportedOperationException.class, () -> floating.add(ship))
+            );
+        }
+
+        @Test
+        @DisplayName("Ships added to the fleet after the game starts are counted")
+        void testShipsAddedLater() {
+            assertEquals(1, game.getRemainingShips());
+            IShip barge = new Barge(Compass.NORTH, new Position(5, 5));
+            fleet.addShip(barge);
+            assertEquals(2, game.getRemainingShips());
+            assertSame(barge, game.fire(new Position(5, 5)));
+            assertEquals(1, game.getRemainingShips());
+            assertEquals(List.of(ship), game.getFloatingShips());
+        }
+
+        @Test
+        @DisplayName("A fleet shot outside the game is caught")
+        void testSharedFleet() {
+            assertEquals(1, game.getRemainingShips());
+            Game other = new Game(fleet);
+            other.fire(pos1);
+            other.fire(pos2);
+            assertThrows(AssertionError.class, game::getRemainingShips);
+        }
+
+        @Test
+        @DisplayName("Remaining ships agree with the fleet after every shot")
+        void testRemainingMatchesFleet() {
+            Fleet full = new Fleet();
+            full.addShip(new Galleon(Compass.SOUTH, new Position(0, 4)));
+            full.addShip(new Carrack(Compass.EAST, new Position(5, 0)));
+            full.addShip(new Barge(Compass.NORTH, new Position(9, 9)));
+            Game g = new Game(full);
+            for (int r = 0; r < Fleet.BOARD_SIZE; r++)
+                for (int c = 0; c < Fleet.BOARD_SIZE; c++) {
+                    g.fire(new Position(r, c));
+                    assertEquals(full.getFloatingShips().size(), g.getRemainingShips());
+                    assertEquals(full.getFloatingShips(), g.getFloatingShips());
+                }
+            assertEquals(3, g.getSunkShips());
+        }
+
+        @Test
+        @DisplayName("The floating view iterates and indexes in fleet order as ships sink")
+        void testFloatingViewAccess() {
+            IFleet full = new RandomPlacer().place(BoardSpec.STANDARD, new SplittableRandom(5));
+            Game g = new Game(full);
+            List<IShip> view = g.getFloatingShips();
+            for (int cell = 0; cell < Fleet.BOARD_SIZE * Fleet.BOARD_SIZE; cell++) {
+                g.fire(IPosition.toCell(cell / Fleet.BOARD_SIZE, cell % Fleet.BOARD_SIZE));
+                List<IShip> expected = full.getFloatingShips();
+                List<IShip> indexed = new ArrayList<>();
+                for (int i = view.size() - 1; i >= 0; i--)
+                    indexed.add(0, view.get(i));
+                for (int i = 0; i < view.size(); i++)
+                    assertSame(expected.get(i), view.get(i));
+                assertEquals(expected, new ArrayList<>(view));
+                assertEquals(expected, indexed);
+            }
+            assertTrue(view.isEmpty());
+        }
     }
 
     @Nested
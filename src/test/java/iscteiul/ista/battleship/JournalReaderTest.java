@@ -0,0 +1,118 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("JournalReader Class – Test Suite")
+public class JournalReaderTest {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+
+    @TempDir
+    Path directory;
+
+    private Path onlyFile() throws IOException {
+        return GameJournal.files(directory).get(0);
+    }
+
+    @Test
+    @DisplayName("An empty directory has nothing to replay")
+    void testEmpty() throws IOException {
+        JournalReader.Result result = new JournalReader(directory.resolve("none")).replay();
+        assertAll(
+                () -> assertEquals(0, result.getGames()),
+                () -> assertTrue(result.isConsistent()),
+                () -> assertNotNull(result.toString())
+        );
+    }
+
+    @Test
+    @DisplayName("A tampered outcome is reported")
+    void testTamperedOutcome() throws IOException {
+        try (GameJournal journal = new GameJournal(directory, 1 << 20)) {
+            JournaledGame game = new JournaledGame(BenchmarkFleets.standardFleet(BenchmarkFleets.FLEET), journal);
+            game.fire(IPosition.toCell(5, 5));
+            game.fire(IPosition.toCell(0, 0));
+        }
+        try (RandomAccessFile file = new RandomAccessFile(onlyFile().toFile(), "rw")) {
+            file.seek(12L * GameJournal.RECORD + 5);
+            file.writeByte(IGame.HIT);
+        }
+        JournalReader.Result result = new JournalReader(directory).replay();
+        assertAll(
+                () -> assertFalse(result.isConsistent()),
+                () -> assertEquals(1, result.getMismatches()),
+                () -> assertTrue(result.getProblems().get(0).startsWith("game 0 shot 0 at 5,5: recorded 3, replayed 2"),
+                        result.getProblems().toString())
+        );
+    }
+
+    @Test
+    @DisplayName("A tampered fleet is reported")
+    void testTamperedFleet() throws IOException {
+        try (GameJournal journal = new GameJournal(directory, 1 << 20)) {
+            new JournaledGame(BenchmarkFleets.standardFleet(BenchmarkFleets.FLEET), journal).end();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(onlyFile().toFile(), "rw")) {
+            file.seek(2L * GameJournal.RECORD + 8);
+            file.writeInt(IPosition.toCell(0, 1));
+        }
+        JournalReader.Result result = new JournalReader(directory).replay();
+        assertEquals(1, result.getMismatches());
+        assertTrue(result.getProblems().get(0).contains("fleet rejected"), result.getProblems().toString());
+    }
+
+    @Test
+    @DisplayName("Shots of unknown games and unfinished fleets are reported")
+    void testIncomplete() throws IOException {
+        try (GameJournal journal = new GameJournal(directory, 1 << 20)) {
+            journal.shot(7, IPosition.toCell(1, 1), IGame.MISS);
+            journal.startGame(BenchmarkFleets.standardFleet(BenchmarkFleets.FLEET));
+        }
+        Path file = onlyFile();
+        byte[] data = Files.readAllBytes(file);
+        Files.write(file, java.util.Arrays.copyOf(data, 5 * GameJournal.RECORD));
+        JournalReader.Result result = new JournalReader(directory).replay();
+        assertAll(
+                () -> assertEquals(2, result.getMismatches()),
+                () -> assertTrue(result.getProblems().get(0).startsWith("record of unknown game 7")),
+                () -> assertTrue(result.getProblems().get(1).contains("3 of 11 ships recorded"))
+        );
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Replays over 10M shots per second")
+    void testReplaySpeed() throws IOException {
+        int games = 200_000;
+        try (GameJournal journal = new GameJournal(directory, 64L << 20)) {
+            for (int g = 0; g < games; g++) {
+                JournaledGame game = new JournaledGame(BenchmarkFleets.standardFleet(BenchmarkFleets.BITBOARD), journal);
+                int[] cells = new int[Fleet.BOARD_SIZE * Fleet.BOARD_SIZE];
+                for (int i = 0; i < cells.length; i++)
+                    cells[i] = IPosition.toCell(i / Fleet.BOARD_SIZE, (i + g) % Fleet.BOARD_SIZE);
+                game.fireBatch(cells, new byte[cells.length]);
+                game.end();
+            }
+        }
+        JournalReader reader = new JournalReader(directory);
+        reader.replay();
+        long start = System.nanoTime();
+        JournalReader.Result result = reader.replay();
+        long elapsed = System.nanoTime() - start;
+        LOGGER.printf(Level.INFO, "%s replayed in %.0f ms: %.1fM shots/s", result, elapsed / 1e6,
+                result.getShots() * 1e3 / elapsed);
+        assertTrue(result.isConsistent());
+    }
+}
@@ -0,0 +1,101 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LatencyHistogram Class – Test Suite")
+public class LatencyHistogramTest {
+
+    private LatencyHistogram histogram;
+
+    @BeforeEach
+    void setup() {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    @DisplayName("An empty histogram has no percentiles")
+    void testEmpty() {
+        assertAll(
+                () -> assertEquals(0, histogram.getCount()),
+                () -> assertEquals(0, histogram.getMax()),
+                () -> assertEquals(-1, histogram.getPercentile(0.5))
+        );
+    }
+
+    @Test
+    @DisplayName("Percentiles are the upper bounds of power-of-two buckets, capped by the max")
+    void testPercentiles() {
+        for (int i = 0; i < 98; i++)
+            histogram.record(20);
+        histogram.record(1000);
+        histogram.record(5000);
+        assertAll(
+                () -> assertEquals(100, histogram.getCount()),
+                () -> assertEquals(5000, histogram.getMax()),
+                () -> assertEquals(31, histogram.getPercentile(0.5)),
+                () -> assertEquals(31, histogram.getPercentile(0.98)),
+                () -> assertEquals(1023, histogram.getPercentile(0.99)),
+                () -> assertEquals(5000, histogram.getPercentile(1.0))
+        );
+    }
+
+    @Test
+    @DisplayName("Zero and negative durations go to the first bucket, huge ones to the last")
+    void testExtremes() {
+        histogram.record(-5);
+        histogram.record(0);
+        assertEquals(0, histogram.getPercentile(1.0));
+        histogram.record(Long.MAX_VALUE);
+        assertAll(
+                () -> assertEquals(3, histogram.getCount()),
+                () -> assertEquals(Long.MAX_VALUE, histogram.getPercentile(1.0)),
+                () -> assertEquals(0, histogram.getPercentile(0.5))
+        );
+    }
+
+    @Test
+    @DisplayName("A copy keeps the counts it was taken with")
+    void testCopy() {
+        histogram.record(100);
+        LatencyHistogram copy = histogram.copy();
+        histogram.record(100);
+        assertAll(
+                () -> assertEquals(1, copy.getCount()),
+                () -> assertEquals(2, histogram.getCount()),
+                () -> assertEquals(100, copy.getMax())
+        );
+    }
+
+    @Test
+    @DisplayName("reset forgets every duration")
+    void testReset() {
+        histogram.record(100);
+        histogram.reset();
+        assertAll(
+                () -> assertEquals(0, histogram.getCount()),
+                () -> assertEquals(0, histogram.getMax())
+        );
+    }
+
+    @Test
+    @DisplayName("Records from several threads are all counted")
+    void testConcurrentRecords() throws InterruptedException {
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            long nanos = t + 1;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++)
+                    histogram.record(nanos);
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+        assertAll(
+                () -> assertEquals(40_000, histogram.getCount()),
+                () -> assertEquals(4, histogram.getMax())
+        );
+    }
+}
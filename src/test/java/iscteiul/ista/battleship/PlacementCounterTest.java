@@ -0,0 +1,140 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PlacementCounter Class – Test Suite")
+public class PlacementCounterTest {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+
+    @TempDir
+    Path dir;
+
+    private static BoardSpec spec(int rows, int columns, int galleons, int carracks, int caravels, int barges) {
+        return FleetGeneratorTest.spec(rows, columns, galleons, carracks, caravels, barges);
+    }
+
+    @ParameterizedTest(name = "{0}x{1}: {2} galleons, {3} carracks, {4} caravels, {5} barges")
+    @CsvSource({"4,5,0,0,1,2", "5,5,1,0,0,2", "5,4,0,1,1,1", "3,7,0,0,0,3", "5,5,0,0,2,2", "6,4,1,0,1,1",
+            "5,6,1,1,0,1", "2,2,0,0,0,2"})
+    @DisplayName("Counts as many fleets as brute force finds")
+    void testAgainstBruteForce(int rows, int columns, int galleons, int carracks, int caravels, int barges) {
+        BoardSpec spec = spec(rows, columns, galleons, carracks, caravels, barges);
+        assertEquals(BigInteger.valueOf(FleetGeneratorTest.allFleets(spec).size()),
+                new PlacementCounter(spec).count(2));
+    }
+
+    @Test
+    @DisplayName("A frigate is counted like the other ships")
+    void testFrigate() {
+        Map<ShipType, Integer> composition = new EnumMap<>(ShipType.class);
+        composition.put(ShipType.FRIGATE, 1);
+        composition.put(ShipType.BARGE, 2);
+        BoardSpec spec = new BoardSpec(5, 6, composition);
+        assertEquals(BigInteger.valueOf(FleetGeneratorTest.allFleets(spec).size()),
+                new PlacementCounter(spec).count(2));
+    }
+
+    @Test
+    @DisplayName("A board and its transpose have as many fleets")
+    void testTranspose() {
+        assertEquals(new PlacementCounter(spec(7, 5, 1, 1, 1, 2)).count(2),
+                new PlacementCounter(spec(5, 7, 1, 1, 1, 2)).count(2));
+    }
+
+    @Test
+    @DisplayName("A single ship can go anywhere it fits")
+    void testSingleShip() {
+        assertAll(
+                () -> assertEquals(BigInteger.valueOf(4 * 8 * 8), new PlacementCounter(spec(10, 10, 1, 0, 0, 0)).count()),
+                () -> assertEquals(BigInteger.valueOf(100), new PlacementCounter(spec(10, 10, 0, 0, 0, 1)).count())
+        );
+    }
+
+    @Test
+    @DisplayName("An empty fleet has one placement and a fleet that cannot fit none")
+    void testEdgeCases() {
+        assertAll(
+                () -> assertEquals(BigInteger.ONE, new PlacementCounter(spec(4, 4, 0, 0, 0, 0)).count()),
+                () -> assertEquals(BigInteger.ZERO, new PlacementCounter(spec(3, 3, 0, 0, 0, 5)).count())
+        );
+    }
+
+    @Test
+    @DisplayName("Orbits of the symmetries of the board cover every placement of the pivot")
+    void testOrbits() {
+        assertAll(
+                () -> assertEquals(4 * 8 * 8 / 8, new PlacementCounter(spec(10, 10, 1, 1, 1, 1)).getOrbits()),
+                // corners, edges and the centre
+                () -> assertEquals(3, new PlacementCounter(spec(3, 3, 0, 0, 0, 1)).getOrbits())
+        );
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Counts the legal standard fleets of the standard board")
+    void testStandard() {
+        PlacementCounter counter = new PlacementCounter(BoardSpec.STANDARD);
+        long start = System.nanoTime();
+        BigInteger count = counter.count();
+        LOGGER.printf(Level.INFO, "%s legal fleets of %s in %.1f s", count, BoardSpec.STANDARD,
+                (System.nanoTime() - start) / 1e9);
+        assertEquals(new BigInteger("6176754266272264"), count);
+    }
+
+    @Test
+    @DisplayName("Progress is reported once per orbit and the checkpoint resumes a count")
+    void testCheckpoint() throws IOException {
+        BoardSpec spec = spec(6, 6, 1, 1, 1, 2);
+        PlacementCounter counter = new PlacementCounter(spec);
+        BigInteger expected = counter.count();
+        Path checkpoint = dir.resolve("count.txt");
+        List<Integer> progress = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            assertEquals(expected, counter.count(pool, checkpoint, (done, total) -> progress.add(done)));
+            assertEquals(counter.getOrbits() + 1, progress.size());
+            assertEquals(counter.getOrbits(), progress.get(progress.size() - 1));
+
+            // drop the last two orbits, then resume: only those are counted again
+            List<String> lines = Files.readAllLines(checkpoint, StandardCharsets.UTF_8);
+            assertEquals(counter.getOrbits() + 1, lines.size());
+            Files.write(checkpoint, lines.subList(0, lines.size() - 2));
+            progress.clear();
+            assertEquals(expected, counter.count(pool, checkpoint, (done, total) -> progress.add(done)));
+            assertEquals(List.of(counter.getOrbits() - 2, counter.getOrbits() - 1, counter.getOrbits()), progress);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("A checkpoint of another board is refused")
+    void testForeignCheckpoint() throws IOException {
+        Path checkpoint = dir.resolve("other.txt");
+        new PlacementCounter(spec(5, 5, 0, 0, 1, 1)).count(ForkJoinPool.commonPool(), checkpoint, (d, t) -> {
+        });
+        assertThrows(IllegalArgumentException.class, () -> new PlacementCounter(spec(5, 5, 0, 0, 1, 2))
+                .count(ForkJoinPool.commonPool(), checkpoint, (d, t) -> {
+                }));
+    }
+}
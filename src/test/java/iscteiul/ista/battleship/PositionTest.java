@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -59,6 +60,33 @@ public class PositionTest {
         }
     }
 
+    // ───────────────────────────────────────────────────────────────
+    @Nested
+    @DisplayName("Packed Cell Tests")
+    class CellTests {
+
+        @Test
+        @DisplayName("getCell packs row and column")
+        void testGetCell() {
+            assertAll(
+                    () -> assertEquals(IPosition.toCell(3, 5), position.getCell()),
+                    () -> assertEquals(3, IPosition.rowOf(position.getCell())),
+                    () -> assertEquals(5, IPosition.columnOf(position.getCell()))
+            );
+        }
+
+        @ParameterizedTest
+        @DisplayName("Packing round-trips negative and large coordinates")
+        @CsvSource({"0,0", "-1,-1", "-1,9", "9,-1", "4095,4095", "-32768,32767"})
+        void testRoundTrip(int row, int col) {
+            int cell = IPosition.toCell(row, col);
+            assertAll(
+                    () -> assertEquals(row, IPosition.rowOf(cell)),
+                    () -> assertEquals(col, IPosition.columnOf(cell))
+            );
+        }
+    }
+
     // ───────────────────────────────────────────────────────────────
     @Nested
     @DisplayName("Occupation & Hit State Tests")
@@ -0,0 +1,56 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("RandomPlacer Class – Test Suite")
+public class RandomPlacerTest {
+
+    private RandomPlacer placer;
+
+    @BeforeEach
+    void setup() {
+        placer = new RandomPlacer();
+    }
+
+    @Test
+    @DisplayName("Places the whole standard composition legally")
+    void testStandardFleet() {
+        SplittableRandom random = new SplittableRandom(5L);
+        for (int i = 0; i < 100; i++) {
+            IFleet fleet = placer.place(BoardSpec.STANDARD, random);
+            assertEquals(BoardSpec.STANDARD.getFleetSize(), fleet.getShips().size());
+            for (ShipType type : ShipType.values())
+                assertEquals(BoardSpec.STANDARD.count(type), fleet.getShipsLike(type.getCategory()).size());
+            for (IShip a : fleet.getShips())
+                for (IShip b : fleet.getShips())
+                    if (a != b)
+                        assertFalse(a.tooCloseTo(b), a + " touches " + b);
+        }
+    }
+
+    @Test
+    @DisplayName("The same seed gives the same fleet")
+    void testDeterministic() {
+        IFleet a = placer.place(BoardSpec.STANDARD, new SplittableRandom(9L));
+        IFleet b = placer.place(BoardSpec.STANDARD, new SplittableRandom(9L));
+        for (int r = 0; r < Fleet.BOARD_SIZE; r++)
+            for (int c = 0; c < Fleet.BOARD_SIZE; c++)
+                assertEquals(a.shipAt(IPosition.toCell(r, c)) == null, b.shipAt(IPosition.toCell(r, c)) == null);
+    }
+
+    @Test
+    @DisplayName("A composition that cannot fit is reported")
+    void testImpossible() {
+        Map<ShipType, Integer> composition = new EnumMap<>(ShipType.class);
+        composition.put(ShipType.FRIGATE, 1);
+        BoardSpec tiny = new BoardSpec(3, 3, composition);
+        assertThrows(IllegalStateException.class, () -> placer.place(tiny, new SplittableRandom(1L)));
+    }
+}
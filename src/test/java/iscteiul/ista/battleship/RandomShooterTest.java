@@ -0,0 +1,44 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("RandomShooter Class – Test Suite")
+public class RandomShooterTest {
+
+    private BoardSpec spec;
+    private RandomShooter shooter;
+
+    @BeforeEach
+    void setup() {
+        spec = new BoardSpec(4, 6);
+        shooter = new RandomShooter(spec, new SplittableRandom(11L));
+    }
+
+    @Test
+    @DisplayName("Fires once at every cell of the board")
+    void testCoversBoard() {
+        Set<Integer> cells = new HashSet<>();
+        for (int i = 0; i < spec.getCells(); i++) {
+            int cell = shooter.nextShot();
+            assertTrue(spec.isInside(IPosition.rowOf(cell), IPosition.columnOf(cell)));
+            assertTrue(cells.add(cell), "repeated " + cell);
+            shooter.shotResult(cell, false, null);
+        }
+        assertThrows(IllegalStateException.class, shooter::nextShot);
+    }
+
+    @Test
+    @DisplayName("The same seed gives the same order")
+    void testDeterministic() {
+        RandomShooter other = new RandomShooter(spec, new SplittableRandom(11L));
+        for (int i = 0; i < spec.getCells(); i++)
+            assertEquals(other.nextShot(), shooter.nextShot());
+    }
+}
@@ -0,0 +1,93 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("ShipShape Class – Test Suite")
+public class ShipShapeTest {
+    private static final Compass[] BEARINGS = {Compass.NORTH, Compass.SOUTH, Compass.EAST, Compass.WEST};
+
+    @ParameterizedTest
+    @EnumSource(ShipType.class)
+    @DisplayName("Ships list the cells of their shape, in shape order")
+    void testShips(ShipType type) {
+        for (Compass bearing : BEARINGS) {
+            ShipShape shape = ShipShape.of(type, bearing);
+            Ship s = type.build(bearing, new Position(4, 5));
+            assertEquals(type.getSize(), shape.size());
+            for (int i = 0; i < shape.size(); i++)
+                assertEquals(new Position(4 + shape.getRowOffset(i), 5 + shape.getColumnOffset(i)),
+                        s.getPositions().get(i));
+            BoundingBox box = s.getBoundingBox();
+            assertAll(
+                    () -> assertEquals(box.getTop() - 4, shape.getTop()),
+                    () -> assertEquals(box.getBottom() - 4, shape.getBottom()),
+                    () -> assertEquals(box.getLeft() - 5, shape.getLeft()),
+                    () -> assertEquals(box.getRight() - 5, shape.getRight())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Only barges take any bearing")
+    void testUnknownBearing() {
+        for (ShipType type : ShipType.ALL)
+            assertEquals(type == ShipType.BARGE, ShipShape.of(type, Compass.UNKNOWN) != null);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"GALLEON,4", "FRIGATE,2", "CARRACK,2", "CARAVEL,2", "BARGE,1"})
+    @DisplayName("Bearings covering the same cells count once")
+    void testDistinct(ShipType type, int count) {
+        List<ShipShape> distinct = ShipShape.distinct(type);
+        assertEquals(count, distinct.size());
+        assertEquals(Compass.NORTH, distinct.get(0).getBearing());
+        assertThrows(UnsupportedOperationException.class, () -> distinct.remove(0));
+    }
+
+    @Test
+    @DisplayName("A shape fits where its ship is inside the board")
+    void testFits() {
+        BoardSpec spec = new BoardSpec(6, 7);
+        for (ShipType type : ShipType.ALL)
+            for (Compass bearing : BEARINGS)
+                for (int r = -3; r < 9; r++)
+                    for (int c = -3; c < 10; c++) {
+                        boolean inside = type.build(bearing, new Position(r, c)).getBoundingBox().isInside(spec);
+                        assertEquals(inside, ShipShape.of(type, bearing).fits(spec, r, c), type + " " + bearing);
+                    }
+    }
+
+    @Test
+    @DisplayName("Cells are board indexes in shape order")
+    void testCells() {
+        ShipShape shape = ShipShape.of(ShipType.GALLEON, Compass.EAST);
+        assertArrayEquals(new int[]{4, 12, 13, 14, 24}, shape.cells(BoardSpec.STANDARD, 0, 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> shape.cells(BoardSpec.STANDARD, 0, 1));
+    }
+
+    @Test
+    @DisplayName("Masks are laid out on a grid of the given width")
+    void testMask() {
+        ShipShape north = ShipShape.of(ShipType.GALLEON, Compass.NORTH);
+        ShipShape south = ShipShape.of(ShipType.GALLEON, Compass.SOUTH);
+        ShipShape frigate = ShipShape.of(ShipType.FRIGATE, Compass.SOUTH);
+        assertAll(
+                () -> assertEquals(0b111L | 1L << 11 | 1L << 21, north.mask(10)),
+                () -> assertEquals(1L << 1 | 1L << 4 | 0b111L << 6, south.mask(3)),
+                () -> assertEquals(1L | 1L << 21 | 1L << 42 | 1L << 63, frigate.mask(21)),
+                () -> assertThrows(IllegalArgumentException.class, () -> frigate.mask(22)),
+                () -> assertThrows(IllegalArgumentException.class, () -> north.mask(2)),
+                () -> assertTrue(frigate.hasMask(21)),
+                () -> assertFalse(frigate.hasMask(22)),
+                () -> assertFalse(north.hasMask(2))
+        );
+    }
+}
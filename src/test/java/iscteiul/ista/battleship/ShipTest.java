@@ -68,6 +68,71 @@ public class ShipTest {
         assertFalse(ship.stillFloating());
     }
 
+    @Test
+    void testShootTwiceStillFloating() {
+        ship.shoot(new Position(0, 0));
+        ship.shoot(new Position(0, 0));
+        ship.shoot(IPosition.toCell(0, 0));
+        ship.shoot(new Position(1, 0));
+        assertTrue(ship.stillFloating());
+        ship.shoot(IPosition.toCell(2, 0));
+        assertFalse(ship.stillFloating());
+    }
+
+    @Test
+    void testShootMissDoesNotCount() {
+        ship.shoot(new Position(3, 0));
+        ship.shoot(IPosition.toCell(0, 1));
+        ship.shoot(new Position(1, 0));
+        ship.shoot(new Position(2, 0));
+        assertTrue(ship.stillFloating());
+        assertFalse(ship.getPositions().get(0).isHit());
+    }
+
+    @Test
+    void testSinkThroughPositions() {
+        for (IPosition position : ship.getPositions())
+            position.shoot();
+        assertFalse(ship.stillFloating());
+
+        Ship caravel = new Caravel(Compass.EAST, new Position(4, 4));
+        for (IPosition position : caravel.getPositions())
+            position.shoot();
+        assertFalse(caravel.stillFloating());
+    }
+
+    @Test
+    void testShootPositionThenShipCountsOnce() {
+        IPosition first = ship.getPositions().get(0);
+        first.shoot();
+        first.shoot();
+        ship.shoot(new Position(0, 0));
+        ship.shoot(IPosition.toCell(0, 0));
+        ship.shoot(new Position(1, 0));
+        assertTrue(ship.stillFloating());
+        ship.getPositions().get(2).shoot();
+        assertFalse(ship.stillFloating());
+    }
+
+    @Test
+    void testHitPositionAddedCounts() {
+        Position hit = new Position(0, 0);
+        hit.shoot();
+        Ship other = new TestShip(Compass.NORTH, new Position(5, 5), 1) {
+            {
+                positions.add(hit);
+            }
+
+            @Override
+            public Integer getSize() {
+                return 2;
+            }
+        };
+        assertTrue(other.stillFloating());
+        other.getPositions().get(0).shoot();
+        assertFalse(other.stillFloating());
+    }
+
     // ------------------------------ PARAMETERIZED TESTS ------------------------------
 
     @ParameterizedTest
@@ -76,6 +141,19 @@ public class ShipTest {
         assertTrue(ship.occupies(new Position(row, 0)));
     }
 
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2})
+    void testOccupiesCellParameterized(int row) {
+        assertTrue(ship.occupies(IPosition.toCell(row, 0)));
+        assertFalse(ship.occupies(IPosition.toCell(row, 1)));
+    }
+
+    @Test
+    void testOccupiesCellOutside() {
+        assertFalse(ship.occupies(IPosition.toCell(3, 0)));
+        assertFalse(ship.occupies(IPosition.toCell(-1, 0)));
+    }
+
     // ------------------------------ BOUNDARY TESTS ------------------------------
 
     @Nested
@@ -85,6 +163,28 @@ public class ShipTest {
         @Test void testBottomMost() { assertEquals(2, ship.getBottomMostPos()); }
         @Test void testLeftMost() { assertEquals(0, ship.getLeftMostPos()); }
         @Test void testRightMost() { assertEquals(0, ship.getRightMostPos()); }
+
+        @Test void testBoundingBox() { assertEquals(new BoundingBox(0, 2, 0, 0), ship.getBoundingBox()); }
+
+        @Test void testBoundingBoxComputedOnce() { assertSame(ship.getBoundingBox(), ship.getBoundingBox()); }
+    }
+
+    @Nested
+    class TooCloseTests {
+
+        @Test void testTooCloseToTouchingShip() {
+            assertTrue(ship.tooCloseTo(new TestShip(Compass.NORTH, new Position(3, 1), 2)));
+        }
+
+        @Test void testNotTooCloseToFarShip() {
+            assertFalse(ship.tooCloseTo(new TestShip(Compass.NORTH, new Position(0, 2), 3)));
+            assertFalse(ship.tooCloseTo(new TestShip(Compass.NORTH, new Position(4, 0), 3)));
+        }
+
+        @Test void testTooCloseToAdjacentPosition() {
+            assertTrue(ship.tooCloseTo(new Position(3, 1)));
+            assertFalse(ship.tooCloseTo(new Position(4, 0)));
+        }
     }
 
     // ------------------------------ NULL AND EDGE CASES ------------------------------
@@ -0,0 +1,68 @@
+package iscteiul.ista.battleship;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("ShipType Enum Test Suite")
+public class ShipTypeTest {
+
+    @Test
+    @DisplayName("Ship types follow the order of the fleet status report")
+    void testOrder() {
+        assertArrayEquals(new ShipType[]{ShipType.GALLEON, ShipType.FRIGATE, ShipType.CARRACK, ShipType.CARAVEL,
+                ShipType.BARGE}, ShipType.values());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ShipType.class)
+    @DisplayName("Built ships match the category and size of their type")
+    void testBuild(ShipType type) {
+        Ship s = type.build(Compass.NORTH, new Position(3, 3));
+        assertAll(
+                () -> assertNotNull(s),
+                () -> assertEquals(type.getCategory(), s.getCategory()),
+                () -> assertEquals(type.getSize(), s.getSize()),
+                () -> assertEquals(type.getSize(), s.getPositions().size())
+        );
+    }
+
+    @Test
+    @DisplayName("Ship types build the expected classes")
+    void testClasses() {
+        Position pos = new Position(0, 0);
+        assertAll(
+                () -> assertInstanceOf(Galleon.class, ShipType.GALLEON.build(Compass.NORTH, pos)),
+                () -> assertInstanceOf(Frigate.class, ShipType.FRIGATE.build(Compass.NORTH, pos)),
+                () -> assertInstanceOf(Carrack.class, ShipType.CARRACK.build(Compass.NORTH, pos)),
+                () -> assertInstanceOf(Caravel.class, ShipType.CARAVEL.build(Compass.NORTH, pos)),
+                () -> assertInstanceOf(Barge.class, ShipType.BARGE.build(Compass.NORTH, pos))
+        );
+    }
+
+    @ParameterizedTest
+    @EnumSource(ShipType.class)
+    @DisplayName("Ship types are found by kind, by category and from their ships")
+    void testLookups(ShipType type) {
+        assertAll(
+                () -> assertSame(type, ShipType.ofKind(type.getKind())),
+                () -> assertSame(type, ShipType.ofCategory(type.getCategory())),
+                () -> assertSame(type, type.build(Compass.EAST, new Position(1, 1)).getType()),
+                () -> assertSame(type, ShipType.of(type.build(Compass.EAST, new Position(1, 1)))),
+                () -> assertSame(type, ShipType.ALL.get(type.ordinal()))
+        );
+    }
+
+    @Test
+    @DisplayName("Unknown kinds and categories have no type")
+    void testUnknown() {
+        assertAll(
+                () -> assertNull(ShipType.ofKind("Galeao")),
+                () -> assertNull(ShipType.ofCategory("galeao")),
+                () -> assertNull(ShipType.ofKind(null)),
+                () -> assertNull(Ship.buildShip("jangada", Compass.NORTH, new Position(0, 0)))
+        );
+    }
+}
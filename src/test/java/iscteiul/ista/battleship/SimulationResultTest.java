@@ -0,0 +1,94 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("SimulationResult Class – Test Suite")
+public class SimulationResultTest {
+
+    private SimulationResult result;
+
+    @BeforeEach
+    void setup() {
+        result = new SimulationResult(10);
+        for (int shots : new int[]{3, 4, 4, 5, 10})
+            result.record(shots);
+    }
+
+    @Test
+    @DisplayName("Statistics come from the histogram")
+    void testStatistics() {
+        assertAll(
+                () -> assertEquals(5, result.getGames()),
+                () -> assertEquals(3, result.getMin()),
+                () -> assertEquals(10, result.getMax()),
+                () -> assertEquals(5.2, result.getMean(), 1e-9),
+                () -> assertEquals(4, result.getPercentile(0.5)),
+                () -> assertEquals(3, result.getPercentile(0.0)),
+                () -> assertEquals(10, result.getPercentile(1.0)),
+                () -> assertEquals(2, result.getHistogram()[4])
+        );
+    }
+
+    @Test
+    @DisplayName("Variance is the sample variance of the games won")
+    void testVariance() {
+        // shots 3, 4, 4, 5, 10: mean 5.2, squared deviations sum to 30.8
+        assertEquals(30.8 / 4, result.getVariance(), 1e-9);
+        SimulationResult single = new SimulationResult(10);
+        single.record(4);
+        assertTrue(Double.isNaN(single.getVariance()));
+    }
+
+    @Test
+    @DisplayName("merge adds histograms and counts")
+    void testMerge() {
+        SimulationResult other = new SimulationResult(10);
+        other.record(4);
+        other.recordUnfinished();
+        result.merge(other);
+        assertAll(
+                () -> assertEquals(6, result.getGames()),
+                () -> assertEquals(1, result.getUnfinished()),
+                () -> assertEquals(3, result.getHistogram()[4])
+        );
+    }
+
+    @Test
+    @DisplayName("Results of different lengths merge and compare by their games")
+    void testGrowth() {
+        SimulationResult large = new SimulationResult(1_000_000);
+        SimulationResult small = new SimulationResult(1_000_000);
+        large.record(900_000);
+        small.record(4);
+        large.merge(small);
+        small.record(900_000);
+        assertAll(
+                () -> assertEquals(1_000_001, large.getHistogram().length),
+                () -> assertEquals(4, large.getMin()),
+                () -> assertEquals(900_000, large.getMax()),
+                () -> assertEquals(small, large),
+                () -> assertEquals(small.hashCode(), large.hashCode()),
+                () -> assertEquals(new SimulationResult(1_000_000), new SimulationResult(1_000_000)),
+                () -> assertEquals(10, result.getMaxShots())
+        );
+    }
+
+    @Test
+    @DisplayName("getHistogram returns a copy")
+    void testHistogramCopy() {
+        result.getHistogram()[3] = 100;
+        assertEquals(1, result.getHistogram()[3]);
+    }
+
+    @Test
+    @DisplayName("Games per second needs the elapsed time")
+    void testGamesPerSecond() {
+        assertTrue(Double.isNaN(result.getGamesPerSecond()));
+        result.setElapsedNanos(500_000_000L);
+        assertEquals(10.0, result.getGamesPerSecond(), 1e-9);
+        assertNotNull(result.toString());
+    }
+}
@@ -0,0 +1,92 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Simulator Class – Test Suite")
+public class SimulatorTest {
+
+    private static final int GAMES = 1000;
+    private static final int CELLS = Fleet.BOARD_SIZE * Fleet.BOARD_SIZE;
+
+    private Simulator simulator;
+
+    @BeforeEach
+    void setup() {
+        simulator = new Simulator();
+    }
+
+    @Test
+    @DisplayName("Every game is won within one shot per cell")
+    void testAllGamesWon() {
+        SimulationResult result = simulator.run(GAMES, 42L, 2);
+        assertAll(
+                () -> assertEquals(GAMES, result.getGames()),
+                () -> assertEquals(0, result.getUnfinished()),
+                () -> assertTrue(result.getMin() >= 5 + 4 + 2 * 3 + 3 * 2 + 4),
+                () -> assertTrue(result.getMax() <= CELLS),
+                () -> assertTrue(result.getElapsedNanos() > 0),
+                () -> assertTrue(result.getGamesPerSecond() > 0)
+        );
+    }
+
+    @Test
+    @DisplayName("Results of a seed do not depend on the number of threads")
+    void testReproducibleAcrossThreads() {
+        SimulationResult single = simulator.run(GAMES, 7L, 1);
+        assertAll(
+                () -> assertEquals(single, simulator.run(GAMES, 7L, 4)),
+                () -> assertEquals(single, simulator.run(GAMES, 7L)),
+                () -> assertArrayEquals(single.getHistogram(), simulator.run(GAMES, 7L, 3).getHistogram())
+        );
+    }
+
+    @Test
+    @DisplayName("Different seeds give different results")
+    void testSeedMatters() {
+        assertNotEquals(simulator.run(GAMES, 1L, 2), simulator.run(GAMES, 2L, 2));
+    }
+
+    @Test
+    @DisplayName("A random shooter needs most of the board to sink the fleet")
+    void testRandomShooterMean() {
+        double mean = simulator.run(GAMES, 3L, 2).getMean();
+        assertTrue(mean > 80 && mean <= CELLS, "mean " + mean);
+    }
+
+    @Test
+    @DisplayName("A shooter that keeps repeating the same cell gives up")
+    void testUnfinished() {
+        Simulator stuck = new Simulator(BoardSpec.STANDARD, new RandomPlacer(), (spec, random) -> new IShooter() {
+            @Override
+            public int nextShot() {
+                return IPosition.toCell(0, 0);
+            }
+
+            @Override
+            public void shotResult(int cell, boolean hit, IShip sunk) {
+            }
+        });
+        SimulationResult result = stuck.run(10, 0L, 1);
+        assertAll(
+                () -> assertEquals(0, result.getGames()),
+                () -> assertEquals(10, result.getUnfinished()),
+                () -> assertEquals(-1, stuck.play(new SplittableRandom(0L)))
+        );
+    }
+
+    @Test
+    @DisplayName("No games gives an empty result")
+    void testNoGames() {
+        SimulationResult result = simulator.run(0, 0L, 1);
+        assertAll(
+                () -> assertEquals(0, result.getGames()),
+                () -> assertEquals(-1, result.getMin()),
+                () -> assertTrue(Double.isNaN(result.getMean()))
+        );
+    }
+}
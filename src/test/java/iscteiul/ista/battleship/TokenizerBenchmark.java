@@ -0,0 +1,132 @@
+package iscteiul.ista.battleship;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of reading a taskD command script with the scanner and with
+ * the tokenizer. The script (nova with a fleet, salvos, and some estado and
+ * ver) is generated once per trial. Run with
+ * {@code mvn test -Pjmh -Djmh.args="TokenizerBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class TokenizerBenchmark {
+    private static final String[] COMMANDS = {"nova", "desisto", "rajada", "ver", "mapa", "estado"};
+
+    /**
+     * The size of the script, in megabytes
+     */
+    @Param({"100"})
+    public int megabytes;
+
+    private Path script;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        script = Files.createTempFile("script", ".txt");
+        List<IShip> ships = BenchmarkFleets.standardShips();
+        long size = (long) megabytes << 20;
+        int n = 0;
+        try (BufferedWriter out = Files.newBufferedWriter(script, StandardCharsets.US_ASCII)) {
+            while (Files.size(script) < size) {
+                for (int k = 0; k < 10_000; k++, n++) {
+                    if (n % 100 == 0) {
+                        out.write("nova\n");
+                        for (IShip s : ships)
+                            out.write(String.format("%s %d %d %s%n", ShipType.of(s).getKind(),
+                                    s.getPosition().getRow(), s.getPosition().getColumn(), s.getBearing()));
+                    } else if (n % 10 == 0) {
+                        out.write(n % 20 == 0 ? "estado\n" : "ver\n");
+                    } else {
+                        out.write(String.format("rajada %d %d %d %d %d %d%n", n % 10, n / 10 % 10,
+                                n / 100 % 10, n % 7, n % 9, n % 11 - 1));
+                    }
+                }
+                out.flush();
+            }
+            out.write("desisto\n");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(script);
+    }
+
+    /**
+     * Reads the script as Tasks did, with a scanner
+     */
+    @Benchmark
+    public long scanner() throws IOException {
+        long sum = 0;
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(script), 1 << 16)) {
+            Scanner in = new Scanner(file);
+            String command = in.next();
+            while (!command.equals("desisto")) {
+                switch (command) {
+                    case "nova":
+                        for (int i = 0; i < BoardSpec.STANDARD.getFleetSize(); i++) {
+                            sum += in.next().length();
+                            sum += in.nextInt() + in.nextInt();
+                            sum += Compass.charToCompass(in.next().charAt(0)).ordinal();
+                        }
+                        break;
+                    case "rajada":
+                        for (int i = 0; i < 2 * Protocol.NUMBER_SHOTS; i++)
+                            sum += in.nextInt();
+                        break;
+                    default:
+                        sum++;
+                }
+                command = in.next();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Reads the script with the tokenizer, from a file channel
+     */
+    @Benchmark
+    public long tokenizer() throws IOException {
+        long sum = 0;
+        try (CommandTokenizer in = new CommandTokenizer(FileChannel.open(script))) {
+            String command = in.nextWord(COMMANDS);
+            while (!"desisto".equals(command)) {
+                switch (command == null ? "" : command) {
+                    case "nova":
+                        for (int i = 0; i < BoardSpec.STANDARD.getFleetSize(); i++) {
+                            sum += in.nextShipType().getKind().length();
+                            sum += in.nextInt() + in.nextInt();
+                            sum += in.nextBearing().ordinal();
+                        }
+                        break;
+                    case "rajada":
+                        for (int i = 0; i < 2 * Protocol.NUMBER_SHOTS; i++)
+                            sum += in.nextInt();
+                        break;
+                    default:
+                        sum++;
+                }
+                command = in.nextWord(COMMANDS);
+            }
+        }
+        return sum;
+    }
+}
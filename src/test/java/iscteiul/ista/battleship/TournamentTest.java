@@ -0,0 +1,140 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tournament Class – Test Suite")
+public class TournamentTest {
+
+    private static final int GAMES = 40;
+
+    private Tournament tournament;
+
+    /**
+     * Two cheap placers; the uniform generator is only met in the benchmark
+     * run, its tables taking a second to build
+     */
+    @BeforeEach
+    void setup() {
+        tournament = new Tournament()
+                .addShooter("random", RandomShooter::new)
+                .addShooter("density", DensityShooter::new)
+                .addPlacer("random-a", new RandomPlacer())
+                .addPlacer("random-b", new RandomPlacer());
+    }
+
+    @Test
+    @DisplayName("Every shooter meets every placer for the same number of games")
+    void testEveryPairing() {
+        List<Tournament.Pairing> pairings = tournament.run(GAMES, 1L, 2);
+        assertEquals(4, pairings.size());
+        for (Tournament.Pairing p : pairings)
+            assertEquals(GAMES, p.getResult().getGames() + p.getResult().getUnfinished(), p.toString());
+        assertEquals(4, pairings.stream().map(p -> p.getShooter() + "/" + p.getPlacer()).distinct().count());
+    }
+
+    @Test
+    @DisplayName("Pairings are ranked by mean shots to win, the density shooter first")
+    void testRanking() {
+        List<Tournament.Pairing> pairings = tournament.run(GAMES, 2L, 2);
+        for (int i = 1; i < pairings.size(); i++)
+            assertTrue(pairings.get(i - 1).getResult().getMean() <= pairings.get(i).getResult().getMean());
+        assertAll(
+                () -> assertEquals("density", pairings.get(0).getShooter()),
+                () -> assertEquals("density", pairings.get(1).getShooter()),
+                () -> assertFalse(Double.isNaN(pairings.get(0).getResult().getVariance()))
+        );
+    }
+
+    @Test
+    @DisplayName("Results of a seed do not depend on the number of threads")
+    void testReproducibleAcrossThreads() {
+        List<Tournament.Pairing> single = tournament.run(GAMES, 3L, 1);
+        List<Tournament.Pairing> many = tournament.run(GAMES, 3L, 4);
+        for (int i = 0; i < single.size(); i++) {
+            assertEquals(single.get(i).getShooter(), many.get(i).getShooter());
+            assertEquals(single.get(i).getPlacer(), many.get(i).getPlacer());
+            assertEquals(single.get(i).getResult(), many.get(i).getResult());
+        }
+    }
+
+    @Test
+    @DisplayName("The listener hears of each pairing once, one at a time")
+    void testListener() {
+        List<Tournament.Pairing> heard = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Tournament.Pairing> pairings = tournament.run(GAMES, 4L, pool, heard::add);
+            assertEquals(pairings.size(), heard.size());
+            assertTrue(heard.containsAll(pairings));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("byShooter adds up the games of each shooter against every placer")
+    void testByShooter() {
+        List<Tournament.Pairing> pairings = tournament.run(GAMES, 5L, 2);
+        List<Tournament.Pairing> shooters = Tournament.byShooter(pairings);
+        assertAll(
+                () -> assertEquals(2, shooters.size()),
+                () -> assertEquals("density", shooters.get(0).getShooter()),
+                () -> assertNull(shooters.get(0).getPlacer()),
+                () -> assertEquals(2 * GAMES, shooters.get(0).getResult().getGames()),
+                () -> assertEquals(2 * GAMES, shooters.get(1).getResult().getGames())
+        );
+    }
+
+    @Test
+    @DisplayName("The table has a header and a line per pairing, in rank order")
+    void testTable() {
+        List<Tournament.Pairing> pairings = tournament.run(GAMES, 6L, 2);
+        String[] lines = Tournament.table(pairings).split(System.lineSeparator());
+        assertAll(
+                () -> assertEquals(pairings.size() + 1, lines.length),
+                () -> assertTrue(lines[0].contains("shooter")),
+                () -> assertTrue(lines[1].trim().startsWith("1")),
+                () -> assertTrue(lines[1].contains(pairings.get(0).getShooter()))
+        );
+    }
+
+    @Test
+    @DisplayName("Names are unique among shooters and among placers")
+    void testDuplicateNames() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> tournament.addShooter("random", RandomShooter::new)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> tournament.addPlacer("random-b", new RandomPlacer()))
+        );
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("The density shooter also wins against uniformly placed fleets")
+    void testGenerator() {
+        List<Tournament.Pairing> pairings = new Tournament()
+                .addShooter("random", RandomShooter::new)
+                .addShooter("density", DensityShooter::new)
+                .addPlacer("random", new RandomPlacer())
+                .addPlacer("generator", new FleetGenerator(BoardSpec.STANDARD))
+                .run(1000, 8L);
+        assertAll(
+                () -> assertEquals(4, pairings.size()),
+                () -> assertEquals("density", pairings.get(0).getShooter()),
+                () -> assertEquals("density", pairings.get(1).getShooter())
+        );
+    }
+
+    @Test
+    @DisplayName("A tournament with no shooters or placers has no pairings")
+    void testEmpty() {
+        assertTrue(new Tournament().run(GAMES, 7L).isEmpty());
+    }
+}